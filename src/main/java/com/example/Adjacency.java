@@ -0,0 +1,97 @@
+package com.example;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prekomputowane tablice sąsiedztwa dla planszy danego rozmiaru.
+ * Indeksy pól są zgodne z układem z ramką używanym przez {@link GoBoard}
+ * ({@code (y + 1) * (size + 2) + (x + 1)}). Tablice są niezmienne i współdzielone
+ * przez wszystkie silniki, więc iteracja po sąsiadach nie tworzy żadnych obiektów:
+ *
+ * <pre>
+ * for (int k = adj.start(i), end = k + adj.count[i]; k &lt; end; k++) {
+ *     int n = adj.neighbors[k];
+ * }
+ * </pre>
+ */
+public final class Adjacency {
+
+    /** Tablice sąsiedztwa współdzielone dla każdego rozmiaru planszy. */
+    private static final Map<Integer, Adjacency> CACHE = new ConcurrentHashMap<>();
+
+    /** Rozmiar planszy. */
+    public final int size;
+
+    /**
+     * Sąsiedzi leżący na planszy: dla pola {@code i} zajmują pozycje
+     * od {@code 4 * i} do {@code 4 * i + count[i] - 1}.
+     */
+    public final int[] neighbors;
+
+    /** Liczba sąsiadów na planszy (4 w środku, 3 na krawędzi, 2 w rogu, 0 dla ramki). */
+    public final int[] count;
+
+    /** Indeksy wszystkich pól planszy wierszami (od lewego górnego rogu). */
+    public final int[] points;
+
+    /** Współrzędna X dla indeksu pola. */
+    public final int[] xOf;
+
+    /** Współrzędna Y dla indeksu pola. */
+    public final int[] yOf;
+
+    /**
+     * Buduje tablice sąsiedztwa dla planszy o podanym rozmiarze.
+     *
+     * @param size Rozmiar planszy.
+     */
+    private Adjacency(int size) {
+        int stride = size + 2;
+        int cells = stride * stride;
+        this.size = size;
+        this.neighbors = new int[4 * cells];
+        this.count = new int[cells];
+        this.points = new int[size * size];
+        this.xOf = new int[cells];
+        this.yOf = new int[cells];
+
+        int[] dirs = {1, -1, stride, -stride};
+        int p = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int i = (y + 1) * stride + (x + 1);
+                points[p++] = i;
+                xOf[i] = x;
+                yOf[i] = y;
+                for (int d : dirs) {
+                    int n = i + d;
+                    int nx = n % stride - 1;
+                    int ny = n / stride - 1;
+                    if (nx >= 0 && ny >= 0 && nx < size && ny < size)
+                        neighbors[4 * i + count[i]++] = n;
+                }
+            }
+        }
+    }
+
+    /**
+     * Zwraca (współdzieloną) tablicę sąsiedztwa dla planszy o podanym rozmiarze.
+     *
+     * @param size Rozmiar planszy.
+     * @return Tablica sąsiedztwa.
+     */
+    public static Adjacency forSize(int size) {
+        return CACHE.computeIfAbsent(size, Adjacency::new);
+    }
+
+    /**
+     * Zwraca pozycję pierwszego sąsiada pola w tablicy {@link #neighbors}.
+     *
+     * @param i Indeks pola.
+     * @return Pozycja początkowa ({@code 4 * i}).
+     */
+    public int start(int i) {
+        return 4 * i;
+    }
+}
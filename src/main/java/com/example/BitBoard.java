@@ -0,0 +1,361 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Reprezentacja planszy oparta na mapach bitowych, przeznaczona do szybkich symulacji.
+ * Dla każdego koloru przechowywany jest zbiór bitów (sześć wartości {@code long}
+ * pokrywa 361 pól planszy 19x19), a pole (x, y) odpowiada bitowi {@code y * size + x}.
+ *
+ * Łańcuchy, oddechy i bicia są wyznaczane przez dylatację zbiorów bitów
+ * (przesunięcia o 1 i o {@code size} z maskami krawędzi), zamiast przeszukiwania
+ * planszy pole po polu. Na zewnątrz plansza używa tego samego układu indeksów
+ * z ramką i tych samych kluczy Zobrista co {@link Board}.
+ */
+public class BitBoard implements GoBoard {
+
+    /** Największy obsługiwany rozmiar planszy. */
+    public static final int MAX_SIZE = 19;
+
+    /** Liczba słów 64-bitowych na zbiór pól. */
+    private static final int WORDS = 6;
+
+    /** Rozmiar boku planszy. */
+    private final int size;
+
+    /** Długość wiersza w układzie indeksów z ramką. */
+    private final int stride;
+
+    /** Zbiór pól z czarnymi kamieniami. */
+    private final long[] black = new long[WORDS];
+
+    /** Zbiór pól z białymi kamieniami. */
+    private final long[] white = new long[WORDS];
+
+    /** Maska wszystkich pól planszy. */
+    private final long[] onBoard;
+
+    /** Maska pól spoza pierwszej kolumny (cel przesunięcia w prawo). */
+    private final long[] notFirstColumn;
+
+    /** Maska pól spoza ostatniej kolumny (cel przesunięcia w lewo). */
+    private final long[] notLastColumn;
+
+    /** Numer bitu dla indeksu pola z ramką (-1 dla pól ramki). */
+    private final int[] bitOf;
+
+    /** Indeks pola z ramką dla numeru bitu. */
+    private final int[] indexOf;
+
+    /** Klucze Zobrista dla pól planszy. */
+    private final long[] keys;
+
+    /** Skrót Zobrista bieżącej pozycji. */
+    private long hash;
+
+    /** Zbiór roboczy: bieżący łańcuch. */
+    private final long[] chainBits = new long[WORDS];
+
+    /** Zbiór roboczy: wynik dylatacji. */
+    private final long[] grown = new long[WORDS];
+
+    /**
+     * Tworzy nową, pustą planszę bitową.
+     *
+     * @param size Długość boku planszy (co najwyżej {@link #MAX_SIZE}).
+     * @throws IllegalArgumentException jeśli rozmiar nie mieści się w mapie bitowej.
+     */
+    public BitBoard(int size) {
+        if (size < 1 || size > MAX_SIZE)
+            throw new IllegalArgumentException("Unsupported bitboard size: " + size);
+        this.size = size;
+        this.stride = size + 2;
+        this.onBoard = new long[WORDS];
+        this.notFirstColumn = new long[WORDS];
+        this.notLastColumn = new long[WORDS];
+        this.bitOf = new int[stride * stride];
+        this.indexOf = new int[size * size];
+        this.keys = Zobrist.table(stride * stride);
+
+        Arrays.fill(bitOf, -1);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int b = y * size + x;
+                int i = (y + 1) * stride + (x + 1);
+                bitOf[i] = b;
+                indexOf[b] = i;
+                onBoard[b >>> 6] |= 1L << b;
+                if (x != 0) notFirstColumn[b >>> 6] |= 1L << b;
+                if (x != size - 1) notLastColumn[b >>> 6] |= 1L << b;
+            }
+        }
+    }
+
+    /**
+     * Tworzy kopię planszy, współdzieląc niezmienne tablice pomocnicze.
+     *
+     * @param other Plansza źródłowa.
+     */
+    private BitBoard(BitBoard other) {
+        this.size = other.size;
+        this.stride = other.stride;
+        this.onBoard = other.onBoard;
+        this.notFirstColumn = other.notFirstColumn;
+        this.notLastColumn = other.notLastColumn;
+        this.bitOf = other.bitOf;
+        this.indexOf = other.indexOf;
+        this.keys = other.keys;
+        this.hash = other.hash;
+        System.arraycopy(other.black, 0, black, 0, WORDS);
+        System.arraycopy(other.white, 0, white, 0, WORDS);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < size && y < size;
+    }
+
+    @Override
+    public int index(int x, int y) {
+        return (y + 1) * stride + (x + 1);
+    }
+
+    @Override
+    public int getStride() {
+        return stride;
+    }
+
+    @Override
+    public byte at(int i) {
+        int b = bitOf[i];
+        if (b < 0) return Board.BORDER;
+        long m = 1L << b;
+        if ((black[b >>> 6] & m) != 0) return Board.BLACK;
+        if ((white[b >>> 6] & m) != 0) return Board.WHITE;
+        return Board.EMPTY;
+    }
+
+    @Override
+    public Stone get(int x, int y) {
+        return Board.stone(at(index(x, y)));
+    }
+
+    @Override
+    public void set(int x, int y, Stone s) {
+        int i = index(x, y);
+        if (at(i) != Board.EMPTY) removeStone(i);
+        byte c = Board.code(s);
+        if (c != Board.EMPTY) placeStone(i, c);
+    }
+
+    @Override
+    public void placeStone(int i, byte c) {
+        int b = bitOf[i];
+        (c == Board.BLACK ? black : white)[b >>> 6] |= 1L << b;
+        hash ^= keys[2 * i + c - 1];
+    }
+
+    @Override
+    public void removeStone(int i) {
+        byte c = at(i);
+        int b = bitOf[i];
+        (c == Board.BLACK ? black : white)[b >>> 6] &= ~(1L << b);
+        hash ^= keys[2 * i + c - 1];
+    }
+
+    @Override
+    public int removeChain(int i, int[] out, int offset) {
+        byte c = at(i);
+        long[] own = c == Board.BLACK ? black : white;
+        flood(bitOf[i], own, chainBits);
+
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long m = chainBits[w];
+            own[w] &= ~m;
+            while (m != 0) {
+                int idx = indexOf[(w << 6) + Long.numberOfTrailingZeros(m)];
+                hash ^= keys[2 * idx + c - 1];
+                if (out != null) out[offset + count] = idx;
+                count++;
+                m &= m - 1;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int chainSize(int i) {
+        flood(bitOf[i], at(i) == Board.BLACK ? black : white, chainBits);
+        return popCount(chainBits);
+    }
+
+    @Override
+    public boolean sameChain(int a, int b) {
+        byte c = at(a);
+        if (c != at(b)) return false;
+        flood(bitOf[a], c == Board.BLACK ? black : white, chainBits);
+        int bit = bitOf[b];
+        return (chainBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public long chainHash(int i) {
+        byte c = at(i);
+        flood(bitOf[i], c == Board.BLACK ? black : white, chainBits);
+        long h = 0;
+        for (int w = 0; w < WORDS; w++) {
+            for (long m = chainBits[w]; m != 0; m &= m - 1) {
+                h ^= keys[2 * indexOf[(w << 6) + Long.numberOfTrailingZeros(m)] + c - 1];
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public boolean hasLiberties(int i) {
+        return liberties(i) > 0;
+    }
+
+    @Override
+    public boolean inAtari(int i) {
+        return liberties(i) == 1;
+    }
+
+    /**
+     * Zwraca liczbę (rzeczywistych) oddechów łańcucha zawierającego podany kamień.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return Liczba różnych pustych pól sąsiadujących z łańcuchem.
+     */
+    public int liberties(int i) {
+        flood(bitOf[i], at(i) == Board.BLACK ? black : white, chainBits);
+        dilate(chainBits, grown);
+        int n = 0;
+        for (int w = 0; w < WORDS; w++)
+            n += Long.bitCount(grown[w] & ~black[w] & ~white[w]);
+        return n;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public long zobristKey(int i, byte c) {
+        return keys[2 * i + c - 1];
+    }
+
+    @Override
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    /**
+     * Wyznacza łańcuch zawierający dany bit przez powtarzaną dylatację
+     * ograniczoną do pól tego samego koloru.
+     *
+     * @param bit   Numer bitu kamienia początkowego.
+     * @param color Zbiór pól koloru łańcucha.
+     * @param out   Zbiór wynikowy (łańcuch).
+     */
+    private void flood(int bit, long[] color, long[] out) {
+        Arrays.fill(out, 0L);
+        out[bit >>> 6] = 1L << bit;
+        while (true) {
+            dilate(out, grown);
+            boolean changed = false;
+            for (int w = 0; w < WORDS; w++) {
+                long g = grown[w] & color[w];
+                if (g != out[w]) {
+                    out[w] = g;
+                    changed = true;
+                }
+            }
+            if (!changed) return;
+        }
+    }
+
+    /**
+     * Rozszerza zbiór pól o wszystkich ich sąsiadów (dylatacja o jedno pole).
+     *
+     * @param src Zbiór wejściowy.
+     * @param out Zbiór wynikowy (różny od wejściowego).
+     */
+    private void dilate(long[] src, long[] out) {
+        int back = 64 - size;
+        for (int w = 0; w < WORDS; w++) {
+            long cur = src[w];
+            long lo = w > 0 ? src[w - 1] : 0L;
+            long hi = w < WORDS - 1 ? src[w + 1] : 0L;
+            long right = (cur << 1) | (lo >>> 63);
+            long left = (cur >>> 1) | (hi << 63);
+            long down = (cur << size) | (lo >>> back);
+            long up = (cur >>> size) | (hi << back);
+            out[w] = (cur | (right & notFirstColumn[w]) | (left & notLastColumn[w]) | down | up)
+                    & onBoard[w];
+        }
+    }
+
+    /**
+     * Zlicza ustawione bity zbioru.
+     *
+     * @param bits Zbiór pól.
+     * @return Liczba pól w zbiorze.
+     */
+    private static int popCount(long[] bits) {
+        int n = 0;
+        for (long w : bits) n += Long.bitCount(w);
+        return n;
+    }
+
+    /**
+     * Generuje tekstową reprezentację planszy w tym samym formacie co {@link Board#toString()}.
+     *
+     * @return Łańcuch znaków przedstawiający planszę wiersz po wierszu.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(size * (2 * size + 1));
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                byte c = at(index(x, y));
+                sb.append(c == Board.BLACK ? 'B' : c == Board.WHITE ? 'W' : '.');
+                sb.append(' ');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Porównuje plansze bitowe według rozmiaru i układu kamieni.
+     *
+     * @param o Obiekt do porównania.
+     * @return {@code true}, jeśli plansze są logicznie równe.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof BitBoard)) return false;
+        BitBoard other = (BitBoard) o;
+        return size == other.size
+                && Arrays.equals(black, other.black)
+                && Arrays.equals(white, other.white);
+    }
+
+    /**
+     * Zwraca kod skrótu zgodny z {@link #equals(Object)}.
+     *
+     * @return Kod skrótu wyliczony ze skrótu Zobrista pozycji.
+     */
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
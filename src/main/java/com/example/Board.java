@@ -1,34 +1,180 @@
 package com.example;
 
+import java.util.Arrays;
+
 /**
  * Reprezentuje planszę do gry.
- * Plansza przechowuje stan gry w postaci dwuwymiarowej tablicy obiektów {@link Stone}.
+ * Plansza przechowuje stan gry w jednowymiarowej tablicy bajtów otoczonej
+ * ramką pól wartowniczych ({@link #BORDER}). Dzięki temu sąsiedzi pola o indeksie
+ * {@code i} to zawsze {@code i - 1}, {@code i + 1}, {@code i - stride} oraz
+ * {@code i + stride}, bez sprawdzania granic i bez dwuwymiarowej tablicy.
+ *
+ * Plansza utrzymuje również przyrostowo strukturę łańcuchów: każdy kamień wskazuje
+ * reprezentanta swojego łańcucha (łączenie według rozmiaru), kamienie łańcucha tworzą
+ * listę cykliczną, a dla reprezentanta pamiętana jest liczba pseudo-oddechów
+ * (par kamień – sąsiednie puste pole) wraz z sumą i sumą kwadratów ich indeksów.
+ * Pozwala to sprawdzić w czasie stałym, czy łańcuch ma oddech lub jest w atari.
+ *
+ * Dodatkowo plansza utrzymuje 64-bitowy skrót Zobrista pozycji ({@link #getHash()}),
+ * aktualizowany przy każdym postawieniu i zdjęciu kamienia.
  */
-public class Board {
+public class Board implements GoBoard {
+
+    /** Kod pustego pola. */
+    public static final byte EMPTY = 0;
+
+    /** Kod czarnego kamienia. */
+    public static final byte BLACK = 1;
+
+    /** Kod białego kamienia. */
+    public static final byte WHITE = 2;
+
+    /** Kod pola wartowniczego leżącego poza planszą. */
+    public static final byte BORDER = 3;
+
+    /** Odwzorowanie kodów pól na obiekty {@link Stone} (BORDER nie ma odpowiednika). */
+    private static final Stone[] STONES = {Stone.EMPTY, Stone.BLACK, Stone.WHITE, null};
 
     /**
-     * Dwuwymiarowa tablica przechowywująca układ kamieni na planszy.
-     * Pierwszy indeks to współrzędna X, drugi to współrzędna Y.
+     * Jednowymiarowa tablica pól planszy wraz z ramką wartowniczą.
+     * Pole (x, y) znajduje się pod indeksem {@code (y + 1) * stride + (x + 1)}.
      */
-    private final Stone[][] grid;
+    private final byte[] cells;
 
     /**
      * Rozmiar boku planszy.
      */
     private final int size;
 
+    /**
+     * Długość wiersza w tablicy {@link #cells} (rozmiar planszy powiększony o ramkę).
+     */
+    private final int stride;
+
+    /** Przesunięcia indeksów do czterech sąsiadów pola. */
+    private final int[] dirs;
+
+    /** Reprezentant łańcucha dla każdego kamienia. */
+    private final int[] chain;
+
+    /** Następny kamień w cyklicznej liście kamieni łańcucha. */
+    private final int[] next;
+
+    /** Liczba kamieni łańcucha (ważna dla reprezentanta). */
+    private final int[] chainSize;
+
+    /** Liczba pseudo-oddechów łańcucha (ważna dla reprezentanta). */
+    private final int[] libCount;
+
+    /** Suma indeksów pseudo-oddechów łańcucha (ważna dla reprezentanta). */
+    private final int[] libSum;
+
+    /** Suma kwadratów indeksów pseudo-oddechów łańcucha (ważna dla reprezentanta). */
+    private final long[] libSumSq;
+
+    /** Klucze Zobrista dla pól planszy (patrz {@link Zobrist#table(int)}). */
+    private final long[] keys;
+
+    /** Skrót Zobrista bieżącej pozycji. */
+    private long hash;
+
+    /** Wiersze (w układzie z ramką) zmienione od ostatniej migawki. */
+    private final boolean[] dirtyRows;
+
+    /** Ostatnia utworzona migawka planszy (patrz {@link #snapshot()}). */
+    private BoardSnapshot lastSnapshot;
+
+    /** Dołączony tracker terytorium lub {@code null} (patrz {@link #trackTerritory()}). */
+    private TerritoryTracker territory;
+
+    /** Dołączony tracker skrótów symetrii lub {@code null} (patrz {@link #trackSymmetries()}). */
+    private CanonicalHash symmetries;
+
+    /** Bufor roboczy na kamienie przebudowywanego łańcucha. */
+    private final int[] scratch;
+
+    /** Stos roboczy przeszukiwania przy przebudowie łańcuchów. */
+    private final int[] stack;
+
+    /** Znaczniki pól używane przy przebudowie łańcuchów. */
+    private final int[] mark;
+
+    /** Bieżąca wartość znacznika w tablicy {@link #mark}. */
+    private int epoch;
+
     /**
      * Tworzy nową, pustą planszę o zadanym rozmiarze.
-     * Wszystkie pola są inicjalizowane wartością {@link Stone#EMPTY}.
+     * Wszystkie pola są inicjalizowane wartością {@link Stone#EMPTY},
+     * a ramka wokół planszy wartością {@link #BORDER}.
      *
      * @param size Długość boku planszy.
      */
     public Board(int size) {
         this.size = size;
-        grid = new Stone[size][size];
-        for (int i = 0; i < size; i++)
-            for (int j = 0; j < size; j++)
-                grid[i][j] = Stone.EMPTY;
+        this.stride = size + 2;
+        this.cells = new byte[stride * stride];
+        this.dirs = new int[]{1, -1, stride, -stride};
+        this.chain = new int[cells.length];
+        this.next = new int[cells.length];
+        this.chainSize = new int[cells.length];
+        this.libCount = new int[cells.length];
+        this.libSum = new int[cells.length];
+        this.libSumSq = new long[cells.length];
+        this.keys = Zobrist.table(cells.length);
+        this.dirtyRows = new boolean[stride];
+        this.scratch = new int[cells.length];
+        this.stack = new int[cells.length];
+        this.mark = new int[cells.length];
+        Arrays.fill(cells, BORDER);
+        for (int y = 0; y < size; y++) {
+            int row = (y + 1) * stride + 1;
+            Arrays.fill(cells, row, row + size, EMPTY);
+        }
+    }
+
+    /**
+     * Tworzy kopię podanej planszy, kopiując całe tablice stanu (bez pętli po polach).
+     *
+     * @param other Plansza źródłowa.
+     */
+    private Board(Board other) {
+        this.size = other.size;
+        this.stride = other.stride;
+        this.cells = other.cells.clone();
+        this.dirs = other.dirs;
+        this.chain = other.chain.clone();
+        this.next = other.next.clone();
+        this.chainSize = other.chainSize.clone();
+        this.libCount = other.libCount.clone();
+        this.libSum = other.libSum.clone();
+        this.libSumSq = other.libSumSq.clone();
+        this.keys = other.keys;
+        this.hash = other.hash;
+        this.dirtyRows = other.dirtyRows.clone();
+        this.lastSnapshot = other.lastSnapshot;
+        this.scratch = new int[cells.length];
+        this.stack = new int[cells.length];
+        this.mark = new int[cells.length];
+    }
+
+    /**
+     * Zamienia kamień na jego kod w tablicy pól.
+     *
+     * @param s Kamień.
+     * @return Kod {@link #EMPTY}, {@link #BLACK} lub {@link #WHITE}.
+     */
+    public static byte code(Stone s) {
+        return s == Stone.BLACK ? BLACK : s == Stone.WHITE ? WHITE : EMPTY;
+    }
+
+    /**
+     * Zamienia kod pola na obiekt {@link Stone}.
+     *
+     * @param c Kod pola.
+     * @return Odpowiadający kamień ({@code null} dla pola wartowniczego).
+     */
+    public static Stone stone(byte c) {
+        return STONES[c];
     }
 
     /**
@@ -39,22 +185,61 @@ public class Board {
      * @return {@code true}, jeśli współrzędne (x, y) są poprawne (wewnątrz planszy),
      * w przeciwnym razie {@code false}.
      */
+    @Override
     public boolean inBounds(int x, int y) {
         return x >= 0 && y >= 0 && x < size && y < size;
     }
 
+    /**
+     * Zwraca indeks pola (x, y) w jednowymiarowej tablicy planszy.
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @return Indeks pola.
+     */
+    @Override
+    public int index(int x, int y) {
+        return (y + 1) * stride + (x + 1);
+    }
+
+    /**
+     * Zwraca kod pola o podanym indeksie.
+     * Dla indeksów z ramki zwracany jest {@link #BORDER}, więc sąsiadów można
+     * odczytywać bez sprawdzania granic.
+     *
+     * @param i Indeks pola.
+     * @return Kod pola.
+     */
+    @Override
+    public byte at(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Zwraca długość wiersza w jednowymiarowej tablicy planszy.
+     * Jest to przesunięcie indeksu między polem a jego sąsiadem pionowym.
+     *
+     * @return Długość wiersza (rozmiar planszy + 2).
+     */
+    @Override
+    public int getStride() {
+        return stride;
+    }
+
     /**
      * Pobiera kamień znajdujący się na podanych współrzędnych.
-     * Uwaga: Metoda nie sprawdza granic tablicy. W przypadku podania
-     * nieprawidłowych współrzędnych może zostać rzucony wyjątek {@link ArrayIndexOutOfBoundsException}.
+     * Uwaga: Metoda nie sprawdza granic planszy. Dla współrzędnych tuż poza planszą
+     * zwracany jest {@code null} (pole wartownicze), a dla dalszych może zostać rzucony
+     * wyjątek {@link ArrayIndexOutOfBoundsException}.
      * Zaleca się wcześniejsze sprawdzenie metodą {@link #inBounds(int, int)}.
      *
      * @param x Współrzędna pozioma pola.
      * @param y Współrzędna pionowa pola.
      * @return Obiekt {@link Stone} znajdujący się na wskazanym polu.
      */
+    @Override
     public Stone get(int x, int y) {
-        return grid[x][y];
+        return STONES[cells[index(x, y)]];
     }
 
     /**
@@ -64,8 +249,341 @@ public class Board {
      * @param y Współrzędna pionowa pola.
      * @param s Kamień ({@link Stone}), który ma zostać postawiony (np. BLACK, WHITE lub EMPTY).
      */
+    @Override
     public void set(int x, int y, Stone s) {
-        grid[x][y] = s;
+        int i = index(x, y);
+        byte c = code(s);
+        if (cells[i] == c) return;
+        if (cells[i] != EMPTY) removeStone(i);
+        if (c != EMPTY) placeStone(i, c);
+    }
+
+    /**
+     * Stawia kamień na pustym polu i aktualizuje strukturę łańcuchów:
+     * sąsiednie łańcuchy tracą pseudo-oddech, a łańcuchy tego samego koloru
+     * są łączone (mniejszy dołączany do większego).
+     * Metoda nie usuwa zbitych kamieni – robi to {@link RulesEngine}.
+     *
+     * @param i Indeks pustego pola.
+     * @param c Kod koloru kamienia ({@link #BLACK} lub {@link #WHITE}).
+     */
+    @Override
+    public void placeStone(int i, byte c) {
+        cells[i] = c;
+        hash ^= keys[2 * i + c - 1];
+        dirtyRows[i / stride] = true;
+        if (territory != null) territory.changed(i);
+        if (symmetries != null) symmetries.toggle(i, c);
+        chain[i] = i;
+        next[i] = i;
+        chainSize[i] = 1;
+        libCount[i] = 0;
+        libSum[i] = 0;
+        libSumSq[i] = 0;
+
+        for (int d = 0; d < 4; d++) {
+            int n = i + dirs[d];
+            byte cn = cells[n];
+            if (cn == EMPTY) addLiberty(i, n);
+            else if (cn != BORDER) removeLiberty(chain[n], i);
+        }
+        for (int d = 0; d < 4; d++) {
+            int n = i + dirs[d];
+            if (cells[n] == c && chain[n] != chain[i]) merge(chain[i], chain[n]);
+        }
+    }
+
+    /**
+     * Zdejmuje pojedynczy kamień z planszy.
+     * Jeśli kamień należał do większego łańcucha, pozostałe kamienie tego łańcucha
+     * są przebudowywane (mogą rozpaść się na kilka łańcuchów), co kosztuje czas
+     * proporcjonalny do rozmiaru łańcucha.
+     *
+     * @param i Indeks pola z kamieniem.
+     */
+    @Override
+    public void removeStone(int i) {
+        int h = chain[i];
+        int n = 0;
+        for (int s = next[i]; s != i; s = next[s])
+            scratch[n++] = s;
+
+        hash ^= keys[2 * i + cells[i] - 1];
+        if (symmetries != null) symmetries.toggle(i, cells[i]);
+        cells[i] = EMPTY;
+        dirtyRows[i / stride] = true;
+        if (territory != null) territory.changed(i);
+        for (int d = 0; d < 4; d++) {
+            int nb = i + dirs[d];
+            byte cn = cells[nb];
+            if ((cn == BLACK || cn == WHITE) && chain[nb] != h) addLiberty(chain[nb], i);
+        }
+        if (n > 0) rebuild(scratch, n);
+    }
+
+    /**
+     * Usuwa z planszy cały łańcuch zawierający podany kamień (zbicie).
+     * Sąsiednie łańcuchy zyskują pseudo-oddechy w miejscu zdjętych kamieni.
+     *
+     * @param i Indeks dowolnego kamienia łańcucha.
+     * @return Liczba zdjętych kamieni.
+     */
+    public int removeChain(int i) {
+        return removeChain(i, null, 0);
+    }
+
+    /**
+     * Usuwa z planszy cały łańcuch zawierający podany kamień (zbicie),
+     * zapisując indeksy zdjętych kamieni do bufora.
+     *
+     * @param i      Indeks dowolnego kamienia łańcucha.
+     * @param out    Bufor na indeksy zdjętych kamieni (może być {@code null}).
+     * @param offset Pozycja w buforze, od której zapisywane są indeksy.
+     * @return Liczba zdjętych kamieni.
+     */
+    @Override
+    public int removeChain(int i, int[] out, int offset) {
+        int count = 0;
+        int s = i;
+        do {
+            hash ^= keys[2 * s + cells[s] - 1];
+            if (symmetries != null) symmetries.toggle(s, cells[s]);
+            cells[s] = EMPTY;
+            dirtyRows[s / stride] = true;
+            if (territory != null) territory.changed(s);
+            if (out != null) out[offset + count] = s;
+            count++;
+            s = next[s];
+        } while (s != i);
+
+        do {
+            for (int d = 0; d < 4; d++) {
+                int n = s + dirs[d];
+                byte cn = cells[n];
+                if (cn == BLACK || cn == WHITE) addLiberty(chain[n], s);
+            }
+            s = next[s];
+        } while (s != i);
+        return count;
+    }
+
+    /**
+     * Zwraca skrót Zobrista bieżącej pozycji.
+     * Pusta plansza ma skrót 0, a plansze o tym samym rozmiarze i układzie kamieni
+     * mają zawsze ten sam skrót, niezależnie od kolejności ruchów.
+     *
+     * @return 64-bitowy skrót pozycji.
+     */
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Zwraca klucz Zobrista kamienia danego koloru na danym polu.
+     * Pozwala przewidzieć skrót pozycji po ruchu bez modyfikowania planszy.
+     *
+     * @param i Indeks pola.
+     * @param c Kod koloru ({@link #BLACK} lub {@link #WHITE}).
+     * @return Klucz Zobrista.
+     */
+    @Override
+    public long zobristKey(int i, byte c) {
+        return keys[2 * i + c - 1];
+    }
+
+    /**
+     * Zwraca reprezentanta łańcucha zawierającego podany kamień.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return Indeks reprezentanta łańcucha.
+     */
+    public int chainOf(int i) {
+        return chain[i];
+    }
+
+    /**
+     * Zwraca następny kamień w cyklicznej liście kamieni łańcucha.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return Indeks następnego kamienia tego samego łańcucha.
+     */
+    public int nextInChain(int i) {
+        return next[i];
+    }
+
+    /**
+     * Zwraca liczbę kamieni w łańcuchu zawierającym podany kamień.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return Rozmiar łańcucha.
+     */
+    @Override
+    public int chainSize(int i) {
+        return chainSize[chain[i]];
+    }
+
+    /**
+     * Zwraca liczbę pseudo-oddechów łańcucha. Pusty punkt sąsiadujący z kilkoma
+     * kamieniami łańcucha jest liczony wielokrotnie, ale wartość zero oznacza
+     * dokładnie brak oddechów.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return Liczba pseudo-oddechów łańcucha.
+     */
+    public int pseudoLiberties(int i) {
+        return libCount[chain[i]];
+    }
+
+    @Override
+    public boolean sameChain(int a, int b) {
+        return chain[a] == chain[b];
+    }
+
+    @Override
+    public long chainHash(int i) {
+        long h = 0;
+        int s = i;
+        do {
+            h ^= keys[2 * s + cells[s] - 1];
+            s = next[s];
+        } while (s != i);
+        return h;
+    }
+
+    /**
+     * Sprawdza, czy łańcuch ma choć jeden oddech.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return {@code true}, jeśli łańcuch ma oddech.
+     */
+    @Override
+    public boolean hasLiberties(int i) {
+        return libCount[chain[i]] > 0;
+    }
+
+    /**
+     * Sprawdza, czy łańcuch ma dokładnie jeden (rzeczywisty) oddech.
+     * Wszystkie pseudo-oddechy wskazują ten sam punkt wtedy i tylko wtedy,
+     * gdy {@code liczba * suma kwadratów == suma^2}.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return {@code true}, jeśli łańcuch jest w atari.
+     */
+    @Override
+    public boolean inAtari(int i) {
+        int h = chain[i];
+        long count = libCount[h];
+        long sum = libSum[h];
+        return count > 0 && count * libSumSq[h] == sum * sum;
+    }
+
+    /**
+     * Zwraca jedyny oddech łańcucha będącego w atari.
+     * Wynik ma sens tylko wtedy, gdy {@link #inAtari(int)} zwraca {@code true}.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return Indeks pola oddechu.
+     */
+    public int atariLiberty(int i) {
+        int h = chain[i];
+        return libSum[h] / libCount[h];
+    }
+
+    /**
+     * Dodaje pseudo-oddech do łańcucha.
+     *
+     * @param h   Reprezentant łańcucha.
+     * @param lib Indeks pustego pola.
+     */
+    private void addLiberty(int h, int lib) {
+        libCount[h]++;
+        libSum[h] += lib;
+        libSumSq[h] += (long) lib * lib;
+    }
+
+    /**
+     * Odejmuje pseudo-oddech od łańcucha.
+     *
+     * @param h   Reprezentant łańcucha.
+     * @param lib Indeks zajmowanego pola.
+     */
+    private void removeLiberty(int h, int lib) {
+        libCount[h]--;
+        libSum[h] -= lib;
+        libSumSq[h] -= (long) lib * lib;
+    }
+
+    /**
+     * Łączy dwa łańcuchy, przepinając kamienie mniejszego na reprezentanta większego.
+     *
+     * @param a Reprezentant pierwszego łańcucha.
+     * @param b Reprezentant drugiego łańcucha.
+     */
+    private void merge(int a, int b) {
+        if (chainSize[a] < chainSize[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int s = b;
+        do {
+            chain[s] = a;
+            s = next[s];
+        } while (s != b);
+
+        int t = next[a];
+        next[a] = next[b];
+        next[b] = t;
+
+        chainSize[a] += chainSize[b];
+        libCount[a] += libCount[b];
+        libSum[a] += libSum[b];
+        libSumSq[a] += libSumSq[b];
+    }
+
+    /**
+     * Od nowa wyznacza łańcuchy dla podanego zbioru kamieni (po rozcięciu łańcucha).
+     *
+     * @param stones Tablica indeksów kamieni.
+     * @param n      Liczba kamieni w tablicy.
+     */
+    private void rebuild(int[] stones, int n) {
+        int m = ++epoch;
+        for (int k = 0; k < n; k++) mark[stones[k]] = m;
+
+        for (int k = 0; k < n; k++) {
+            int h = stones[k];
+            if (mark[h] != m) continue;
+
+            byte c = cells[h];
+            mark[h] = 0;
+            chain[h] = h;
+            next[h] = h;
+            chainSize[h] = 1;
+            libCount[h] = 0;
+            libSum[h] = 0;
+            libSumSq[h] = 0;
+
+            int top = 0;
+            stack[top++] = h;
+            while (top > 0) {
+                int s = stack[--top];
+                for (int d = 0; d < 4; d++) {
+                    int nb = s + dirs[d];
+                    if (cells[nb] == EMPTY) {
+                        addLiberty(h, nb);
+                    } else if (cells[nb] == c && mark[nb] == m) {
+                        mark[nb] = 0;
+                        chain[nb] = h;
+                        next[nb] = next[h];
+                        next[h] = nb;
+                        chainSize[h]++;
+                        stack[top++] = nb;
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -74,11 +592,12 @@ public class Board {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(size * (2 * size + 1));
         for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
-                sb.append(grid[x][y] == Stone.BLACK ? 'B' :
-                        grid[x][y] == Stone.WHITE ? 'W' : '.');
+            int i = index(0, y);
+            for (int x = 0; x < size; x++, i++) {
+                byte c = cells[i];
+                sb.append(c == BLACK ? 'B' : c == WHITE ? 'W' : '.');
                 sb.append(' ');
             }
             sb.append('\n');
@@ -91,6 +610,7 @@ public class Board {
      *
      * @return Długość boku planszy.
      */
+    @Override
     public int getSize() {
         return size;
     }
@@ -101,12 +621,93 @@ public class Board {
      *
      * @return Nowy obiekt {@code Board} będący kopią bieżącego.
      */
+    @Override
     public Board copy() {
-        Board b = new Board(size);
-        for (int x = 0; x < size; x++)
-            for (int y = 0; y < size; y++)
-                b.grid[x][y] = this.grid[x][y];
-        return b;
+        return new Board(this);
+    }
+
+    /**
+     * Nadpisuje stan tej planszy stanem innej planszy tego samego rozmiaru
+     * bez tworzenia nowych obiektów.
+     *
+     * @param other Plansza źródłowa.
+     */
+    public void copyFrom(Board other) {
+        if (other.size != size)
+            throw new IllegalArgumentException("Board size mismatch: " + other.size + " != " + size);
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.chain, 0, chain, 0, chain.length);
+        System.arraycopy(other.next, 0, next, 0, next.length);
+        System.arraycopy(other.chainSize, 0, chainSize, 0, chainSize.length);
+        System.arraycopy(other.libCount, 0, libCount, 0, libCount.length);
+        System.arraycopy(other.libSum, 0, libSum, 0, libSum.length);
+        System.arraycopy(other.libSumSq, 0, libSumSq, 0, libSumSq.length);
+        hash = other.hash;
+        System.arraycopy(other.dirtyRows, 0, dirtyRows, 0, dirtyRows.length);
+        lastSnapshot = other.lastSnapshot;
+        if (territory != null) territory.invalidate();
+        if (symmetries != null) symmetries.invalidate();
+    }
+
+    /**
+     * Dołącza do planszy tracker terytorium (lub zwraca już dołączony).
+     * Od tej chwili każda zmiana planszy jest zgłaszana trackerowi, który
+     * utrzymuje bieżące sumy terytorium. Kopie planszy nie dziedziczą trackera.
+     *
+     * @return Tracker terytorium tej planszy.
+     */
+    public TerritoryTracker trackTerritory() {
+        if (territory == null) territory = new TerritoryTracker(this);
+        return territory;
+    }
+
+    /**
+     * Dołącza do planszy tracker skrótów we wszystkich ośmiu symetriach
+     * (lub zwraca już dołączony). Od tej chwili każda zmiana planszy aktualizuje
+     * skróty przyrostowo. Kopie planszy nie dziedziczą trackera.
+     *
+     * @return Tracker skrótów symetrii tej planszy.
+     */
+    public CanonicalHash trackSymmetries() {
+        if (symmetries == null) symmetries = new CanonicalHash(this);
+        return symmetries;
+    }
+
+    /**
+     * Zwraca niezmienną migawkę bieżącego układu kamieni.
+     * Wiersze, które nie zmieniły się od poprzedniej migawki, są z nią współdzielone,
+     * więc koszt jest proporcjonalny do liczby zmienionych wierszy. Jeśli plansza
+     * nie zmieniła się wcale, zwracana jest ta sama migawka.
+     *
+     * @return Migawka planszy.
+     */
+    public BoardSnapshot snapshot() {
+        BoardSnapshot prev = lastSnapshot;
+        if (prev != null && !isDirty()) return prev;
+
+        byte[][] rows = new byte[size][];
+        for (int y = 0; y < size; y++) {
+            if (prev != null && !dirtyRows[y + 1]) {
+                rows[y] = prev.row(y);
+            } else {
+                int from = index(0, y);
+                rows[y] = Arrays.copyOfRange(cells, from, from + size);
+                dirtyRows[y + 1] = false;
+            }
+        }
+        lastSnapshot = new BoardSnapshot(size, rows, hash);
+        return lastSnapshot;
+    }
+
+    /**
+     * Sprawdza, czy któryś wiersz zmienił się od ostatniej migawki.
+     *
+     * @return {@code true}, jeśli plansza została zmieniona.
+     */
+    private boolean isDirty() {
+        for (boolean d : dirtyRows)
+            if (d) return true;
+        return false;
     }
 
     /**
@@ -121,13 +722,16 @@ public class Board {
     public boolean equals(Object o) {
         if (!(o instanceof Board)) return false;
         Board other = (Board) o;
-        if (this.size != other.size) return false;
-
-        for (int x = 0; x < size; x++)
-            for (int y = 0; y < size; y++)
-                if (this.grid[x][y] != other.grid[x][y])
-                    return false;
+        return this.size == other.size && Arrays.equals(this.cells, other.cells);
+    }
 
-        return true;
+    /**
+     * Zwraca kod skrótu zgodny z {@link #equals(Object)}.
+     *
+     * @return Kod skrótu wyliczony ze skrótu Zobrista pozycji.
+     */
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
     }
-}
\ No newline at end of file
+}
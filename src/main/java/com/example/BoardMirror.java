@@ -0,0 +1,92 @@
+package com.example;
+
+/**
+ * Kopia planszy po stronie klienta, odtwarzana ze stanów gry ({@link GameState})
+ * przysyłanych przez serwer: pełny stan zastępuje planszę, a zmiana jest nakładana,
+ * jeśli jej numer sekwencyjny jest następny po ostatnio zastosowanym.
+ *
+ * Jeśli zmiana nie pasuje (zgubiona lub nieznana wcześniejsza plansza), kopia jest
+ * nieaktualna i klient powinien poprosić serwer o pełny stan ({@link FrameCodec#RESYNC}).
+ */
+public class BoardMirror {
+
+    /** Rozmiar planszy (0 przed pierwszym pełnym stanem). */
+    private int size;
+
+    /** Kody pól ({@link Board#EMPTY}, {@link Board#BLACK}, {@link Board#WHITE}) wiersz po wierszu. */
+    private byte[] points;
+
+    /** Numer sekwencyjny ostatnio zastosowanej planszy. */
+    private int seq;
+
+    /** Czy kopia odpowiada planszy serwera. */
+    private boolean synced;
+
+    /**
+     * Nakłada stan gry na kopię planszy.
+     *
+     * @param state Stan gry od serwera.
+     * @return {@code true}, jeśli kopia jest aktualna; {@code false}, jeśli trzeba poprosić o pełny stan.
+     */
+    public boolean apply(GameState state) {
+        if (state.isFull()) {
+            if (state.size != size) {
+                size = state.size;
+                points = new byte[size * size];
+            }
+            for (int y = 0; y < size; y++)
+                for (int x = 0; x < size; x++) points[y * size + x] = Board.code(state.get(x, y));
+            seq = state.seq;
+            synced = true;
+            return true;
+        }
+        if (!synced) return false;
+        if (state.seq == seq && state.getChangeCount() == 0) return true;
+        if (state.seq != seq + 1 || state.size != size) {
+            synced = false;
+            return false;
+        }
+        for (int k = 0; k < state.getChangeCount(); k++)
+            points[state.getChangePoint(k)] = Board.code(state.getChangeStone(k));
+        seq = state.seq;
+        return true;
+    }
+
+    /**
+     * Sprawdza, czy kopia odpowiada planszy serwera.
+     *
+     * @return {@code true} po pełnym stanie i kolejnych pasujących zmianach.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return Rozmiar lub 0 przed pierwszym pełnym stanem.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Zwraca numer sekwencyjny ostatnio zastosowanej planszy.
+     *
+     * @return Numer sekwencyjny.
+     */
+    public int getSeq() {
+        return seq;
+    }
+
+    /**
+     * Pobiera kamień znajdujący się na podanych współrzędnych.
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @return Kamień na wskazanym polu.
+     */
+    public Stone get(int x, int y) {
+        return Board.stone(points[y * size + x]);
+    }
+}
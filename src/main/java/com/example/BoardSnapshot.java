@@ -0,0 +1,195 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Niezmienna migawka układu kamieni na planszy.
+ * Migawka jest podzielona na wiersze; kolejne migawki tej samej planszy
+ * współdzielą tablice wierszy, które się nie zmieniły (kopiowanie przy zapisie),
+ * więc migawka po ruchu kosztuje czas proporcjonalny do liczby zmienionych wierszy.
+ *
+ * Obiekt jest bezpieczny do odczytu z wielu wątków bez synchronizacji
+ * (np. przez wątki botów lub wysyłające stan gry), ponieważ jego wiersze
+ * nigdy nie są modyfikowane po utworzeniu.
+ */
+public final class BoardSnapshot {
+
+    /** Rozmiar planszy. */
+    private final int size;
+
+    /** Wiersze planszy z kodami pól ({@link Board#EMPTY}, {@link Board#BLACK}, {@link Board#WHITE}). */
+    private final byte[][] rows;
+
+    /** Skrót Zobrista pozycji. */
+    private final long hash;
+
+    /** Tekstowa reprezentacja planszy wyznaczana przy pierwszym użyciu. */
+    private String text;
+
+    /** Plansza upakowana po 2 bity na pole, wyznaczana przy pierwszym użyciu. */
+    private volatile byte[] packed;
+
+    /**
+     * Tworzy migawkę z gotowych wierszy (tablice nie mogą być później modyfikowane).
+     *
+     * @param size Rozmiar planszy.
+     * @param rows Wiersze planszy.
+     * @param hash Skrót Zobrista pozycji.
+     */
+    BoardSnapshot(int size, byte[][] rows, long hash) {
+        this.size = size;
+        this.rows = rows;
+        this.hash = hash;
+    }
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return Długość boku planszy.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Pobiera kamień znajdujący się na podanych współrzędnych.
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @return Kamień na wskazanym polu.
+     */
+    public Stone get(int x, int y) {
+        return Board.stone(rows[y][x]);
+    }
+
+    /**
+     * Zwraca kod pola o podanych współrzędnych.
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @return Kod pola.
+     */
+    public byte at(int x, int y) {
+        return rows[y][x];
+    }
+
+    /**
+     * Zwraca skrót Zobrista pozycji.
+     *
+     * @return 64-bitowy skrót pozycji.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Sprawdza, czy wiersz jest współdzielony z inną migawką (ta sama tablica).
+     *
+     * @param other Inna migawka.
+     * @param y     Numer wiersza.
+     * @return {@code true}, jeśli obie migawki używają tej samej tablicy wiersza.
+     */
+    boolean sharesRow(BoardSnapshot other, int y) {
+        return rows[y] == other.rows[y];
+    }
+
+    /**
+     * Zwraca tablicę wiersza (do współdzielenia przez kolejną migawkę).
+     *
+     * @param y Numer wiersza.
+     * @return Tablica wiersza (nie wolno jej modyfikować).
+     */
+    byte[] row(int y) {
+        return rows[y];
+    }
+
+    /**
+     * Tworzy nową, modyfikowalną planszę o układzie kamieni z migawki.
+     *
+     * @return Nowa plansza.
+     */
+    public Board toBoard() {
+        Board b = new Board(size);
+        for (int y = 0; y < size; y++) {
+            byte[] row = rows[y];
+            for (int x = 0; x < size; x++)
+                if (row[x] != Board.EMPTY) b.placeStone(b.index(x, y), row[x]);
+        }
+        return b;
+    }
+
+    /**
+     * Generuje tekstową reprezentację planszy w formacie {@link Board#toString()}.
+     * Wynik jest zapamiętywany, więc wysłanie tej samej migawki wielu odbiorcom
+     * buduje tekst tylko raz.
+     *
+     * @return Łańcuch znaków przedstawiający planszę wiersz po wierszu.
+     */
+    @Override
+    public String toString() {
+        String t = text;
+        if (t == null) {
+            StringBuilder sb = new StringBuilder(size * (2 * size + 1));
+            for (byte[] row : rows) {
+                for (byte c : row) {
+                    sb.append(c == Board.BLACK ? 'B' : c == Board.WHITE ? 'W' : '.');
+                    sb.append(' ');
+                }
+                sb.append('\n');
+            }
+            t = sb.toString();
+            text = t;
+        }
+        return t;
+    }
+
+    /**
+     * Zwraca planszę upakowaną po 2 bity na pole (kody {@link Board#EMPTY},
+     * {@link Board#BLACK}, {@link Board#WHITE}), wiersz po wierszu; pole o numerze
+     * {@code k = y * size + x} zajmuje bity {@code 2 * (k % 4)} bajtu {@code k / 4}.
+     * Wynik jest zapamiętywany, więc wysłanie tej samej migawki wielu odbiorcom
+     * pakuje planszę tylko raz. Zwróconej tablicy nie wolno modyfikować.
+     *
+     * @return Upakowana plansza ({@code (size * size + 3) / 4} bajtów).
+     */
+    byte[] packed() {
+        byte[] p = packed;
+        if (p == null) {
+            p = new byte[(size * size + 3) / 4];
+            int k = 0;
+            for (byte[] row : rows) {
+                for (byte c : row) {
+                    p[k >> 2] |= (byte) (c << ((k & 3) << 1));
+                    k++;
+                }
+            }
+            packed = p;
+        }
+        return p;
+    }
+
+    /**
+     * Wyznacza pola, które zmieniły się od wcześniejszej migawki tej samej planszy.
+     * Wiersze współdzielone przez obie migawki są pomijane bez porównywania pól,
+     * więc koszt zależy od liczby zmienionych wierszy, a nie od rozmiaru planszy.
+     *
+     * @param older Wcześniejsza migawka planszy o tym samym rozmiarze.
+     * @return Zmiany zakodowane jako {@code (y * size + x) << 2 | kod}, gdzie kod jest nowym
+     * kodem pola ({@link Board#EMPTY}, {@link Board#BLACK}, {@link Board#WHITE}).
+     */
+    int[] diff(BoardSnapshot older) {
+        int n = 0;
+        int[] changes = new int[8];
+        for (int y = 0; y < size; y++) {
+            byte[] row = rows[y];
+            byte[] old = older.rows[y];
+            if (row == old) continue;
+            for (int x = 0; x < size; x++) {
+                if (row[x] == old[x]) continue;
+                if (n == changes.length) changes = Arrays.copyOf(changes, 2 * n);
+                changes[n++] = (y * size + x) << 2 | row[x];
+            }
+        }
+        return Arrays.copyOf(changes, n);
+    }
+}
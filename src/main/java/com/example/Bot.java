@@ -10,19 +10,26 @@ import java.util.Random;
  * Bot implementuje interfejs {@link Player} i podejmuje decyzje na podstawie
  * analizy stanu planszy. Strategia bota opiera się na priorytetyzacji ruchów:
  *
- * Atak (Capture): Jeśli ruch zbija kamienie przeciwnika, jest wybierany w pierwszej kolejności.
+ * Atak (Capture): Jeśli ruch zbija kamienie przeciwnika lub łapie je w drabinie, jest wybierany w pierwszej kolejności.
+ * Ucieczka (Escape): Jeśli własny łańcuch jest w atari i może uciec (według {@link LadderReader}), bot ucieka.
  * Presja (Pressure): Jeśli bicie nie jest możliwe, bot stara się otaczać przeciwnika (stawiać kamienie obok niego).
  * Losowy legalny (Random Legal): W przeciwnym razie wybiera losowy dozwolony ruch.
  * Pass: Jeśli brak legalnych ruchów, bot pasuje.
  *
  */
-public class Bot implements Player {
+public class Bot implements LocalPlayer {
 
     private final Stone stone;
     private final GameSession session;
     // Silnik zasad używany do symulacji legalności ruchów
     private final RulesEngine rules = new RulesEngine();
     private final Random random = new Random();
+    // Czytanie drabin (ucieczka z atari i łapanie łańcuchów z dwoma oddechami)
+    private final LadderReader ladders = new LadderReader();
+    // Wspólna pula wątków botów (zamiast osobnego wątku na każdy ruch)
+    private final BotExecutor executor = BotExecutor.shared();
+    // Księga otwarć, o którą bot pyta przed analizą planszy
+    private final OpeningBook book = OpeningBook.shared();
 
     /**
      * Tworzy nową instancję bota.
@@ -47,78 +54,107 @@ public class Bot implements Player {
 
     /**
      * Odbiera aktualny stan gry od serwera.
-     * Jeśli jest tura bota, uruchamia proces myślowy w osobnym wątku,
-     * aby nie blokować głównego wątku serwera.
+     * Jeśli jest tura bota, zleca proces myślowy wspólnej puli {@link BotExecutor},
+     * aby nie blokować głównego wątku serwera. W fazie punktacji bot od razu
+     * potwierdza zakończenie usuwania kamieni.
      *
-     * @param state Obiekt zawierający reprezentację planszy i komunikaty gry.
+     * @param view Niezmienny stan gry (migawka planszy i historia pozycji).
      */
     @Override
-    public void sendState(GameState state) {
+    public void sendView(GameView view) {
         // Reaguj tylko, jeśli to nasza tura i gra się nie skończyła
-        if (state.yourTurn && !state.message.contains("GAME OVER")) {
-            new Thread(() -> thinkAndMove(state.board)).start();
+        if (!view.yourTurn || view.gameOver) return;
+
+        if (view.scoringPhase) {
+            executor.submit(session, () -> session.handleMove(new Move(-1, -1, false, false, true), this));
+        } else {
+            executor.submit(session, () -> thinkAndMove(view));
         }
     }
 
     /**
      * Główna logika decyzyjna bota.
-     * Analizuje planszę, symuluje wszystkie możliwe ruchy i wybiera najlepszy.
+     * Gra ruch z księgi otwarć, jeśli zna ona pozycję; w przeciwnym razie
+     * analizuje planszę, symuluje wszystkie możliwe ruchy i wybiera najlepszy.
      *
-     * @param boardStr Reprezentacja planszy w postaci ciągu znaków.
+     * @param view Stan gry, w którym bot wykonuje ruch.
      */
-    private void thinkAndMove(String boardStr) {
-        sleep(); // Symulacja czasu "namysłu" (dla lepszego UX)
-
-        Board board = parseBoard(boardStr);
-        int size = board.getSize();
+    private void thinkAndMove(GameView view) {
+        Board board = view.board.toBoard();
+
+        // Ruch z księgi otwarć (o ile jest legalny w tej partii)
+        int bookMove = book.lookup(board, stone);
+        if (bookMove != OpeningBook.NO_MOVE && rules.isLegal(board, bookMove, Board.code(stone), view)) {
+            Adjacency adj = Adjacency.forSize(board.getSize());
+            session.handleMove(new Move(adj.xOf[bookMove], adj.yOf[bookMove], false, false, false), this);
+            return;
+        }
 
         // Listy przechowujące potencjalne ruchy w zależności od ich jakości
-        List<Move> capture = new ArrayList<>();  // Ruchy zbijające
+        List<Move> capture = new ArrayList<>();  // Ruchy zbijające i łapiące w drabinie
+        List<Move> escape = new ArrayList<>();   // Ucieczki z atari
         List<Move> pressure = new ArrayList<>(); // Ruchy otaczające
         List<Move> legal = new ArrayList<>();    // Wszystkie inne legalne ruchy
 
-        // Iteracja przez każde pole planszy
-        for (int x = 0; x < size; x++) {
-            for (int y = 0; y < size; y++) {
-
-                // Pomiń zajęte pola
-                if (board.get(x, y) != Stone.EMPTY) continue;
+        // Legalne ruchy wyznaczone bez modyfikowania planszy
+        // (historia pozycji do reguły superko pochodzi z tego samego stanu gry)
+        int[] moves = rules.legalMoves(board, stone, view);
+        byte color = Board.code(stone);
+        Adjacency adj = Adjacency.forSize(board.getSize());
 
-                Move move = new Move(x, y, false, false, false);
+        for (int i : moves) {
+            Move move = new Move(adj.xOf[i], adj.yOf[i], false, false, false);
 
-                // Tworzymy kopię planszy i sesji do bezpiecznej symulacji
-                // (RulesEngine modyfikuje przekazaną planszę)
-                Board simulation = board.copy();
-                GameSession simSession = session.copyForSimulation();
+            // Ruch jest legalny - dodajemy do bazy
+            legal.add(move);
 
-                // Sprawdź czy ruch jest legalny (wg zasad Ko, samobójstwa itp.)
-                if (!rules.applyMove(simulation, move, stone, simSession))
-                    continue;
-
-                // Ruch jest legalny - dodajemy do bazy
-                legal.add(move);
-
-                // Klasyfikacja taktyczna ruchu
-                if (isCapture(board, simulation)) {
-                    capture.add(move); // Priorytet 1: Zbijanie
-                } else if (isAdjacentToOpponent(board, x, y)) {
-                    pressure.add(move); // Priorytet 2: Otaczanie
-                }
+            // Klasyfikacja taktyczna ruchu
+            if (rules.isCapture(board, i, color)) {
+                capture.add(move); // Priorytet 1: Zbijanie
+            } else if (isAdjacentToOpponent(board, i)) {
+                pressure.add(move); // Priorytet 2: Otaczanie
             }
         }
 
+        // Taktyka: ucieczki własnych łańcuchów w atari i drabiny na łańcuchy przeciwnika
+        readLadders(board, view, capture, escape);
+
         // Wybór ostatecznego ruchu na podstawie priorytetów
-        Move chosen = chooseMove(capture, pressure, legal);
+        Move chosen = chooseMove(capture, escape, pressure, legal);
 
         // Wykonanie ruchu w prawdziwej sesji gry
         session.handleMove(chosen, this);
     }
 
+    /**
+     * Czyta drabiny dla każdego łańcucha na planszy: własny łańcuch w atari, który
+     * może uciec, daje ruch ucieczki, a łańcuch przeciwnika z dwoma oddechami, który
+     * da się złapać w drabinie, daje ruch ataku. Uwzględniane są tylko ruchy legalne.
+     *
+     * @param board   Plansza (po czytaniu w niezmienionym stanie).
+     * @param view    Stan gry (historia pozycji do reguły superko).
+     * @param capture Lista, do której dodawane są ataki.
+     * @param escape  Lista, do której dodawane są ucieczki.
+     */
+    private void readLadders(Board board, GameView view, List<Move> capture, List<Move> escape) {
+        Adjacency adj = Adjacency.forSize(board.getSize());
+        byte color = Board.code(stone);
+        for (int i : adj.points) {
+            byte c = board.at(i);
+            // Każdy łańcuch czytany raz – z pola swojego reprezentanta
+            if (c == Board.EMPTY || board.chainOf(i) != i) continue;
+            int move = c == color ? ladders.escape(board, i) : ladders.attack(board, i);
+            if (move == LadderReader.NO_MOVE || !rules.isLegal(board, move, color, view)) continue;
+            (c == color ? escape : capture).add(new Move(adj.xOf[move], adj.yOf[move], false, false, false));
+        }
+    }
+
     /**
      * Wybiera ruch z dostępnych list zgodnie z hierarchią ważności.
      */
-    private Move chooseMove(List<Move> capture, List<Move> pressure, List<Move> legal) {
+    private Move chooseMove(List<Move> capture, List<Move> escape, List<Move> pressure, List<Move> legal) {
         if (!capture.isEmpty()) return randomFrom(capture);
+        if (!escape.isEmpty()) return randomFrom(escape);
         if (!pressure.isEmpty()) return randomFrom(pressure);
         if (!legal.isEmpty()) return randomFrom(legal);
 
@@ -126,72 +162,23 @@ public class Bot implements Player {
         return new Move(-1, -1, true, false, false);
     }
 
-    /**
-     * Sprawdza, czy wykonanie ruchu spowodowało zbicie kamieni przeciwnika.
-     * Porównuje planszę przed i po symulacji ruchu.
-     *
-     * @param before Plansza przed ruchem.
-     * @param after  Plansza po symulacji ruchu.
-     * @return true, jeśli liczba kamieni na planszy zmalała (ktoś został zbity).
-     */
-    private boolean isCapture(Board before, Board after) {
-        int removed = 0;
-        for (int x = 0; x < before.getSize(); x++)
-            for (int y = 0; y < before.getSize(); y++)
-                // Jeśli wcześniej był kamień, a teraz jest pusto -> został zbity
-                if (before.get(x, y) != Stone.EMPTY && after.get(x, y) == Stone.EMPTY)
-                    removed++;
-        return removed > 0;
-    }
-
     /**
      * Sprawdza, czy dane pole sąsiaduje bezpośrednio z kamieniem przeciwnika.
      * Służy do strategii "pressure" (wywierania presji/otaczania).
+     * Sąsiedzi są odczytywani ze współdzielonej tablicy {@link Adjacency}.
      */
-    private boolean isAdjacentToOpponent(Board board, int x, int y) {
-        for (int[] n : neighbors(x, y)) {
-            if (board.inBounds(n[0], n[1])
-                    && board.get(n[0], n[1]) == stone.opposite()) {
+    private boolean isAdjacentToOpponent(Board board, int i) {
+        Adjacency adj = Adjacency.forSize(board.getSize());
+        byte opponent = Board.code(stone.opposite());
+        for (int k = adj.start(i), end = k + adj.count[i]; k < end; k++) {
+            if (board.at(adj.neighbors[k]) == opponent) {
                 return true;
             }
         }
         return false;
     }
 
-    /**
-     * Zwraca współrzędne 4 sąsiadów (góra, dół, lewo, prawo).
-     */
-    private List<int[]> neighbors(int x, int y) {
-        return List.of(
-                new int[]{x + 1, y},
-                new int[]{x - 1, y},
-                new int[]{x, y + 1},
-                new int[]{x, y - 1}
-        );
-    }
-
     private Move randomFrom(List<Move> moves) {
         return moves.get(random.nextInt(moves.size()));
     }
-
-    private void sleep() {
-        try { Thread.sleep(800); } catch (InterruptedException ignored) {}
-    }
-
-    /**
-     * Konwertuje tekstową reprezentację planszy (z GameState) na obiekt Board.
-     */
-    private Board parseBoard(String boardStr) {
-        String[] rows = boardStr.split("\n");
-        Board b = new Board(rows.length);
-
-        for (int y = 0; y < rows.length; y++) {
-            String[] cells = rows[y].split(" ");
-            for (int x = 0; x < cells.length; x++) {
-                if (cells[x].equals("B")) b.set(x, y, Stone.BLACK);
-                else if (cells[x].equals("W")) b.set(x, y, Stone.WHITE);
-            }
-        }
-        return b;
-    }
-}
\ No newline at end of file
+}
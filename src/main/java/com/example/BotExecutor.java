@@ -0,0 +1,271 @@
+package com.example;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Wspólna dla całego serwera pula wątków wykonujących obliczenia botów.
+ *
+ * Pula ma stałą liczbę wątków roboczych, więc liczba wątków i zużycie procesora nie rosną
+ * z liczbą sesji z botami. Zadania są kolejkowane osobno dla każdej sesji, a sesje
+ * obsługiwane są po kolei (round-robin): wątek bierze jedno zadanie z sesji na początku
+ * kolejki, a po jego wykonaniu sesja z dalszymi zadaniami wraca na koniec kolejki.
+ * Zadania jednej sesji wykonują się zatem po kolei, a żadna sesja nie zagłodzi innych.
+ *
+ * Zadania pomocnicze sesji ({@link #submitHelper(Object, Runnable)}, np. dodatkowe wątki
+ * przeszukiwania) mogą działać równolegle z jej zwykłymi zadaniami, ale dostają tylko
+ * wolne wątki: są pobierane, gdy żadna sesja nie czeka na obsłużenie, a jedna sesja może
+ * mieć naraz co najwyżej {@link #getHelpersPerSession()} wykonywanych pomocników.
+ * Pomocnik powinien kończyć pracę, gdy inne sesje czekają ({@link #hasWaitingSessions()}).
+ *
+ * Wspólna pula ma mniej wątków niż rdzeni, aby obsługa ruchów ludzkich graczy
+ * ({@link ClientHandler}) nie czekała na boty (priorytety wątków nie są do tego
+ * używane, bo w Linuksie nie mają wpływu). Pula ustala też górny limit czasu
+ * namysłu nad jednym ruchem, który boty stosują do swoich przydziałów czasu.
+ */
+public class BotExecutor {
+
+    /** Domyślny limit czasu namysłu nad jednym ruchem w milisekundach. */
+    public static final long DEFAULT_MOVE_CAP_MILLIS = 5000;
+
+    /** Wspólna pula serwera (tworzona przy pierwszym użyciu). */
+    private static BotExecutor shared;
+
+    /** Kolejki zadań sesji, które mają zadania lub właśnie je wykonują. */
+    private final Map<Object, ArrayDeque<Runnable>> queues = new HashMap<>();
+
+    /** Sesje gotowe do obsłużenia, w kolejności obsługi. */
+    private final ArrayDeque<Object> ready = new ArrayDeque<>();
+
+    /** Czy jakaś sesja czeka na obsłużenie (odczytywane bez blokady przez pomocników). */
+    private volatile boolean sessionsWaiting;
+
+    /** Zadania pomocnicze czekające na wolny wątek, w kolejności zgłoszenia. */
+    private final ArrayDeque<Helper> helpers = new ArrayDeque<>();
+
+    /** Liczba wykonywanych zadań pomocniczych według sesji. */
+    private final Map<Object, Integer> runningHelpers = new HashMap<>();
+
+    /** Największa liczba równocześnie wykonywanych zadań pomocniczych jednej sesji. */
+    private final int helpersPerSession;
+
+    /** Wątki robocze puli. */
+    private final Thread[] workers;
+
+    /** Limit czasu namysłu nad jednym ruchem w milisekundach. */
+    private final long moveCapMillis;
+
+    /** Czy pula została zamknięta. */
+    private boolean shutdown;
+
+    /**
+     * Tworzy pulę i uruchamia jej wątki robocze.
+     *
+     * @param workers       Liczba wątków roboczych.
+     * @param moveCapMillis Limit czasu namysłu nad jednym ruchem w milisekundach.
+     * @throws IllegalArgumentException jeśli liczba wątków lub limit nie są dodatnie.
+     */
+    public BotExecutor(int workers, long moveCapMillis) {
+        if (workers < 1 || moveCapMillis < 1)
+            throw new IllegalArgumentException("Invalid bot executor: " + workers + " workers, " + moveCapMillis + " ms");
+        this.moveCapMillis = moveCapMillis;
+        this.helpersPerSession = Math.max(1, workers / 2);
+        this.workers = new Thread[workers];
+        for (int k = 0; k < workers; k++) {
+            Thread t = new Thread(this::work, "bot-worker-" + k);
+            t.setDaemon(true);
+            this.workers[k] = t;
+            t.start();
+        }
+    }
+
+    /**
+     * Zwraca wspólną pulę serwera. Ma o jeden wątek mniej niż liczba rdzeni
+     * (co najmniej jeden), aby jeden rdzeń pozostał dla obsługi klientów.
+     *
+     * @return Wspólna pula.
+     */
+    public static synchronized BotExecutor shared() {
+        if (shared == null) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            shared = new BotExecutor(Math.max(1, cores - 1), DEFAULT_MOVE_CAP_MILLIS);
+        }
+        return shared;
+    }
+
+    /**
+     * Dodaje zadanie do kolejki sesji.
+     *
+     * @param session Klucz sesji (np. obiekt {@link GameSession}).
+     * @param task    Zadanie do wykonania.
+     * @throws IllegalStateException jeśli pula została zamknięta.
+     */
+    public synchronized void submit(Object session, Runnable task) {
+        if (shutdown) throw new IllegalStateException("Bot executor is shut down");
+        ArrayDeque<Runnable> queue = queues.get(session);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues.put(session, queue);
+            ready.addLast(session);
+            sessionsWaiting = true;
+            notify();
+        }
+        queue.addLast(task);
+    }
+
+    /**
+     * Dodaje zadanie pomocnicze sesji, wykonywane równolegle z jej zadaniami, gdy pula
+     * ma wolny wątek. Zadanie może nie rozpocząć się wcale, jeśli pula jest zajęta,
+     * więc zgłaszający nie powinien czekać na jego rozpoczęcie.
+     *
+     * @param session Klucz sesji, której limit pomocników obciąża zadanie.
+     * @param task    Zadanie do wykonania.
+     * @throws IllegalStateException jeśli pula została zamknięta.
+     */
+    public synchronized void submitHelper(Object session, Runnable task) {
+        if (shutdown) throw new IllegalStateException("Bot executor is shut down");
+        helpers.addLast(new Helper(session, task));
+        notify();
+    }
+
+    /**
+     * Sprawdza, czy jakaś sesja czeka na wolny wątek; pomocnicy powinni wtedy kończyć pracę.
+     *
+     * @return {@code true}, jeśli kolejka sesji nie jest pusta.
+     */
+    public boolean hasWaitingSessions() {
+        return sessionsWaiting;
+    }
+
+    /**
+     * Zwraca największą liczbę równocześnie wykonywanych zadań pomocniczych jednej sesji.
+     *
+     * @return Połowa wątków puli (co najmniej 1).
+     */
+    public int getHelpersPerSession() {
+        return helpersPerSession;
+    }
+
+    /**
+     * Ogranicza czas namysłu do limitu puli.
+     *
+     * @param millis Żądany czas w milisekundach ({@link TimeManager#UNLIMITED} = bez limitu).
+     * @return Czas nie większy niż limit puli.
+     */
+    public long capMillis(long millis) {
+        return millis == TimeManager.UNLIMITED ? moveCapMillis : Math.min(millis, moveCapMillis);
+    }
+
+    /**
+     * Zwraca limit czasu namysłu nad jednym ruchem.
+     *
+     * @return Czas w milisekundach.
+     */
+    public long getMoveCapMillis() {
+        return moveCapMillis;
+    }
+
+    /**
+     * Zwraca liczbę wątków roboczych.
+     *
+     * @return Liczba wątków.
+     */
+    public int getWorkers() {
+        return workers.length;
+    }
+
+    /**
+     * Zamyka pulę: nowe zadania są odrzucane, a wątki kończą pracę
+     * po wykonaniu już zakolejkowanych zadań.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        notifyAll();
+    }
+
+    /**
+     * Pętla wątku roboczego: pobiera zadania sesji po kolei i je wykonuje, a gdy żadna
+     * sesja nie czeka – zadania pomocnicze.
+     */
+    private void work() {
+        while (true) {
+            Object session;
+            Runnable task;
+            Helper helper = null;
+            synchronized (this) {
+                while (ready.isEmpty() && !shutdown && (helper = pollHelper()) == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (helper != null) {
+                    session = helper.session;
+                    task = helper.task;
+                    runningHelpers.merge(session, 1, Integer::sum);
+                } else if (!ready.isEmpty()) {
+                    session = ready.pollFirst();
+                    sessionsWaiting = !ready.isEmpty();
+                    task = queues.get(session).pollFirst();
+                } else {
+                    return;
+                }
+            }
+
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // także błędy (np. StackOverflowError) nie mogą zatrzymać wątku ani sesji
+                System.err.println("Bot task failed: " + e);
+                e.printStackTrace();
+            } finally {
+                synchronized (this) {
+                    if (helper != null) {
+                        runningHelpers.merge(session, -1, (a, b) -> a + b == 0 ? null : a + b);
+                        notifyAll();
+                    } else {
+                        ArrayDeque<Runnable> queue = queues.get(session);
+                        if (queue.isEmpty()) {
+                            queues.remove(session);
+                        } else {
+                            ready.addLast(session);
+                            sessionsWaiting = true;
+                            notify();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Zdejmuje pierwsze zadanie pomocnicze sesji, która nie wyczerpała limitu pomocników.
+     *
+     * @return Zadanie lub {@code null}, jeśli żadnego nie można teraz wykonać.
+     */
+    private Helper pollHelper() {
+        for (Iterator<Helper> it = helpers.iterator(); it.hasNext(); ) {
+            Helper h = it.next();
+            if (runningHelpers.getOrDefault(h.session, 0) < helpersPerSession) {
+                it.remove();
+                return h;
+            }
+        }
+        return null;
+    }
+
+    /** Zadanie pomocnicze wraz z kluczem sesji. */
+    private static final class Helper {
+
+        final Object session;
+        final Runnable task;
+
+        Helper(Object session, Runnable task) {
+            this.session = session;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pula buforów bezpośrednich ({@link ByteBuffer#allocateDirect(int)}) o stałej pojemności.
+ *
+ * Bufory bezpośrednie są kosztowne w przydziale i zwalniane dopiero przez odśmiecacz,
+ * więc transport ({@link NioTransport}) pożycza je tylko na czas niepełnej ramki
+ * przychodzącej lub niewysłanych danych i oddaje do puli. Pula przechowuje najwyżej
+ * {@code maxPooled} wolnych buforów; nadmiarowe zwrócone bufory są porzucane.
+ * Klasa jest bezpieczna dla wątków.
+ */
+public class BufferPool {
+
+    /** Pojemność każdego bufora w bajtach. */
+    private final int capacity;
+
+    /** Największa liczba wolnych buforów przechowywanych w puli. */
+    private final int maxPooled;
+
+    /** Wolne bufory. */
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    /** Liczba wolnych buforów (rozmiar kolejki liczony bez jej przeglądania). */
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /** Liczba wszystkich przydzielonych buforów. */
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    /**
+     * Tworzy pustą pulę.
+     *
+     * @param capacity  Pojemność bufora w bajtach.
+     * @param maxPooled Największa liczba wolnych buforów w puli.
+     * @throws IllegalArgumentException jeśli parametry nie są dodatnie.
+     */
+    public BufferPool(int capacity, int maxPooled) {
+        if (capacity < 1 || maxPooled < 1)
+            throw new IllegalArgumentException("Invalid buffer pool: " + capacity + " bytes, " + maxPooled + " buffers");
+        this.capacity = capacity;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Pożycza wyczyszczony bufor z puli lub przydziela nowy.
+     *
+     * @return Bufor w trybie zapisu.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        pooled.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Oddaje bufor do puli.
+     *
+     * @param buffer Bufor pożyczony przez {@link #acquire()}.
+     */
+    public void release(ByteBuffer buffer) {
+        if (pooled.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+            allocated.decrementAndGet();
+        }
+    }
+
+    /**
+     * Zwraca pojemność buforów puli.
+     *
+     * @return Pojemność w bajtach.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Zwraca liczbę buforów przydzielonych przez pulę i nieporzuconych (wolnych i pożyczonych).
+     *
+     * @return Liczba buforów.
+     */
+    public int getAllocated() {
+        return allocated.get();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Przyrostowo utrzymuje skróty Zobrista planszy we wszystkich ośmiu symetriach
+ * i wyznacza postać kanoniczną pozycji (symetrię o najmniejszym skrócie).
+ *
+ * Skrót w symetrii {@code s} to skrót pozycji po przekształceniu planszy przez
+ * {@link Symmetry#apply(int, int)}; skrót tożsamościowy jest równy
+ * {@link Board#getHash()}. Pozycje różniące się obrotem lub odbiciem mają więc ten sam
+ * skrót kanoniczny, co pozwala pamięciom podręcznym ocen i księgom otwarć traktować
+ * je jako jedną pozycję. Ruchy są przenoszone między układem planszy a układem
+ * kanonicznym metodami {@link #toCanonical(int)} i {@link #fromCanonical(int)}.
+ *
+ * Tracker jest dołączany do planszy metodą {@link Board#trackSymmetries()};
+ * plansza zgłasza każde postawione i zdjęte pole (osiem operacji XOR na zmianę).
+ * Tracker utworzony bezpośrednio konstruktorem nie jest dołączony: opisuje pozycję
+ * z chwili utworzenia (np. do jednorazowego zapytania księgi otwarć).
+ */
+public class CanonicalHash {
+
+    /** Śledzona plansza. */
+    private final Board board;
+
+    /** Tablice symetrii planszy. */
+    private final Symmetry symmetry;
+
+    /** Klucze Zobrista pól (te same co w planszy). */
+    private final long[] keys;
+
+    /** Skróty pozycji w poszczególnych symetriach. */
+    private final long[] hashes = new long[Symmetry.COUNT];
+
+    /** Czy skróty trzeba przeliczyć od nowa (po zastąpieniu stanu planszy). */
+    private boolean stale;
+
+    /**
+     * Tworzy tracker dla planszy i wylicza początkowe skróty (bez dołączania go do planszy).
+     *
+     * @param board Śledzona plansza.
+     */
+    CanonicalHash(Board board) {
+        this.board = board;
+        this.symmetry = Symmetry.forSize(board.getSize());
+        this.keys = Zobrist.table(board.getStride() * board.getStride());
+        recompute();
+    }
+
+    /**
+     * Zgłasza postawienie lub zdjęcie kamienia (operacja jest własną odwrotnością).
+     *
+     * @param i Indeks pola.
+     * @param c Kod koloru kamienia.
+     */
+    void toggle(int i, byte c) {
+        if (stale) return;
+        for (int s = 0; s < Symmetry.COUNT; s++)
+            hashes[s] ^= keys[2 * symmetry.apply(s, i) + c - 1];
+    }
+
+    /** Oznacza, że stan planszy został zastąpiony w całości. */
+    void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Zwraca skrót pozycji przekształconej przez symetrię.
+     *
+     * @param s Numer symetrii.
+     * @return Skrót Zobrista.
+     */
+    public long hash(int s) {
+        if (stale) recompute();
+        return hashes[s];
+    }
+
+    /**
+     * Zwraca symetrię przenoszącą pozycję do postaci kanonicznej
+     * (o najmniejszym skrócie; przy remisie – o najmniejszym numerze).
+     *
+     * @return Numer symetrii.
+     */
+    public int canonicalSymmetry() {
+        if (stale) recompute();
+        int best = Symmetry.IDENTITY;
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            if (Long.compareUnsigned(hashes[s], hashes[best]) < 0) best = s;
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca skrót postaci kanonicznej pozycji (taki sam dla wszystkich jej symetrii).
+     *
+     * @return Skrót kanoniczny.
+     */
+    public long canonicalHash() {
+        return hashes[canonicalSymmetry()];
+    }
+
+    /**
+     * Przenosi ruch z układu planszy do układu kanonicznego.
+     *
+     * @param move Indeks pola lub {@link MctsNode#PASS}.
+     * @return Indeks pola w układzie kanonicznym.
+     */
+    public int toCanonical(int move) {
+        return symmetry.apply(canonicalSymmetry(), move);
+    }
+
+    /**
+     * Przenosi ruch z układu kanonicznego do układu planszy.
+     *
+     * @param move Indeks pola w układzie kanonicznym lub {@link MctsNode#PASS}.
+     * @return Indeks pola na planszy.
+     */
+    public int fromCanonical(int move) {
+        return symmetry.apply(symmetry.inverse(canonicalSymmetry()), move);
+    }
+
+    /** Wylicza skróty wszystkich symetrii od nowa na podstawie zawartości planszy. */
+    private void recompute() {
+        stale = false;
+        Arrays.fill(hashes, 0L);
+        for (int i : Adjacency.forSize(board.getSize()).points) {
+            byte c = board.at(i);
+            if (c == Board.BLACK || c == Board.WHITE) toggle(i, c);
+        }
+    }
+}
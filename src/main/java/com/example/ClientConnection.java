@@ -0,0 +1,30 @@
+package com.example;
+
+import java.io.Closeable;
+
+/**
+ * Połączenie sieciowe gracza, który czeka w {@link Lobby} na przeciwnika
+ * ({@link ClientHandler} lub {@link NioConnection}).
+ *
+ * Połączenie odbiera dane od chwili dołączenia do poczekalni, więc rozłączenie klienta
+ * jest wykrywane także przed rozpoczęciem gry. Rozłączenie gracza przypisanego do sesji
+ * jest zgłaszane sesji ({@link GameSession#disconnect(Player)}).
+ */
+public interface ClientConnection extends RemotePlayer, Closeable {
+
+    /**
+     * Przypisuje połączenie do sesji gry; metoda pasuje do {@link PlayerFactory}.
+     *
+     * @param stone   Kolor kamieni gracza.
+     * @param session Sesja gry.
+     * @return To połączenie jako gracz sesji.
+     */
+    Player bind(Stone stone, GameSession session);
+
+    /**
+     * Sprawdza, czy połączenie zostało zamknięte (przez serwer lub klienta).
+     *
+     * @return {@code true} po zamknięciu.
+     */
+    boolean isClosed();
+}
@@ -2,23 +2,69 @@ package com.example;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Obsługuje połączenie sieciowe z pojedynczym klientem (graczem) w osobnym wątku.
  * Klasa odpowiada za odbieranie ruchów od klienta oraz przesyłanie mu aktualnego stanu gry.
+ *
+ * Obsługa połączenia jest zadaniem wykonywanym przez wspólną pulę {@link #CONNECTIONS}.
+ * Domyślnie każde połączenie dostaje własny wątek wirtualny, więc bezczynny klient
+ * czekający na odczyt nie zajmuje wątku systemowego i serwer może utrzymywać dziesiątki
+ * tysięcy połączeń. Właściwość systemowa {@code go.client.threads=platform} przywraca
+ * wątki systemowe.
+ *
+ * Odbiór zaczyna się już w poczekalni ({@link #listen()}), więc rozłączenie czekającego
+ * klienta jest od razu wykryte; ruchy przysłane przed rozpoczęciem gry są pomijane.
+ * Rozłączenie gracza w trakcie gry kończy ją walkowerem ({@link GameSession#disconnect(Player)}).
  */
-public class ClientHandler extends Thread implements Player {
-    /** Strumień wejściowy do odbierania obiektów od klienta. */
-    private final ObjectInputStream in;
-    /** Strumień wyjściowy do wysyłania obiektów do klienta. */
-    private final ObjectOutputStream out;
-    /** Kolor kamienia przypisany do tego klienta. */
-    private final Stone stone;
+public class ClientHandler implements Runnable, ClientConnection {
+
+    /** Właściwość systemowa z rodzajem wątków obsługi połączeń ({@code virtual} lub {@code platform}). */
+    private static final String THREADS_PROPERTY = "go.client.threads";
+
+    /** Pula wykonująca obsługę połączeń, wątek na połączenie. */
+    private static final ExecutorService CONNECTIONS = Executors.newThreadPerTaskExecutor(
+            "platform".equals(System.getProperty(THREADS_PROPERTY))
+                    ? Thread.ofPlatform().name("client-", 0).daemon(true).factory()
+                    : Thread.ofVirtual().name("client-", 0).factory());
+
+    /** Gniazdo połączenia z klientem. */
+    private final Socket socket;
+    /** Strumień wejściowy do odbierania ramek ({@link FrameCodec}) od klienta. */
+    private final DataInputStream in;
+    /** Strumień wyjściowy do wysyłania ramek do klienta. */
+    private final OutputStream out;
+    /** Bufor kodowania wysyłanych ramek (wysyłanie odbywa się pod blokadą sesji). */
+    private final ByteBuffer frame = ByteBuffer.allocate(FrameCodec.HEADER + FrameCodec.MAX_PAYLOAD);
+    /** Kolor kamienia przypisany do tego klienta (ustawiany przy dołączeniu do sesji). */
+    private volatile Stone stone;
     /** Sesja gry, do której przypisany jest ten kontroler. */
-    private final GameSession session;
+    private volatile GameSession session;
+    /** Czy sesja rozpoczęła grę; wcześniejsze ruchy klienta są pomijane. */
+    private volatile boolean started;
+    /** Czy odbiór danych został już uruchomiony. */
+    private final AtomicBoolean listening = new AtomicBoolean();
+    /** Czy połączenie zostało zamknięte. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Tworzy obiekt obsługi klienta czekającego w poczekalni i inicjalizuje strumienie.
+     *
+     * @param socket Otwarte gniazdo (socket) połączenia z klientem.
+     * @throws IOException Jeśli wystąpi błąd podczas tworzenia strumieni wejścia/wyjścia.
+     */
+    public ClientHandler(Socket socket) throws IOException {
+        this.socket = socket;
+        this.out = socket.getOutputStream();
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
 
     /**
-     * Tworzy nowy obiekt obsługi klienta i inicjalizuje strumienie obiektowe.
+     * Tworzy nowy obiekt obsługi klienta i inicjalizuje strumienie.
      *
      * @param socket Otwarte gniazdo (socket) połączenia z klientem.
      * @param stone Kolor kamienia ({@link Stone}), którym gra ten klient.
@@ -26,12 +72,24 @@ public class ClientHandler extends Thread implements Player {
      * @throws IOException Jeśli wystąpi błąd podczas tworzenia strumieni wejścia/wyjścia.
      */
     public ClientHandler(Socket socket, Stone stone, GameSession session) throws IOException {
+        this(socket);
         this.stone = stone;
         this.session = session;
+    }
 
-        this.out = new ObjectOutputStream(socket.getOutputStream());
-        this.out.flush();
-        this.in = new ObjectInputStream(socket.getInputStream());
+    /**
+     * Przypisuje klienta do sesji gry; jeśli klient już się rozłączył, sesja kończy się walkowerem.
+     *
+     * @param stone   Kolor kamieni gracza.
+     * @param session Sesja gry.
+     * @return Ten obiekt jako gracz sesji.
+     */
+    @Override
+    public Player bind(Stone stone, GameSession session) {
+        this.stone = stone;
+        this.session = session;
+        if (closed.get()) session.disconnect(this);
+        return this;
     }
 
     /**
@@ -43,16 +101,54 @@ public class ClientHandler extends Thread implements Player {
         return stone;
     }
 
+    /** Zaczyna przekazywać ruchy klienta do sesji (i odbiór, jeśli jeszcze nie trwa). */
+    @Override
+    public void start() {
+        started = true;
+        listen();
+    }
+
+    /** Uruchamia odbiór danych od klienta w puli {@link #CONNECTIONS} (tylko raz). */
+    public void listen() {
+        if (listening.compareAndSet(false, true)) CONNECTIONS.execute(this);
+    }
+
+    /**
+     * Zamyka połączenie i zgłasza rozłączenie sesji; metoda może być wywołana wielokrotnie.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // połączenie i tak jest zakończone
+        }
+        GameSession s = session;
+        if (s != null) s.disconnect(this);
+    }
+
+    /**
+     * Sprawdza, czy połączenie zostało zamknięte.
+     *
+     * @return {@code true} po zamknięciu lub rozłączeniu się klienta.
+     */
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+
     /**
      * Wysyła aktualny stan gry do klienta w sposób asynchroniczny względem odbioru danych.
      *
      * @param state Obiekt {@link GameState} zawierający dane o aktualnej sytuacji na planszy.
      */
+    @Override
     public void sendState(GameState state) {
         try {
-            out.writeObject(state);
-            out.flush();
-            out.reset();
+            frame.clear();
+            FrameCodec.encode(state, frame);
+            out.write(frame.array(), 0, frame.position());
         } catch (IOException e) {
             System.out.println("Client disconnected: " + stone);
         }
@@ -60,19 +156,24 @@ public class ClientHandler extends Thread implements Player {
 
     /**
      * Główna pętla wątku obsługująca komunikację przychodzącą.
-     * Metoda w pętli oczekuje na obiekty typu {@link Move} przesyłane przez klienta.
+     * Metoda w pętli oczekuje na ruchy ({@link Move}) i prośby o pełny stan przesyłane przez klienta.
      * Po odebraniu ruchu, przekazuje go do sesji gry w celu przetworzenia.
-     * Pętla kończy się w momencie rozłączenia klienta lub wystąpienia błędu komunikacji.
+     * Pętla kończy się w momencie rozłączenia klienta lub wystąpienia błędu komunikacji;
+     * połączenie jest wtedy zamykane ({@link #close()}).
      */
     @Override
     public void run() {
         try {
             while (true) {
-                Move move = (Move) in.readObject();
-                session.handleMove(move, this);
+                Object message = FrameCodec.read(in);
+                if (!started) continue;
+                if (message instanceof Move) session.handleMove((Move) message, this);
+                else if (message == FrameCodec.RESYNC) session.resync(this);
             }
         } catch (Exception e) {
-            System.out.println("Client disconnected: " + stone);
+            if (!closed.get()) System.out.println("Client disconnected: " + stone);
+        } finally {
+            close();
         }
     }
 }
\ No newline at end of file
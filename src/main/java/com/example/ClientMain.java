@@ -13,11 +13,16 @@ import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
 import java.io.*;
 import java.net.Socket;
+import java.util.Arrays;
 
 /**
  * Główna klasa klienta gry Go.
  * Odpowiada za wyświetlanie interfejsu graficznego, obsługę interakcji użytkownika
  * oraz komunikację z serwerem gry przez gniazda.
+ * Wiadomości są wymieniane w binarnych ramkach {@link FrameCodec}, niezależnie od
+ * transportu używanego przez serwer. Serwer przysyła całą planszę tylko na początku
+ * i na prośbę klienta; pozostałe stany zawierają zmienione pola, które klient nakłada
+ * na swoją kopię planszy ({@link BoardMirror}), przerysowując tylko zmienione kamienie.
  */
 public class ClientMain extends Application {
 
@@ -25,12 +30,16 @@ public class ClientMain extends Application {
     private static final double CELL = 32;
     private static final double MARGIN = 30;
 
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private OutputStream out;
+    private DataInputStream in;
 
     private boolean yourTurn = false;
     private boolean gameOver = false;
     private boolean scoringMode = false;
+    private boolean resyncRequested = false;
+
+    private final BoardMirror mirror = new BoardMirror();
+    private final Circle[] stones = new Circle[SIZE * SIZE];
 
     private Pane stoneLayer = new Pane();
     private Label status = new Label("Connecting...");
@@ -48,9 +57,8 @@ public class ClientMain extends Application {
     @Override
     public void start(Stage stage) throws Exception {
         Socket socket = new Socket("localhost", 12345);
-        out = new ObjectOutputStream(socket.getOutputStream());
-        out.flush();
-        in = new ObjectInputStream(socket.getInputStream());
+        out = socket.getOutputStream();
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
 
         double sizePx = MARGIN * 2 + CELL * (SIZE - 1);
         Canvas boardCanvas = new Canvas(sizePx, sizePx);
@@ -107,11 +115,11 @@ public class ClientMain extends Application {
      */
     private void updateUI(GameState state) {
         yourTurn = state.yourTurn;
-        status.setText(state.message);
+        status.setText(state.getMessage());
 
-        if (state.message.contains("SCORING PHASE") || state.message.contains("removed")) {
+        if (state.status.isScoring()) {
             scoringMode = true;
-        } else if (state.message.contains("GAME OVER")) {
+        } else if (state.status == GameStatus.GAME_OVER || state.status == GameStatus.OPPONENT_DISCONNECTED) {
             gameOver = true;
             scoringMode = false;
         }
@@ -129,7 +137,20 @@ public class ClientMain extends Application {
             resignBtn.setDisable(gameOver);
         }
 
-        redrawStones(state.board);
+        if (!mirror.apply(state)) {
+            if (!resyncRequested) {
+                resyncRequested = true;
+                send(FrameCodec.RESYNC);
+            }
+        } else if (state.isFull()) {
+            resyncRequested = false;
+            redrawStones();
+        } else {
+            for (int k = 0; k < state.getChangeCount(); k++) {
+                int p = state.getChangePoint(k);
+                updateStone(p % SIZE, p / SIZE, state.getChangeStone(k));
+            }
+        }
     }
 
     /**
@@ -154,9 +175,17 @@ public class ClientMain extends Application {
      * @param m Obiekt {@link Move} do przesłania.
      */
     private void sendMove(Move m) {
+        send(m);
+    }
+
+    /**
+     * Wysyła wiadomość do serwera w sposób bezpieczny dla wyjątków.
+     *
+     * @param message Ruch lub {@link FrameCodec#RESYNC}.
+     */
+    private void send(Object message) {
         try {
-            out.writeObject(m);
-            out.flush();
+            FrameCodec.write(out, message);
         } catch (Exception e) {
             status.setText("Connection error");
         }
@@ -170,7 +199,7 @@ public class ClientMain extends Application {
         Thread t = new Thread(() -> {
             try {
                 while (true) {
-                    GameState s = (GameState) in.readObject();
+                    GameState s = (GameState) FrameCodec.read(in);
                     Platform.runLater(() -> updateUI(s));
                 }
             } catch (Exception e) {
@@ -182,22 +211,30 @@ public class ClientMain extends Application {
     }
 
     /**
-     * Czyści warstwę kamieni i rysuje je ponownie na podstawie tekstowej reprezentacji planszy.
-     *
-     * @param board String zawierający znaki 'B', 'W' lub '.' oddzielone spacjami.
+     * Czyści warstwę kamieni i rysuje je ponownie na podstawie kopii planszy.
      */
-    private void redrawStones(String board) {
+    private void redrawStones() {
         stoneLayer.getChildren().clear();
-        String[] rows = board.split("\n");
+        Arrays.fill(stones, null);
         for (int y = 0; y < SIZE; y++) {
-            String[] cells = rows[y].trim().split(" ");
-            for (int x = 0; x < SIZE; x++) {
-                if (cells[x].equals("B")) stoneLayer.getChildren().add(stone(x, y, Color.BLACK));
-                else if (cells[x].equals("W")) stoneLayer.getChildren().add(stone(x, y, Color.WHITE));
-            }
+            for (int x = 0; x < SIZE; x++) updateStone(x, y, mirror.get(x, y));
         }
     }
 
+    /**
+     * Zastępuje kamień na jednym polu warstwy kamieni.
+     *
+     * @param x Współrzędna siatki X.
+     * @param y Współrzędna siatki Y.
+     * @param s Nowy kamień na polu (lub {@link Stone#EMPTY}).
+     */
+    private void updateStone(int x, int y, Stone s) {
+        int p = y * SIZE + x;
+        if (stones[p] != null) stoneLayer.getChildren().remove(stones[p]);
+        stones[p] = s == Stone.BLACK ? stone(x, y, Color.BLACK) : s == Stone.WHITE ? stone(x, y, Color.WHITE) : null;
+        if (stones[p] != null) stoneLayer.getChildren().add(stones[p]);
+    }
+
     /**
      * Tworzy graficzny obiekt kamienia (koło) o odpowiednim kolorze i pozycji.
      *
@@ -0,0 +1,236 @@
+package com.example;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Binarny protokół sieciowy gry: kodowanie ruchów ({@link Move}), stanów gry
+ * ({@link GameState}) i prośby o pełny stan ({@link #RESYNC}) w ramki, bez serializacji Javy.
+ *
+ * Ramka to długość treści (4 bajty, big-endian) i treść: wersja protokołu
+ * ({@link #VERSION}), typ wiadomości i jej pola.
+ * <ul>
+ *   <li>ruch (5 bajtów): x, y (bajty ze znakiem, -1 dla pasa) i znaczniki pass/resign/done;</li>
+ *   <li>pełny stan gry (17 bajtów + plansza): kod {@link GameStatus}, znaczniki (tura), rozmiar
+ *   planszy, numer sekwencyjny, punkty czarnego i białego ({@code float}) oraz plansza
+ *   po 2 bity na pole (91 bajtów dla 19x19);</li>
+ *   <li>zmiana stanu gry (19 bajtów + 2 bajty na pole): te same pola co w pełnym stanie,
+ *   liczba zmienionych pól i pola zapisane jako numer pola (14 bitów) i nowy kod (2 bity);</li>
+ *   <li>prośba o pełny stan (2 bajty).</li>
+ * </ul>
+ * Dzięki długości odbiorca może składać ramki z dowolnie podzielonych odczytów bez
+ * blokowania wątku ({@link NioTransport}); metody {@link #write(OutputStream, Object)}
+ * i {@link #read(DataInputStream)} obsługują ten sam format na strumieniach blokujących
+ * ({@link ClientHandler}, {@link ClientMain}).
+ */
+public final class FrameCodec {
+
+    /** Długość nagłówka ramki w bajtach. */
+    public static final int HEADER = 4;
+
+    /** Największa dopuszczalna długość treści ramki w bajtach. */
+    public static final int MAX_PAYLOAD = 1024 - HEADER;
+
+    /** Wersja protokołu. */
+    public static final int VERSION = 2;
+
+    /** Wiadomość klienta: prośba o pełny stan gry (po wykryciu luki w numerach sekwencyjnych). */
+    public static final Object RESYNC = new Object() {
+        @Override
+        public String toString() {
+            return "RESYNC";
+        }
+    };
+
+    /** Typ wiadomości: ruch. */
+    private static final byte MOVE = 1;
+
+    /** Typ wiadomości: pełny stan gry. */
+    private static final byte STATE = 2;
+
+    /** Typ wiadomości: zmiana stanu gry. */
+    private static final byte DELTA = 3;
+
+    /** Typ wiadomości: prośba o pełny stan. */
+    private static final byte RESYNC_TYPE = 4;
+
+    /** Znaczniki ruchu. */
+    private static final int PASS = 1, RESIGN = 2, DONE_SCORING = 4;
+
+    /** Znacznik stanu: tura odbiorcy. */
+    private static final int YOUR_TURN = 1;
+
+    /** Długość treści stanu gry bez planszy i zmian. */
+    private static final int STATE_FIELDS = 17;
+
+    /** Zarezerwowany kod pola (poza {@link Board#EMPTY}, {@link Board#BLACK} i {@link Board#WHITE}). */
+    private static final int RESERVED_CODE = 3;
+
+    /** Największy rozmiar planszy, którego numery pól mieszczą się w zmianie (14 bitów). */
+    private static final int MAX_DELTA_SIZE = 127;
+
+    private FrameCodec() {
+    }
+
+    /**
+     * Koduje wiadomość w ramkę, zapisując ją w buforze od jego bieżącej pozycji.
+     *
+     * @param message Ruch, stan gry lub {@link #RESYNC}.
+     * @param out     Bufor w trybie zapisu z miejscem na {@code HEADER + MAX_PAYLOAD} bajtów.
+     * @throws IllegalArgumentException jeśli wiadomość ma nieznany typ lub jest za długa.
+     */
+    public static void encode(Object message, ByteBuffer out) {
+        int start = out.position();
+        out.putInt(0).put((byte) VERSION);
+        if (message instanceof Move) {
+            Move m = (Move) message;
+            out.put(MOVE).put((byte) m.x).put((byte) m.y)
+                    .put((byte) ((m.pass ? PASS : 0) | (m.resign ? RESIGN : 0) | (m.doneScoring ? DONE_SCORING : 0)));
+        } else if (message instanceof GameState) {
+            GameState s = (GameState) message;
+            int length = s.isFull() ? STATE_FIELDS + s.packed().length : STATE_FIELDS + 2 + 2 * s.getChangeCount();
+            if (length > MAX_PAYLOAD || (!s.isFull() && s.size > MAX_DELTA_SIZE)) {
+                out.position(start);
+                throw new IllegalArgumentException("State too large for a frame: size " + s.size);
+            }
+            out.put(s.isFull() ? STATE : DELTA).put((byte) s.status.code).put((byte) (s.yourTurn ? YOUR_TURN : 0))
+                    .put((byte) s.size).putInt(s.seq).putFloat(s.blackScore).putFloat(s.whiteScore);
+            if (s.isFull()) {
+                out.put(s.packed());
+            } else {
+                out.putShort((short) s.getChangeCount());
+                for (int change : s.changes()) out.putShort((short) ((change >>> 2) | (change & 3) << 14));
+            }
+        } else if (message == RESYNC) {
+            out.put(RESYNC_TYPE);
+        } else {
+            out.position(start);
+            throw new IllegalArgumentException("Cannot encode " + message.getClass().getSimpleName());
+        }
+        out.putInt(start, out.position() - start - HEADER);
+    }
+
+    /**
+     * Koduje wiadomość w nową tablicę bajtów.
+     *
+     * @param message Ruch, stan gry lub {@link #RESYNC}.
+     * @return Bajty ramki wraz z nagłówkiem.
+     * @throws IllegalArgumentException jeśli wiadomość ma nieznany typ lub jest za długa.
+     */
+    public static byte[] encode(Object message) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + MAX_PAYLOAD);
+        encode(message, buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Odczytuje wiadomość z bufora, jeśli zawiera on całą ramkę. W przeciwnym razie
+     * pozycja bufora nie zmienia się.
+     *
+     * @param buffer Bufor w trybie odczytu, ustawiony na początku ramki.
+     * @return Ruch, stan gry, {@link #RESYNC} lub {@code null}, jeśli ramka nie jest jeszcze kompletna.
+     * @throws IllegalArgumentException jeśli ramka ma niepoprawną długość lub treść.
+     */
+    public static Object decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER) return null;
+        int start = buffer.position();
+        int length = checkLength(buffer.getInt(start));
+        if (buffer.remaining() < HEADER + length) return null;
+
+        Object message = parse(buffer.slice(start + HEADER, length));
+        buffer.position(start + HEADER + length);
+        return message;
+    }
+
+    /**
+     * Zapisuje wiadomość jako ramkę do strumienia blokującego.
+     *
+     * @param out     Strumień wyjściowy.
+     * @param message Ruch, stan gry lub {@link #RESYNC}.
+     * @throws IOException w przypadku błędu zapisu.
+     */
+    public static void write(OutputStream out, Object message) throws IOException {
+        out.write(encode(message));
+        out.flush();
+    }
+
+    /**
+     * Odczytuje jedną ramkę ze strumienia blokującego.
+     *
+     * @param in Strumień wejściowy.
+     * @return Ruch, stan gry lub {@link #RESYNC}.
+     * @throws IOException w przypadku błędu odczytu lub końca strumienia.
+     * @throws IllegalArgumentException jeśli ramka jest niepoprawna.
+     */
+    public static Object read(DataInputStream in) throws IOException {
+        byte[] payload = new byte[checkLength(in.readInt())];
+        in.readFully(payload);
+        return parse(ByteBuffer.wrap(payload));
+    }
+
+    /**
+     * Sprawdza długość treści z nagłówka ramki.
+     *
+     * @param length Długość treści.
+     * @return Ta sama długość.
+     * @throws IllegalArgumentException jeśli długość jest niepoprawna.
+     */
+    private static int checkLength(int length) {
+        if (length < 2 || length > MAX_PAYLOAD) throw new IllegalArgumentException("Invalid frame length: " + length);
+        return length;
+    }
+
+    /**
+     * Odczytuje wiadomość z treści ramki.
+     *
+     * @param payload Treść ramki (cały bufor).
+     * @return Ruch, stan gry lub {@link #RESYNC}.
+     * @throws IllegalArgumentException jeśli treść jest niepoprawna.
+     */
+    private static Object parse(ByteBuffer payload) {
+        int version = payload.get();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported protocol version: " + version);
+        byte type = payload.get();
+        if (type == MOVE && payload.remaining() == 3) {
+            int x = payload.get();
+            int y = payload.get();
+            int flags = payload.get();
+            return new Move(x, y, (flags & PASS) != 0, (flags & RESIGN) != 0, (flags & DONE_SCORING) != 0);
+        }
+        if (type == RESYNC_TYPE && payload.remaining() == 0) return RESYNC;
+        if ((type == STATE || type == DELTA) && payload.remaining() >= STATE_FIELDS - 2) {
+            GameStatus status = GameStatus.of(payload.get());
+            boolean yourTurn = (payload.get() & YOUR_TURN) != 0;
+            int size = payload.get() & 0xFF;
+            int seq = payload.getInt();
+            float blackScore = payload.getFloat();
+            float whiteScore = payload.getFloat();
+            if (type == STATE) {
+                byte[] board = new byte[(size * size + 3) / 4];
+                if (payload.remaining() != board.length)
+                    throw new IllegalArgumentException("Invalid board length for size " + size);
+                payload.get(board);
+                for (byte b : board) {
+                    // para bitów 11 (zarezerwowana) ma ustawione oba bity
+                    if ((b & (b >> 1) & 0x55) != 0) throw new IllegalArgumentException("Invalid point code in board");
+                }
+                return GameState.full(size, seq, board, status, yourTurn, blackScore, whiteScore);
+            }
+            int count = payload.remaining() >= 2 ? payload.getShort() & 0xFFFF : -1;
+            if (count < 0 || payload.remaining() != 2 * count) throw new IllegalArgumentException("Invalid delta length");
+            int[] changes = new int[count];
+            for (int k = 0; k < count; k++) {
+                int v = payload.getShort() & 0xFFFF;
+                int point = v & 0x3FFF;
+                if (point >= size * size) throw new IllegalArgumentException("Invalid point in delta: " + point);
+                if (v >>> 14 == RESERVED_CODE) throw new IllegalArgumentException("Invalid point code in delta: " + point);
+                changes[k] = point << 2 | v >>> 14;
+            }
+            return GameState.delta(size, seq, changes, status, yourTurn, blackScore, whiteScore);
+        }
+        throw new IllegalArgumentException("Invalid message type " + type + " (" + payload.limit() + " bytes)");
+    }
+}
@@ -0,0 +1,183 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Zapis rozegranej partii: rozmiar planszy, kolejne ruchy (na przemian czarny i biały,
+ * zaczyna czarny) i zwycięzca.
+ *
+ * Zapis może być odczytany z pliku SGF i do niego zapisany (tylko główna linia partii,
+ * bez kamieni wstępnych). Służy do budowania księgi otwarć ({@link OpeningBook}).
+ */
+public final class GameRecord {
+
+    /** Rozmiar planszy w plikach SGF bez właściwości SZ. */
+    private static final int SGF_DEFAULT_SIZE = 19;
+
+    /** Rozmiar planszy. */
+    public final int size;
+
+    /** Zwycięzca partii ({@code null}, jeśli nieznany). */
+    public final Stone winner;
+
+    /** Ruchy partii (pasy jako ruchy z ustawionym {@link Move#pass}). */
+    private final List<Move> moves;
+
+    /**
+     * Tworzy zapis partii.
+     *
+     * @param size   Rozmiar planszy.
+     * @param moves  Ruchy partii, na przemian czarny i biały.
+     * @param winner Zwycięzca lub {@code null}.
+     */
+    public GameRecord(int size, List<Move> moves, Stone winner) {
+        this.size = size;
+        this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+        this.winner = winner;
+    }
+
+    /**
+     * Zwraca ruchy partii.
+     *
+     * @return Niemodyfikowalna lista ruchów.
+     */
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Odczytuje partię z tekstu SGF (główną linię, do pierwszego zakończenia wariantu).
+     *
+     * @param sgf Treść pliku SGF.
+     * @return Zapis partii.
+     * @throws IllegalArgumentException jeśli tekst nie jest poprawnym zapisem partii
+     *                                  (np. zawiera kamienie wstępne lub ruchy nie na przemian).
+     */
+    public static GameRecord parseSgf(String sgf) {
+        int size = SGF_DEFAULT_SIZE;
+        Stone winner = null;
+        List<String[]> plays = new ArrayList<>();
+
+        StringBuilder ident = new StringBuilder();
+        String property = "";
+        int i = 0;
+        while (i < sgf.length()) {
+            char ch = sgf.charAt(i);
+            if (ch == ')') break;
+            if (ch == '[') {
+                if (ident.length() > 0) {
+                    property = ident.toString();
+                    ident.setLength(0);
+                }
+                StringBuilder value = new StringBuilder();
+                for (i++; i < sgf.length() && sgf.charAt(i) != ']'; i++) {
+                    if (sgf.charAt(i) == '\\' && i + 1 < sgf.length()) i++;
+                    value.append(sgf.charAt(i));
+                }
+                String v = value.toString().trim();
+                switch (property) {
+                    case "SZ":
+                        size = Integer.parseInt(v);
+                        break;
+                    case "RE":
+                        if (v.startsWith("B+")) winner = Stone.BLACK;
+                        else if (v.startsWith("W+")) winner = Stone.WHITE;
+                        break;
+                    case "B":
+                    case "W":
+                        plays.add(new String[]{property, v});
+                        break;
+                    case "AB":
+                    case "AW":
+                        throw new IllegalArgumentException("Setup stones are not supported");
+                    default:
+                        break;
+                }
+            } else if (Character.isUpperCase(ch)) {
+                ident.append(ch);
+            } else {
+                ident.setLength(0);
+            }
+            i++;
+        }
+
+        List<Move> moves = new ArrayList<>(plays.size());
+        for (int k = 0; k < plays.size(); k++) {
+            String expected = k % 2 == 0 ? "B" : "W";
+            if (!plays.get(k)[0].equals(expected))
+                throw new IllegalArgumentException("Moves do not alternate at move " + (k + 1));
+            moves.add(parsePoint(plays.get(k)[1], size));
+        }
+        return new GameRecord(size, moves, winner);
+    }
+
+    /**
+     * Zapisuje partię w formacie SGF.
+     *
+     * @return Treść pliku SGF.
+     */
+    public String toSgf() {
+        StringBuilder sb = new StringBuilder(16 + 6 * moves.size());
+        sb.append("(;GM[1]FF[4]SZ[").append(size).append("]KM[").append(GameSession.KOMI).append(']');
+        if (winner != null) sb.append("RE[").append(winner == Stone.BLACK ? 'B' : 'W').append("+]");
+        for (int k = 0; k < moves.size(); k++) {
+            Move m = moves.get(k);
+            sb.append(';').append(k % 2 == 0 ? 'B' : 'W').append('[');
+            if (!m.pass) sb.append((char) ('a' + m.x)).append((char) ('a' + m.y));
+            sb.append(']');
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Wczytuje partie z pliku SGF lub ze wszystkich plików {@code .sgf} w katalogu.
+     * Pliki, których nie da się odczytać jako partii, są pomijane z komunikatem.
+     *
+     * @param path Plik lub katalog.
+     * @return Wczytane partie.
+     * @throws IOException w przypadku błędu dostępu do plików.
+     */
+    public static List<GameRecord> load(Path path) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> s = Files.list(path)) {
+                s.filter(p -> p.getFileName().toString().endsWith(".sgf")).sorted().forEach(files::add);
+            }
+        } else {
+            files.add(path);
+        }
+
+        List<GameRecord> games = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                games.add(parseSgf(Files.readString(file)));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Skipping " + file + ": " + e.getMessage());
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Odczytuje ruch z wartości SGF (dwie litery współrzędnych; pusta lub "tt" to pas).
+     *
+     * @param v    Wartość właściwości B lub W.
+     * @param size Rozmiar planszy.
+     * @return Ruch.
+     * @throws IllegalArgumentException jeśli pole leży poza planszą.
+     */
+    private static Move parsePoint(String v, int size) {
+        if (v.isEmpty() || (v.equals("tt") && size <= 19)) return new Move(-1, -1, true, false);
+        if (v.length() != 2) throw new IllegalArgumentException("Invalid point: " + v);
+        int x = v.charAt(0) - 'a';
+        int y = v.charAt(1) - 'a';
+        if (x < 0 || y < 0 || x >= size || y >= size) throw new IllegalArgumentException("Invalid point: " + v);
+        return new Move(x, y, false, false);
+    }
+}
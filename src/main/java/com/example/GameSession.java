@@ -1,15 +1,50 @@
 package com.example;
 
 import java.net.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Zarządza jedną sesją gry Go pomiędzy dwoma graczami.
  * Odpowiada za stan gry, tury, punktację i komunikację z klientami.
+ * Gracze sieciowi ({@link RemotePlayer}) otrzymują zwięzły {@link GameState} (upakowana plansza i kod
+ * komunikatu {@link GameStatus}), a gracze działający
+ * w procesie serwera ({@link LocalPlayer}) niezmienny {@link GameView}; sesja tworzy tylko postać
+ * pobraną przez gracza ({@link Player#deliver}).
+ *
+ * Stan sesji chroni {@link ReentrantLock} zamiast {@code synchronized}: stan jest wysyłany
+ * graczom sieciowym pod blokadą, a blokujący zapis do gniazda wewnątrz monitora przypiąłby
+ * wirtualny wątek klienta ({@link ClientHandler}) do wątku nośnego.
  */
-public class GameSession {
+public class GameSession implements PositionHistory {
+
+    /** Punkty dodatkowe dla białego gracza. */
+    static final float KOMI = 6.5f;
+
+    /** Brak zmian planszy. */
+    private static final int[] NO_CHANGES = new int[0];
+
+    /** Numer sekwencyjny oznaczający, że gracz nie ma jeszcze planszy (nigdy nie sąsiaduje z {@link #seq}). */
+    private static final int NOT_SENT = Integer.MIN_VALUE;
+
+    /** Rozmiar planszy w grach sieciowych. */
+    public static final int DEFAULT_SIZE = 19;
+
+    /** Blokada stanu sesji. */
+    private final ReentrantLock lock = new ReentrantLock();
 
     /** Aktualna plansza gry. */
-    private final Board board = new Board(19);
+    private final Board board;
+
+    /** Bieżące terytorium obu graczy, aktualizowane przyrostowo po każdym ruchu. */
+    private final TerritoryTracker territory;
+
+    /**
+     * Niezmienna migawka planszy po ostatniej zmianie.
+     * Może być odczytywana bez blokowania sesji (np. przez boty i wysyłanie stanu).
+     */
+    private volatile BoardSnapshot snapshot;
 
     /** Silnik reguł gry. */
     private final RulesEngine rules = new RulesEngine();
@@ -23,12 +58,45 @@ public class GameSession {
     /** Kamień gracza, którego jest aktualnie tura. */
     private Stone currentTurn = Stone.BLACK;
 
-    /** Poprzedni stan planszy (do reguły Ko). */
-    private Board previousBoard = null;
+    /**
+     * Skróty Zobrista wszystkich pozycji, które wystąpiły w partii
+     * (do pozycyjnej reguły superko).
+     */
+    private final LongHashSet positionHistory = new LongHashSet();
+
+    /**
+     * Niemodyfikowana kopia {@link #positionHistory} dla stanów {@link GameView}
+     * ({@code null}, jeśli historia zmieniła się od ostatniego użycia).
+     */
+    private LongHashSet historyView;
+
+    /** Numer sekwencyjny planszy (liczba jej zmian od początku partii). */
+    private int seq;
+
+    /** Pola zmienione przy ostatniej zmianie planszy (w układzie {@link BoardSnapshot#diff(BoardSnapshot)}). */
+    private int[] lastChanges = NO_CHANGES;
+
+    /**
+     * Numer sekwencyjny planszy ostatnio wysłanej graczowi sieciowemu (czarnemu, białemu)
+     * lub {@link #NOT_SENT}, jeśli gracz nie ma jeszcze planszy.
+     */
+    private final int[] sentSeq = {NOT_SENT, NOT_SENT};
+
+    /** Ostatni stan wysłany graczowi sieciowemu (czarnemu, białemu), do ponownego wysłania w całości. */
+    private final GameState[] lastSent = new GameState[2];
+
+    /** Liczba wykonanych ruchów (łącznie z pasami). */
+    private int moveNumber = 0;
+
+    /** Pole ko po ostatnim ruchu (indeks z ramką) lub {@link GameView#NO_KO}. */
+    private int koPoint = GameView.NO_KO;
 
     /** Liczba kolejnych pasów. */
     private int consecutivePasses = 0;
 
+    /** Informacja, czy gra została rozpoczęta ({@link #start()}). */
+    private boolean started = false;
+
     /** Informacja, czy gra została zakończona. */
     private boolean gameOver = false;
 
@@ -47,6 +115,24 @@ public class GameSession {
     /** Czy biały zakończył usuwanie kamieni. */
     private boolean whiteDone = false;
 
+    /** Zwycięzca zakończonej partii ({@code null}, dopóki gra trwa). */
+    private Stone winner;
+
+    /** Wykonane ruchy partii (łącznie z pasami), np. do zapisu w formacie SGF. */
+    private final List<Move> moveLog = new ArrayList<>();
+
+    /**
+     * Przygotowuje pustą planszę i historię pozycji (gracze są ustawiani przez wywołującego).
+     *
+     * @param size Rozmiar planszy.
+     */
+    private GameSession(int size) {
+        board = new Board(size);
+        territory = board.trackTerritory();
+        snapshot = board.snapshot();
+        positionHistory.add(board.getHash());
+    }
+
     /**
      * Tworzy nową sesję gry dla dwóch graczy.
      *
@@ -55,21 +141,58 @@ public class GameSession {
      * @throws Exception w przypadku błędu połączenia.
      */
     public GameSession(Socket p1, Socket p2) throws Exception {
+        this(DEFAULT_SIZE);
         black = new ClientHandler(p1, Stone.BLACK, this);
         white = new ClientHandler(p2, Stone.WHITE, this);
     }
 
     /** Konstruktor dla Gry: Człowiek vs BOT */
     public GameSession(Socket p1) throws Exception {
+        this(p1, Bot::new);
+    }
+
+    /**
+     * Konstruktor dla gry człowieka z dowolnym botem.
+     *
+     * @param p1         Gniazdo gracza czarnego.
+     * @param botFactory Fabryka tworząca bota grającego białymi.
+     * @throws Exception w przypadku błędu połączenia.
+     */
+    public GameSession(Socket p1, PlayerFactory botFactory) throws Exception {
+        this(DEFAULT_SIZE);
         this.black = new ClientHandler(p1, Stone.BLACK, this);
-        this.white = new Bot(Stone.WHITE, this);
+        this.white = botFactory.create(Stone.WHITE, this);
     }
 
-    /** Uruchamia grę i rozpoczyna wątki klientów. */
+    /**
+     * Konstruktor dla gry dowolnych graczy (np. bot przeciwko botowi lub gracze
+     * połączeni przez {@link NioTransport}).
+     *
+     * @param blackFactory Fabryka gracza czarnego.
+     * @param whiteFactory Fabryka gracza białego.
+     * @param size         Rozmiar planszy.
+     */
+    public GameSession(PlayerFactory blackFactory, PlayerFactory whiteFactory, int size) {
+        this(size);
+        this.black = blackFactory.create(Stone.BLACK, this);
+        this.white = whiteFactory.create(Stone.WHITE, this);
+    }
+
+    /**
+     * Uruchamia grę i rozpoczyna wątki klientów. Jeśli gracz rozłączył się jeszcze
+     * przed rozpoczęciem, jego przeciwnik od razu dostaje wygraną walkowerem.
+     */
     public void start() {
-        black.start();
-        white.start();
-        broadcast("Game started. BLACK begins.", true);
+        lock.lock();
+        try {
+            started = true;
+            black.start();
+            white.start();
+            if (gameOver) send(winner == Stone.BLACK ? black : white, GameStatus.OPPONENT_DISCONNECTED, false, null);
+            else broadcast(GameStatus.GAME_STARTED, true);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -78,56 +201,84 @@ public class GameSession {
      * @param move   Wykonany ruch.
      * @param sender Gracz wykonujący ruch.
      */
-    public synchronized void handleMove(Move move, Player sender) {
-        if (gameOver) return;
+    public void handleMove(Move move, Player sender) {
+        lock.lock();
+        try {
+            if (gameOver) return;
 
-        if (scoringPhase) {
-            handleScoringMove(move, sender);
-            return;
-        }
+            if (scoringPhase) {
+                handleScoringMove(move, sender);
+                return;
+            }
 
-        if (move.resign) {
-            endGameByResignation(sender);
-            return;
-        }
+            if (move.resign) {
+                endGameByResignation(sender);
+                return;
+            }
 
-        if (sender.getStone() != currentTurn) {
-            sender.sendState(new GameState(board.toString(), "Not your turn", false));
-            return;
-        }
+            if (sender.getStone() != currentTurn) {
+                send(sender, GameStatus.NOT_YOUR_TURN, false, null);
+                return;
+            }
 
 
-        if (move.pass) {
-            consecutivePasses++;
-            if (consecutivePasses >= 2) {
-                startScoringPhase();
+            if (move.pass) {
+                moveLog.add(move);
+                moveNumber++;
+                koPoint = GameView.NO_KO;
+                consecutivePasses++;
+                if (consecutivePasses >= 2) {
+                    startScoringPhase();
+                    return;
+                }
+                switchTurn(sender, GameStatus.PASSED, GameStatus.OPPONENT_PASSED, null);
                 return;
             }
-            switchTurn(sender, "You passed", "Opponent passed. Your turn.");
-            return;
-        }
 
-        consecutivePasses = 0;
+            consecutivePasses = 0;
 
-        boolean ok = rules.applyMove(board, move, currentTurn, this);
+            int prisoners = blackPrisoners + whitePrisoners;
+            boolean ok = rules.applyMove(board, move, currentTurn, this);
 
-        if (!ok) {
-            sender.sendState(new GameState(board.toString(), "Invalid move", true));
-            return;
+            if (!ok) {
+                send(sender, GameStatus.INVALID_MOVE, true, null);
+                return;
+            }
+
+            moveLog.add(move);
+            moveNumber++;
+            koPoint = koAfter(board.index(move.x, move.y), blackPrisoners + whitePrisoners - prisoners);
+            updateSnapshot();
+
+            ScoringResult score = territory.score(blackPrisoners, whitePrisoners, KOMI);
+            switchTurn(sender, GameStatus.MOVE_ACCEPTED, GameStatus.YOUR_TURN, score);
+        } finally {
+            lock.unlock();
         }
+    }
 
-        switchTurn(sender, "Move accepted", "Your turn");
+    /**
+     * Wyznacza pole ko po ruchu: ruch zbił dokładnie jeden kamień, a postawiony
+     * kamień jest pojedynczy i ma jeden oddech (pole zbitego kamienia).
+     *
+     * @param point    Indeks pola ruchu.
+     * @param captured Liczba kamieni zbitych ruchem.
+     * @return Pole ko lub {@link GameView#NO_KO}.
+     */
+    private int koAfter(int point, int captured) {
+        if (captured != 1 || board.chainSize(point) != 1 || !board.inAtari(point)) return GameView.NO_KO;
+        return board.atariLiberty(point);
     }
 
     /** Rozpoczyna fazę punktacji. */
     private void startScoringPhase() {
         scoringPhase = true;
+        koPoint = GameView.NO_KO;
         blackDone = false;
         whiteDone = false;
 
-        String msg = "SCORING PHASE. Click DEAD stones to remove them.\nPress DONE when finished.";
-        black.sendState(new GameState(board.toString(), msg, true));
-        white.sendState(new GameState(board.toString(), msg, true));
+        send(black, GameStatus.SCORING_PHASE, true, null);
+        send(white, GameStatus.SCORING_PHASE, true, null);
     }
 
     /**
@@ -142,7 +293,7 @@ public class GameSession {
             if (sender.getStone() == Stone.BLACK) blackDone = true;
             else whiteDone = true;
 
-            sender.sendState(new GameState(board.toString(), "Waiting for opponent...", false));
+            send(sender, GameStatus.WAITING_FOR_OPPONENT, false, null);
 
             if (blackDone && whiteDone) {
                 finishGameAndScore();
@@ -155,6 +306,7 @@ public class GameSession {
 
             if (target != Stone.EMPTY) {
                 board.set(move.x, move.y, Stone.EMPTY);
+                updateSnapshot();
 
                 if (target == Stone.BLACK) whitePrisoners++;
                 else blackPrisoners++;
@@ -162,9 +314,8 @@ public class GameSession {
                 blackDone = false;
                 whiteDone = false;
 
-                String msg = "Stone removed. Keep marking or press DONE.";
-                black.sendState(new GameState(board.toString(), msg, true));
-                white.sendState(new GameState(board.toString(), msg, true));
+                send(black, GameStatus.STONE_REMOVED, true, null);
+                send(white, GameStatus.STONE_REMOVED, true, null);
             }
         }
     }
@@ -172,18 +323,25 @@ public class GameSession {
     /** Kończy grę i oblicza wynik. */
     private void finishGameAndScore() {
         gameOver = true;
-        ScoringEngine engine = new ScoringEngine();
-        ScoringResult result = engine.score(board, blackPrisoners, whitePrisoners, 6.5f);
-
-        String msg = String.format(
-                "GAME OVER\nBLACK: %.1f | WHITE: %.1f\n%s wins!",
-                result.blackScore,
-                result.whiteScore,
-                result.blackScore > result.whiteScore ? "BLACK" : "WHITE"
-        );
-
-        black.sendState(new GameState(board.toString(), msg, false));
-        white.sendState(new GameState(board.toString(), msg, false));
+        ScoringResult result = territory.score(blackPrisoners, whitePrisoners, KOMI);
+        winner = result.blackScore > result.whiteScore ? Stone.BLACK : Stone.WHITE;
+
+        send(black, GameStatus.GAME_OVER, false, result);
+        send(white, GameStatus.GAME_OVER, false, result);
+    }
+
+    /**
+     * Zwraca bieżący wynik partii wyliczony z przyrostowo utrzymywanego terytorium.
+     *
+     * @return Wynik obu graczy przy obecnym układzie planszy.
+     */
+    public ScoringResult liveScore() {
+        lock.lock();
+        try {
+            return territory.score(blackPrisoners, whitePrisoners, KOMI);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -192,13 +350,14 @@ public class GameSession {
      * @param currentSender Gracz wykonujący ruch.
      * @param msgSelf       Komunikat dla niego.
      * @param msgOther      Komunikat dla przeciwnika.
+     * @param score         Wynik do komunikatów lub {@code null}.
      */
-    private void switchTurn(Player currentSender, String msgSelf, String msgOther) {
+    private void switchTurn(Player currentSender, GameStatus msgSelf, GameStatus msgOther, ScoringResult score) {
         currentTurn = currentTurn.opposite();
         Player other = (currentSender.getStone() == Stone.BLACK) ? white : black;
 
-        currentSender.sendState(new GameState(board.toString(), msgSelf, false));
-        other.sendState(new GameState(board.toString(), msgOther, true));
+        send(currentSender, msgSelf, false, score);
+        send(other, msgOther, true, score);
     }
 
     /**
@@ -208,20 +367,140 @@ public class GameSession {
      */
     private void endGameByResignation(Player loser) {
         gameOver = true;
-        Player winner = (loser.getStone() == Stone.BLACK) ? white : black;
-        loser.sendState(new GameState(board.toString(), "You resigned. You lose.", false));
-        winner.sendState(new GameState(board.toString(), "Opponent resigned. You win.", false));
+        winner = loser.getStone().opposite();
+        send(loser, GameStatus.RESIGNED, false, null);
+        send(winner == Stone.BLACK ? black : white, GameStatus.OPPONENT_RESIGNED, false, null);
+    }
+
+    /**
+     * Kończy grę po rozłączeniu się gracza: przeciwnik wygrywa walkowerem, tak jak
+     * po poddaniu się. Wywołanie po zakończeniu gry nic nie robi, więc połączenie
+     * może zgłaszać rozłączenie niezależnie od stanu gry.
+     *
+     * @param player Gracz, który się rozłączył.
+     */
+    public void disconnect(Player player) {
+        lock.lock();
+        try {
+            if (gameOver) return;
+            gameOver = true;
+            winner = player.getStone().opposite();
+            // Przed rozpoczęciem gry przeciwnik mógł jeszcze nie powstać; powiadamia go start()
+            if (started) send(winner == Stone.BLACK ? black : white, GameStatus.OPPONENT_DISCONNECTED, false, null);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Wysyła ten sam stan gry do obu graczy.
      *
-     * @param msg       Treść komunikatu.
+     * @param msg       Komunikat.
      * @param blackTurn Czy czarny ma turę.
      */
-    private void broadcast(String msg, boolean blackTurn) {
-        black.sendState(new GameState(board.toString(), msg, blackTurn));
-        white.sendState(new GameState(board.toString(), msg, !blackTurn));
+    private void broadcast(GameStatus msg, boolean blackTurn) {
+        send(black, msg, blackTurn, null);
+        send(white, msg, !blackTurn, null);
+    }
+
+    /**
+     * Przekazuje stan gry graczowi, który pobiera z niego {@link GameView}
+     * (gracz lokalny) albo {@link GameState} (gracz sieciowy).
+     *
+     * @param player   Adresat.
+     * @param status   Komunikat.
+     * @param yourTurn Czy adresat może wykonać ruch.
+     * @param score    Wynik podawany w komunikacie lub {@code null}.
+     */
+    private void send(Player player, GameStatus status, boolean yourTurn, ScoringResult score) {
+        send(player, status, yourTurn, score == null ? 0 : score.blackScore, score == null ? 0 : score.whiteScore);
+    }
+
+    /**
+     * Przekazuje stan gry graczowi z podanym wynikiem.
+     *
+     * @param player     Adresat.
+     * @param status     Komunikat.
+     * @param yourTurn   Czy adresat może wykonać ruch.
+     * @param blackScore Punkty czarnego podawane w komunikacie.
+     * @param whiteScore Punkty białego podawane w komunikacie.
+     */
+    private void send(Player player, GameStatus status, boolean yourTurn, float blackScore, float whiteScore) {
+        player.deliver(() -> view(status, yourTurn, blackScore, whiteScore),
+                () -> state(player.getStone() == Stone.BLACK ? 0 : 1, status, yourTurn, blackScore, whiteScore));
+    }
+
+    /**
+     * Tworzy niezmienny stan gry dla gracza lokalnego.
+     *
+     * @param status     Komunikat.
+     * @param yourTurn   Czy adresat może wykonać ruch.
+     * @param blackScore Punkty czarnego podawane w komunikacie.
+     * @param whiteScore Punkty białego podawane w komunikacie.
+     * @return Stan gry.
+     */
+    private GameView view(GameStatus status, boolean yourTurn, float blackScore, float whiteScore) {
+        if (historyView == null) historyView = positionHistory.copy();
+        return new GameView(snapshot, status, blackScore, whiteScore, yourTurn, currentTurn, moveNumber,
+                blackPrisoners, whitePrisoners, koPoint, scoringPhase, gameOver, historyView);
+    }
+
+    /**
+     * Tworzy stan gry dla gracza sieciowego i zapamiętuje go jako wysłany.
+     *
+     * Gracz sieciowy otrzymuje całą planszę tylko wtedy, gdy jeszcze jej nie ma (lub o nią
+     * poprosił); w przeciwnym razie – ostatnią zmianę planszy, jeśli jej nie dostał, albo
+     * sam komunikat. Zmiana większa niż upakowana plansza jest zastępowana całą planszą.
+     *
+     * @param p          Numer adresata (0 – czarny, 1 – biały).
+     * @param status     Komunikat.
+     * @param yourTurn   Czy adresat może wykonać ruch.
+     * @param blackScore Punkty czarnego podawane w komunikacie.
+     * @param whiteScore Punkty białego podawane w komunikacie.
+     * @return Stan gry.
+     */
+    private GameState state(int p, GameStatus status, boolean yourTurn, float blackScore, float whiteScore) {
+        int size = snapshot.getSize();
+        GameState state;
+        if (sentSeq[p] == seq) {
+            state = GameState.delta(size, seq, NO_CHANGES, status, yourTurn, blackScore, whiteScore);
+        } else if (sentSeq[p] == seq - 1 && 8 * lastChanges.length <= size * size) {
+            state = GameState.delta(size, seq, lastChanges, status, yourTurn, blackScore, whiteScore);
+        } else {
+            state = GameState.full(snapshot, seq, status, yourTurn, blackScore, whiteScore);
+        }
+        sentSeq[p] = seq;
+        lastSent[p] = state;
+        return state;
+    }
+
+    /**
+     * Tworzy migawkę planszy po zmianie i zapamiętuje zmienione pola dla graczy sieciowych.
+     */
+    private void updateSnapshot() {
+        BoardSnapshot previous = snapshot;
+        snapshot = board.snapshot();
+        lastChanges = snapshot.diff(previous);
+        seq++;
+    }
+
+    /**
+     * Wysyła graczowi sieciowemu pełny stan gry z ostatnim komunikatem
+     * (np. gdy jego kopia planszy przestała się zgadzać).
+     *
+     * @param player Gracz proszący o pełny stan.
+     */
+    public void resync(Player player) {
+        lock.lock();
+        try {
+            int p = player.getStone() == Stone.BLACK ? 0 : 1;
+            GameState last = lastSent[p];
+            if (last == null) return;
+            sentSeq[p] = NOT_SENT;
+            send(player, last.status, last.yourTurn, last.blackScore, last.whiteScore);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -234,28 +513,76 @@ public class GameSession {
         else whitePrisoners++;
     }
 
-    /** Zwraca poprzedni stan planszy. */
-    public Board getPreviousBoard() {
-        return previousBoard;
+    /**
+     * Zwraca zwycięzcę partii.
+     *
+     * @return Kolor zwycięzcy lub {@code null}, jeśli gra jeszcze trwa.
+     */
+    public Stone getWinner() {
+        lock.lock();
+        try {
+            return winner;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    /** Ustawia poprzedni stan planszy. */
-    public void setPreviousBoard(Board b) {
-        previousBoard = b;
+    /**
+     * Zwraca zapis partii (wykonane dotąd ruchy i zwycięzcę, jeśli gra się zakończyła).
+     *
+     * @return Zapis partii.
+     */
+    public GameRecord getRecord() {
+        lock.lock();
+        try {
+            return new GameRecord(board.getSize(), moveLog, winner);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * Tworzy lekką kopię sesji wyłącznie do symulacji ruchów (BOT).
-     * Nie zawiera graczy ani komunikacji.
+     * Zwraca liczbę wykonanych ruchów (łącznie z pasami).
+     *
+     * @return Numer ostatniego ruchu.
      */
-    public GameSession copyForSimulation() {
-        GameSession sim = new GameSession();
+    public int getMoveNumber() {
+        lock.lock();
+        try {
+            return moveNumber;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        sim.previousBoard =
-                this.previousBoard == null ? null : this.previousBoard.copy();
+    /**
+     * Zwraca migawkę planszy po ostatniej zmianie.
+     * Metoda nie blokuje sesji; zwrócony obiekt jest niezmienny.
+     *
+     * @return Bieżąca migawka planszy.
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
 
-        return sim;
+    /**
+     * Sprawdza, czy pozycja o podanym skrócie wystąpiła już w partii (superko).
+     *
+     * @param hash Skrót Zobrista pozycji.
+     * @return {@code true}, jeśli pozycja się powtarza.
+     */
+    @Override
+    public boolean isRepeatedPosition(long hash) {
+        return positionHistory.contains(hash);
     }
 
-    private GameSession() {}
-}
\ No newline at end of file
+    /**
+     * Zapamiętuje pozycję po wykonanym ruchu w historii partii.
+     *
+     * @param hash Skrót Zobrista pozycji.
+     */
+    public void recordPosition(long hash) {
+        positionHistory.add(hash);
+        historyView = null;
+    }
+}
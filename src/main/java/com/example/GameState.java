@@ -1,38 +1,184 @@
 package com.example;
 
-import java.io.Serializable;
-
 /**
- * Reprezentuje migawkę stanu gry przesyłaną z serwera do klienta.
- * Klasa implementuje interfejs {@link Serializable}, co umożliwia jej
- * przesyłanie przez strumienie obiektowe (ObjectStreams).
+ * Stan gry wysyłany graczom sieciowym: kod komunikatu ({@link GameStatus}), tura,
+ * bieżący wynik oraz plansza – w całości (upakowana po 2 bity na pole) albo jako
+ * zmiana względem poprzedniego stanu.
+ *
+ * Każda zmiana planszy w sesji zwiększa jej numer sekwencyjny ({@link #seq}). Pełny stan
+ * jest wysyłany po dołączeniu gracza i na jego prośbę ({@link FrameCodec#RESYNC});
+ * pozostałe stany zawierają tylko zmienione pola (postawiony kamień, zbite lub usunięte
+ * kamienie) zmiany o numerze {@code seq} albo żadnych pól, jeśli plansza się nie zmieniła.
+ * Odbiorca odtwarza planszę w {@link BoardMirror}. Stan jest kodowany binarnie przez {@link FrameCodec}.
  */
-public class GameState implements Serializable {
+public final class GameState {
+
+    /** Rozmiar planszy. */
+    public final int size;
+
+    /** Numer sekwencyjny planszy w sesji (liczba jej zmian). */
+    public final int seq;
+
+    /** Komunikat dla gracza. */
+    public final GameStatus status;
+
+    /** Czy gracz może wykonać ruch (lub akcję w fazie punktacji). */
+    public final boolean yourTurn;
+
+    /** Punkty czarnego (w komunikatach z wynikiem; w pozostałych 0). */
+    public final float blackScore;
+
+    /** Punkty białego (w komunikatach z wynikiem; w pozostałych 0). */
+    public final float whiteScore;
 
-    /** * Tekstowa reprezentacja planszy.
-     * Zawiera układ kamieni ('B', 'W', '.') ułożony w wiersze i kolumny.
+    /** Plansza upakowana po 2 bity na pole (w układzie {@link BoardSnapshot#packed()}) lub {@code null}. */
+    private final byte[] packed;
+
+    /** Zmienione pola (w układzie {@link BoardSnapshot#diff(BoardSnapshot)}) lub {@code null}. */
+    private final int[] changes;
+
+    /**
+     * Tworzy stan gry (dokładnie jedno z {@code packed} i {@code changes} nie jest {@code null}).
+     * Tablice nie są później modyfikowane.
      */
-    public final String board;
+    private GameState(int size, int seq, byte[] packed, int[] changes, GameStatus status, boolean yourTurn,
+                      float blackScore, float whiteScore) {
+        this.size = size;
+        this.seq = seq;
+        this.packed = packed;
+        this.changes = changes;
+        this.status = status;
+        this.yourTurn = yourTurn;
+        this.blackScore = blackScore;
+        this.whiteScore = whiteScore;
+    }
 
-    /** * Komunikat tekstowy dla gracza.
-     * Wyświetlany bezpośrednio w interfejsie użytkownika jako status gry.
+    /**
+     * Tworzy pełny stan gry z migawki planszy.
+     *
+     * @param board      Migawka planszy.
+     * @param seq        Numer sekwencyjny planszy.
+     * @param status     Komunikat.
+     * @param yourTurn   Czy gracz może wykonać ruch.
+     * @param blackScore Punkty czarnego.
+     * @param whiteScore Punkty białego.
+     * @return Pełny stan gry.
      */
-    public final String message;
+    public static GameState full(BoardSnapshot board, int seq, GameStatus status, boolean yourTurn,
+                                 float blackScore, float whiteScore) {
+        return new GameState(board.getSize(), seq, board.packed(), null, status, yourTurn, blackScore, whiteScore);
+    }
 
-    /** * Flaga informująca, czy gracz odbierający ten obiekt ma prawo do wykonania ruchu.
+    /**
+     * Tworzy pełny stan gry z upakowanej planszy (np. odczytanej z sieci).
+     *
+     * @param size       Rozmiar planszy.
+     * @param seq        Numer sekwencyjny planszy.
+     * @param packed     Plansza upakowana po 2 bity na pole.
+     * @param status     Komunikat.
+     * @param yourTurn   Czy gracz może wykonać ruch.
+     * @param blackScore Punkty czarnego.
+     * @param whiteScore Punkty białego.
+     * @return Pełny stan gry.
      */
-    public final boolean yourTurn;
+    static GameState full(int size, int seq, byte[] packed, GameStatus status, boolean yourTurn,
+                          float blackScore, float whiteScore) {
+        return new GameState(size, seq, packed, null, status, yourTurn, blackScore, whiteScore);
+    }
 
     /**
-     * Konstruuje nowy obiekt stanu gry.
+     * Tworzy stan gry ze zmianą planszy.
      *
-     * @param board Tekstowy opis układu planszy.
-     * @param message Komunikat statusu dla klienta.
-     * @param yourTurn Określa, czy jest tura gracza, do którego trafi ten stan.
+     * @param size       Rozmiar planszy.
+     * @param seq        Numer sekwencyjny planszy po zmianie.
+     * @param changes    Zmienione pola (pusta tablica, jeśli plansza się nie zmieniła).
+     * @param status     Komunikat.
+     * @param yourTurn   Czy gracz może wykonać ruch.
+     * @param blackScore Punkty czarnego.
+     * @param whiteScore Punkty białego.
+     * @return Stan gry ze zmianą.
      */
-    public GameState(String board, String message, boolean yourTurn) {
-        this.board = board;
-        this.message = message;
-        this.yourTurn = yourTurn;
+    static GameState delta(int size, int seq, int[] changes, GameStatus status, boolean yourTurn,
+                           float blackScore, float whiteScore) {
+        return new GameState(size, seq, null, changes, status, yourTurn, blackScore, whiteScore);
+    }
+
+    /**
+     * Sprawdza, czy stan zawiera całą planszę.
+     *
+     * @return {@code true} dla pełnego stanu, {@code false} dla zmiany.
+     */
+    public boolean isFull() {
+        return packed != null;
+    }
+
+    /**
+     * Pobiera kamień znajdujący się na podanych współrzędnych (tylko w pełnym stanie).
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @return Kamień na wskazanym polu.
+     * @throws IllegalStateException jeśli stan zawiera tylko zmianę planszy.
+     */
+    public Stone get(int x, int y) {
+        if (packed == null) throw new IllegalStateException("Delta state has no full board");
+        int k = y * size + x;
+        return Board.stone((byte) ((packed[k >> 2] >> ((k & 3) << 1)) & 3));
+    }
+
+    /**
+     * Zwraca liczbę zmienionych pól (0 w pełnym stanie).
+     *
+     * @return Liczba zmian.
+     */
+    public int getChangeCount() {
+        return changes == null ? 0 : changes.length;
+    }
+
+    /**
+     * Zwraca numer pola ({@code y * size + x}) zmiany.
+     *
+     * @param k Numer zmiany.
+     * @return Numer pola.
+     */
+    public int getChangePoint(int k) {
+        return changes[k] >>> 2;
+    }
+
+    /**
+     * Zwraca nowy kamień na polu zmiany.
+     *
+     * @param k Numer zmiany.
+     * @return Kamień (lub {@link Stone#EMPTY} dla zbitego lub usuniętego kamienia).
+     */
+    public Stone getChangeStone(int k) {
+        return Board.stone((byte) (changes[k] & 3));
+    }
+
+    /**
+     * Zwraca treść komunikatu dla gracza.
+     *
+     * @return Komunikat.
+     */
+    public String getMessage() {
+        return status.message(blackScore, whiteScore);
+    }
+
+    /**
+     * Zwraca upakowaną planszę (do kodowania).
+     *
+     * @return Plansza lub {@code null}; tablicy nie wolno modyfikować.
+     */
+    byte[] packed() {
+        return packed;
+    }
+
+    /**
+     * Zwraca zmienione pola (do kodowania).
+     *
+     * @return Zmiany lub {@code null}; tablicy nie wolno modyfikować.
+     */
+    int[] changes() {
+        return changes;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.example;
+
+/**
+ * Komunikat sesji gry dla gracza, przesyłany jako kod liczbowy zamiast tekstu.
+ * Treść komunikatu wyznacza odbiorca ({@link #message(float, float)}); komunikaty
+ * z wynikiem korzystają z punktów czarnego i białego przesyłanych w tym samym stanie.
+ */
+public enum GameStatus {
+    GAME_STARTED(1, "Game started. BLACK begins."),
+    NOT_YOUR_TURN(2, "Not your turn"),
+    PASSED(3, "You passed"),
+    OPPONENT_PASSED(4, "Opponent passed. Your turn."),
+    INVALID_MOVE(5, "Invalid move"),
+    MOVE_ACCEPTED(6, "Move accepted\nScore: BLACK %.1f | WHITE %.1f"),
+    YOUR_TURN(7, "Your turn\nScore: BLACK %.1f | WHITE %.1f"),
+    SCORING_PHASE(8, "SCORING PHASE. Click DEAD stones to remove them.\nPress DONE when finished."),
+    WAITING_FOR_OPPONENT(9, "Waiting for opponent..."),
+    STONE_REMOVED(10, "Stone removed. Keep marking or press DONE."),
+    GAME_OVER(11, "GAME OVER\nBLACK: %.1f | WHITE: %.1f\n%s wins!"),
+    RESIGNED(12, "You resigned. You lose."),
+    OPPONENT_RESIGNED(13, "Opponent resigned. You win."),
+    OPPONENT_DISCONNECTED(14, "Opponent disconnected. You win.");
+
+    /** Statusy według kodów. */
+    private static final GameStatus[] BY_CODE = new GameStatus[values().length + 1];
+
+    static {
+        for (GameStatus s : values()) BY_CODE[s.code] = s;
+    }
+
+    /** Kod statusu w protokole sieciowym. */
+    public final int code;
+
+    /** Szablon treści komunikatu. */
+    private final String template;
+
+    GameStatus(int code, String template) {
+        this.code = code;
+        this.template = template;
+    }
+
+    /**
+     * Zwraca status o podanym kodzie.
+     *
+     * @param code Kod statusu.
+     * @return Status.
+     * @throws IllegalArgumentException jeśli kod jest nieznany.
+     */
+    public static GameStatus of(int code) {
+        if (code < 1 || code >= BY_CODE.length) throw new IllegalArgumentException("Unknown status code: " + code);
+        return BY_CODE[code];
+    }
+
+    /**
+     * Sprawdza, czy status należy do fazy punktacji (usuwania martwych kamieni).
+     *
+     * @return {@code true} dla rozpoczęcia fazy punktacji i usunięcia kamienia.
+     */
+    public boolean isScoring() {
+        return this == SCORING_PHASE || this == STONE_REMOVED;
+    }
+
+    /**
+     * Tworzy treść komunikatu.
+     *
+     * @param blackScore Punkty czarnego (dla komunikatów z wynikiem).
+     * @param whiteScore Punkty białego (dla komunikatów z wynikiem).
+     * @return Treść komunikatu dla gracza.
+     */
+    public String message(float blackScore, float whiteScore) {
+        if (template.indexOf('%') < 0) return template;
+        return String.format(template, blackScore, whiteScore, blackScore > whiteScore ? "BLACK" : "WHITE");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example;
+
+/**
+ * Niezmienny stan gry przekazywany graczom działającym w procesie serwera
+ * ({@link LocalPlayer}). W odróżnieniu od {@link GameState} zawiera migawkę planszy
+ * oraz informacje potrzebne do stosowania reguł: numer ruchu,
+ * gracza na ruchu, jeńców, pole ko i historię pozycji do reguły superko.
+ *
+ * Wszystkie dane odpowiadają tej samej chwili partii, więc gracz może z nich
+ * korzystać w dowolnym wątku, nawet gdy sesja przeszła już do kolejnych ruchów.
+ */
+public final class GameView implements PositionHistory {
+
+    /** Oznaczenie braku pola ko. */
+    public static final int NO_KO = -1;
+
+    /** Migawka planszy. */
+    public final BoardSnapshot board;
+
+    /** Kod komunikatu dla gracza (ten sam, który otrzymuje gracz sieciowy). */
+    public final GameStatus status;
+
+    /** Treść komunikatu dla gracza. */
+    public final String message;
+
+    /** Punkty czarnego podane w komunikacie (0, jeśli komunikat nie zawiera wyniku). */
+    public final float blackScore;
+
+    /** Punkty białego podane w komunikacie (0, jeśli komunikat nie zawiera wyniku). */
+    public final float whiteScore;
+
+    /** Czy gracz odbierający stan może wykonać ruch (lub akcję w fazie punktacji). */
+    public final boolean yourTurn;
+
+    /** Kolor gracza, którego jest tura. */
+    public final Stone toMove;
+
+    /** Liczba wykonanych ruchów (łącznie z pasami). */
+    public final int moveNumber;
+
+    /** Liczba jeńców czarnego gracza. */
+    public final int blackPrisoners;
+
+    /** Liczba jeńców białego gracza. */
+    public final int whitePrisoners;
+
+    /**
+     * Pole, na którym gracz na ruchu nie może od razu odbić pojedynczego kamienia (ko),
+     * w układzie indeksów z ramką, lub {@link #NO_KO}.
+     */
+    public final int koPoint;
+
+    /** Czy trwa faza punktacji. */
+    public final boolean scoringPhase;
+
+    /** Czy gra została zakończona. */
+    public final boolean gameOver;
+
+    /** Skróty pozycji partii (zbiór nie jest modyfikowany po utworzeniu stanu). */
+    private final LongHashSet history;
+
+    /**
+     * Tworzy stan gry.
+     *
+     * @param board          Migawka planszy.
+     * @param status         Komunikat dla gracza.
+     * @param blackScore     Punkty czarnego podane w komunikacie.
+     * @param whiteScore     Punkty białego podane w komunikacie.
+     * @param yourTurn       Czy gracz może wykonać ruch.
+     * @param toMove         Kolor gracza na ruchu.
+     * @param moveNumber     Liczba wykonanych ruchów.
+     * @param blackPrisoners Jeńcy czarnego gracza.
+     * @param whitePrisoners Jeńcy białego gracza.
+     * @param koPoint        Pole ko lub {@link #NO_KO}.
+     * @param scoringPhase   Czy trwa faza punktacji.
+     * @param gameOver       Czy gra została zakończona.
+     * @param history        Niemodyfikowana kopia historii pozycji.
+     */
+    GameView(BoardSnapshot board, GameStatus status, float blackScore, float whiteScore, boolean yourTurn,
+             Stone toMove, int moveNumber, int blackPrisoners, int whitePrisoners, int koPoint,
+             boolean scoringPhase, boolean gameOver, LongHashSet history) {
+        this.board = board;
+        this.status = status;
+        this.message = status.message(blackScore, whiteScore);
+        this.blackScore = blackScore;
+        this.whiteScore = whiteScore;
+        this.yourTurn = yourTurn;
+        this.toMove = toMove;
+        this.moveNumber = moveNumber;
+        this.blackPrisoners = blackPrisoners;
+        this.whitePrisoners = whitePrisoners;
+        this.koPoint = koPoint;
+        this.scoringPhase = scoringPhase;
+        this.gameOver = gameOver;
+        this.history = history;
+    }
+
+    /**
+     * Sprawdza, czy pozycja wystąpiła w partii do chwili utworzenia tego stanu.
+     *
+     * @param hash Skrót Zobrista pozycji.
+     * @return {@code true}, jeśli pozycja się powtarza.
+     */
+    @Override
+    public boolean isRepeatedPosition(long hash) {
+        return history.contains(hash);
+    }
+
+    /**
+     * Zwraca liczbę różnych pozycji w historii partii.
+     *
+     * @return Liczba pozycji.
+     */
+    public int getHistorySize() {
+        return history.size();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example;
+
+/**
+ * Wspólny interfejs reprezentacji planszy, na którym działają
+ * {@link RulesEngine} i {@link ScoringEngine}.
+ *
+ * Pola są adresowane zarówno współrzędnymi (x, y), jak i indeksami w układzie
+ * z ramką wartowniczą: pole (x, y) ma indeks {@code (y + 1) * stride + (x + 1)},
+ * gdzie {@code stride = size + 2}. Wszystkie implementacje używają tego samego
+ * układu indeksów i tych samych kluczy Zobrista, więc zapisy ruchów ({@link MoveRecord})
+ * i skróty pozycji są między nimi zgodne.
+ */
+public interface GoBoard {
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return Długość boku planszy.
+     */
+    int getSize();
+
+    /**
+     * Sprawdza, czy podane współrzędne mieszczą się w granicach planszy.
+     *
+     * @param x Współrzędna pozioma.
+     * @param y Współrzędna pionowa.
+     * @return {@code true}, jeśli pole (x, y) leży na planszy.
+     */
+    boolean inBounds(int x, int y);
+
+    /**
+     * Pobiera kamień znajdujący się na podanych współrzędnych.
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @return Kamień na wskazanym polu.
+     */
+    Stone get(int x, int y);
+
+    /**
+     * Ustawia podany kamień na wskazanych współrzędnych (bez stosowania reguł gry).
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @param s Kamień do postawienia (lub EMPTY).
+     */
+    void set(int x, int y, Stone s);
+
+    /**
+     * Zwraca indeks pola (x, y) w układzie z ramką.
+     *
+     * @param x Współrzędna pozioma pola.
+     * @param y Współrzędna pionowa pola.
+     * @return Indeks pola.
+     */
+    int index(int x, int y);
+
+    /**
+     * Zwraca przesunięcie indeksu między polem a jego sąsiadem pionowym.
+     *
+     * @return Rozmiar planszy + 2.
+     */
+    int getStride();
+
+    /**
+     * Zwraca kod pola o podanym indeksie ({@link Board#EMPTY}, {@link Board#BLACK},
+     * {@link Board#WHITE} lub {@link Board#BORDER} dla pól ramki).
+     *
+     * @param i Indeks pola.
+     * @return Kod pola.
+     */
+    byte at(int i);
+
+    /**
+     * Stawia kamień na pustym polu (bez zbijania).
+     *
+     * @param i Indeks pustego pola.
+     * @param c Kod koloru kamienia.
+     */
+    void placeStone(int i, byte c);
+
+    /**
+     * Zdejmuje pojedynczy kamień z planszy.
+     *
+     * @param i Indeks pola z kamieniem.
+     */
+    void removeStone(int i);
+
+    /**
+     * Usuwa cały łańcuch zawierający podany kamień, zapisując indeksy zdjętych kamieni.
+     *
+     * @param i      Indeks dowolnego kamienia łańcucha.
+     * @param out    Bufor na indeksy zdjętych kamieni (może być {@code null}).
+     * @param offset Pozycja w buforze, od której zapisywane są indeksy.
+     * @return Liczba zdjętych kamieni.
+     */
+    int removeChain(int i, int[] out, int offset);
+
+    /**
+     * Zwraca liczbę kamieni w łańcuchu zawierającym podany kamień.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return Rozmiar łańcucha.
+     */
+    int chainSize(int i);
+
+    /**
+     * Sprawdza, czy dwa kamienie należą do tego samego łańcucha.
+     *
+     * @param a Indeks pierwszego kamienia.
+     * @param b Indeks drugiego kamienia.
+     * @return {@code true}, jeśli kamienie tworzą jeden łańcuch.
+     */
+    boolean sameChain(int a, int b);
+
+    /**
+     * Zwraca sumę XOR kluczy Zobrista wszystkich kamieni łańcucha.
+     * Pozwala przewidzieć skrót pozycji po zbiciu łańcucha bez modyfikowania planszy.
+     *
+     * @param i Indeks dowolnego kamienia łańcucha.
+     * @return Skrót kamieni łańcucha.
+     */
+    long chainHash(int i);
+
+    /**
+     * Sprawdza, czy łańcuch zawierający podany kamień ma choć jeden oddech.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return {@code true}, jeśli łańcuch ma oddech.
+     */
+    boolean hasLiberties(int i);
+
+    /**
+     * Sprawdza, czy łańcuch zawierający podany kamień ma dokładnie jeden oddech.
+     *
+     * @param i Indeks pola z kamieniem.
+     * @return {@code true}, jeśli łańcuch jest w atari.
+     */
+    boolean inAtari(int i);
+
+    /**
+     * Zwraca skrót Zobrista bieżącej pozycji.
+     *
+     * @return 64-bitowy skrót pozycji.
+     */
+    long getHash();
+
+    /**
+     * Zwraca klucz Zobrista kamienia danego koloru na danym polu.
+     *
+     * @param i Indeks pola.
+     * @param c Kod koloru.
+     * @return Klucz Zobrista.
+     */
+    long zobristKey(int i, byte c);
+
+    /**
+     * Tworzy niezależną kopię planszy tego samego typu.
+     *
+     * @return Kopia planszy.
+     */
+    GoBoard copy();
+}
@@ -0,0 +1,271 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Czyta drabiny (shicho): rozstrzyga, czy łańcuch w atari może uciec, oraz czy łańcuch
+ * z dwoma oddechami da się złapać w drabinie.
+ *
+ * Czytanie wykonuje i cofa ruchy bezpośrednio na planszy ({@link RulesEngine#play(GoBoard, int, byte, MoveRecord)}
+ * i {@link RulesEngine#undo(GoBoard, MoveRecord)}), korzystając z zapisów ruchów, buforów
+ * kandydatów i znaczników pól przydzielonych raz na obiekt, więc nie tworzy obiektów
+ * (poza pierwszym użyciem na większej planszy). Po zakończeniu plansza jest w stanie
+ * wyjściowym. Uciekający rozważa przedłużenie na ostatni oddech i zbicie sąsiedniego
+ * łańcucha w atari; atakujący – oba oddechy łańcucha. Czytanie pomija regułę ko i superko.
+ *
+ * Głębokość czytania (liczba ruchów) i liczba odwiedzonych pozycji są ograniczone
+ * (ucieczki przez zbicia rozgałęziają czytanie, a pominięcie reguły ko pozwala na cykle);
+ * drabina przekraczająca limit jest uznawana za nierozstrzygniętą, czyli łańcuch – za bezpieczny.
+ *
+ * Obiekt nie jest bezpieczny dla wątków; każdy wątek (bot, wątek przeszukiwania)
+ * powinien mieć własny.
+ */
+public class LadderReader {
+
+    /** Domyślny limit głębokości czytania (wystarcza na drabinę przez całą planszę 19x19). */
+    public static final int DEFAULT_MAX_DEPTH = 80;
+
+    /** Domyślny limit liczby pozycji odwiedzonych w jednym zapytaniu. */
+    public static final int DEFAULT_MAX_NODES = 1000;
+
+    /** Wynik {@link #escape(Board, int)} i {@link #attack(Board, int)}, gdy nie ma takiego ruchu. */
+    public static final int NO_MOVE = -1;
+
+    /** Największa liczba ruchów ucieczki rozważanych w jednej pozycji. */
+    private static final int MAX_CANDIDATES = 8;
+
+    /** Silnik reguł wykonujący i cofający ruchy. */
+    private final RulesEngine rules = new RulesEngine();
+
+    /** Limit głębokości czytania. */
+    private final int maxDepth;
+
+    /** Limit liczby pozycji odwiedzonych w jednym zapytaniu. */
+    private final int maxNodes;
+
+    /** Zapisy ruchów, po jednym na poziom czytania. */
+    private final MoveRecord[] records;
+
+    /** Ruchy ucieczki rozważane na kolejnych poziomach ({@link #MAX_CANDIDATES} na poziom). */
+    private final int[] candidates;
+
+    /** Oddechy łańcucha na kolejnych poziomach (dwa na poziom). */
+    private final int[] liberties;
+
+    /** Znaczniki pól przy liczeniu oddechów (pole policzone, gdy równe {@link #stamp}). */
+    private int[] marks = new int[0];
+
+    /** Bieżący znacznik. */
+    private int stamp;
+
+    /** Liczba odwiedzonych pozycji w ostatnim zapytaniu. */
+    private int nodes;
+
+    /** Tworzy czytnik z domyślnymi limitami. */
+    public LadderReader() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Tworzy czytnik.
+     *
+     * @param maxDepth Limit głębokości czytania (liczba ruchów).
+     * @param maxNodes Limit liczby pozycji odwiedzonych w jednym zapytaniu.
+     * @throws IllegalArgumentException jeśli limity nie są dodatnie.
+     */
+    public LadderReader(int maxDepth, int maxNodes) {
+        if (maxDepth < 1 || maxNodes < 1)
+            throw new IllegalArgumentException("Invalid ladder limits: depth " + maxDepth + ", nodes " + maxNodes);
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.records = new MoveRecord[maxDepth + 1];
+        for (int d = 0; d <= maxDepth; d++) records[d] = new MoveRecord();
+        this.candidates = new int[(maxDepth + 1) * MAX_CANDIDATES];
+        this.liberties = new int[(maxDepth + 1) * 2];
+    }
+
+    /**
+     * Sprawdza, czy łańcuch w atari zostanie złapany, gdy jego właściciel jest na ruchu.
+     *
+     * @param board Plansza (po zakończeniu w niezmienionym stanie).
+     * @param stone Indeks dowolnego kamienia łańcucha.
+     * @return {@code true}, jeśli łańcuch jest w atari i żadna ucieczka nie działa w limicie głębokości.
+     */
+    public boolean isCaptured(Board board, int stone) {
+        nodes = 0;
+        return board.inAtari(stone) && escape(board, stone, 0) == NO_MOVE;
+    }
+
+    /**
+     * Szuka ruchu, którym łańcuch w atari ucieka (jego właściciel jest na ruchu).
+     *
+     * @param board Plansza (po zakończeniu w niezmienionym stanie).
+     * @param stone Indeks dowolnego kamienia łańcucha.
+     * @return Indeks pola ruchu ucieczki lub {@link #NO_MOVE}, jeśli łańcuch nie jest
+     * w atari albo nie może uciec.
+     */
+    public int escape(Board board, int stone) {
+        nodes = 0;
+        return board.inAtari(stone) ? escape(board, stone, 0) : NO_MOVE;
+    }
+
+    /**
+     * Szuka ruchu, którym przeciwnik właściciela łańcucha (na ruchu) łapie go w drabinie:
+     * łańcuch ma dwa oddechy, a po zajęciu jednego z nich nie może uciec.
+     *
+     * @param board Plansza (po zakończeniu w niezmienionym stanie).
+     * @param stone Indeks dowolnego kamienia łańcucha.
+     * @return Indeks pola ruchu atakującego lub {@link #NO_MOVE}.
+     */
+    public int attack(Board board, int stone) {
+        nodes = 0;
+        return countLiberties(board, stone, 0) == 2 ? attack(board, stone, 0) : NO_MOVE;
+    }
+
+    /**
+     * Zwraca liczbę pozycji odwiedzonych przez ostatnie zapytanie (miara kosztu czytania).
+     *
+     * @return Liczba pozycji.
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Szuka ucieczki łańcucha w atari; właściciel łańcucha jest na ruchu.
+     *
+     * @param board Plansza.
+     * @param stone Kamień łańcucha.
+     * @param depth Poziom czytania.
+     * @return Ruch ucieczki lub {@link #NO_MOVE}.
+     */
+    private int escape(Board board, int stone, int depth) {
+        // Po przekroczeniu limitu łańcuch uznajemy za bezpieczny (ucieczka na ostatni oddech)
+        if (++nodes > maxNodes || depth >= maxDepth) return board.atariLiberty(stone);
+        byte prey = board.at(stone);
+        int n = escapeCandidates(board, stone, depth);
+        int base = depth * MAX_CANDIDATES;
+        MoveRecord record = records[depth];
+        for (int k = 0; k < n; k++) {
+            int move = candidates[base + k];
+            if (!rules.play(board, move, prey, record)) continue;
+            boolean caught = caught(board, stone, depth + 1);
+            rules.undo(board, record);
+            if (!caught) return move;
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Sprawdza, czy łańcuch zostanie złapany po ruchu jego właściciela; atakujący jest na ruchu.
+     *
+     * @param board Plansza.
+     * @param stone Kamień łańcucha.
+     * @param depth Poziom czytania.
+     * @return {@code true}, jeśli łańcuch nie ucieknie.
+     */
+    private boolean caught(Board board, int stone, int depth) {
+        int libs = countLiberties(board, stone, depth);
+        if (libs <= 1) return true;
+        if (libs >= 3 || depth >= maxDepth) return false;
+        return attack(board, stone, depth) != NO_MOVE;
+    }
+
+    /**
+     * Szuka ataku na łańcuch z dwoma oddechami (zapisanymi przez {@link #countLiberties}).
+     *
+     * @param board Plansza.
+     * @param stone Kamień łańcucha.
+     * @param depth Poziom czytania.
+     * @return Ruch atakujący lub {@link #NO_MOVE}.
+     */
+    private int attack(Board board, int stone, int depth) {
+        if (++nodes > maxNodes) return NO_MOVE;
+        byte hunter = board.at(stone) == Board.BLACK ? Board.WHITE : Board.BLACK;
+        MoveRecord record = records[depth];
+        for (int k = 0; k < 2; k++) {
+            int move = liberties[2 * depth + k];
+            if (!rules.play(board, move, hunter, record)) continue;
+            boolean captured = board.inAtari(stone) && escape(board, stone, depth + 1) == NO_MOVE;
+            rules.undo(board, record);
+            if (captured) return move;
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Wyznacza ruchy ucieczki łańcucha w atari: zbicia sąsiednich łańcuchów
+     * przeciwnika będących w atari oraz przedłużenie na ostatni oddech.
+     *
+     * @param board Plansza.
+     * @param stone Kamień łańcucha.
+     * @param depth Poziom czytania (wyznacza miejsce w buforze kandydatów).
+     * @return Liczba kandydatów.
+     */
+    private int escapeCandidates(Board board, int stone, int depth) {
+        int base = depth * MAX_CANDIDATES;
+        int n = 0;
+        byte hunter = board.at(stone) == Board.BLACK ? Board.WHITE : Board.BLACK;
+        int stride = board.getStride();
+        int s = stone;
+        do {
+            for (int d = 0; d < 4 && n < MAX_CANDIDATES - 1; d++) {
+                int nb = s + (d == 0 ? 1 : d == 1 ? -1 : d == 2 ? stride : -stride);
+                if (board.at(nb) != hunter || !board.inAtari(nb)) continue;
+                int capture = board.atariLiberty(nb);
+                if (!contains(base, n, capture)) candidates[base + n++] = capture;
+            }
+            s = board.nextInChain(s);
+        } while (s != stone);
+
+        int extend = board.atariLiberty(stone);
+        if (!contains(base, n, extend)) candidates[base + n++] = extend;
+        return n;
+    }
+
+    /**
+     * Sprawdza, czy ruch jest już wśród kandydatów.
+     *
+     * @param base Początek kandydatów poziomu w buforze.
+     * @param n    Liczba kandydatów.
+     * @param move Ruch.
+     * @return {@code true}, jeśli ruch już jest na liście.
+     */
+    private boolean contains(int base, int n, int move) {
+        for (int k = 0; k < n; k++) {
+            if (candidates[base + k] == move) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Liczy rzeczywiste oddechy łańcucha (najwyżej do trzech), zapisując dwa pierwsze
+     * w buforze oddechów poziomu.
+     *
+     * @param board Plansza.
+     * @param stone Kamień łańcucha.
+     * @param depth Poziom czytania.
+     * @return Liczba oddechów, ale nie więcej niż 3.
+     */
+    private int countLiberties(Board board, int stone, int depth) {
+        int stride = board.getStride();
+        if (marks.length < stride * stride) marks = new int[stride * stride];
+        if (++stamp == 0) {
+            Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+        int libs = 0;
+        int s = stone;
+        do {
+            for (int d = 0; d < 4; d++) {
+                int nb = s + (d == 0 ? 1 : d == 1 ? -1 : d == 2 ? stride : -stride);
+                if (board.at(nb) != Board.EMPTY || marks[nb] == stamp) continue;
+                marks[nb] = stamp;
+                if (libs < 2) liberties[2 * depth + libs] = nb;
+                if (++libs == 3) return libs;
+            }
+            s = board.nextInChain(s);
+        } while (s != stone);
+        return libs;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Poczekalnia serwera: kojarzy w pary kolejno łączących się graczy i tworzy dla nich
+ * sesje gry bez udziału operatora. Gracz sieciowy to jego połączenie ({@link ClientConnection}),
+ * więc poczekalnia obsługuje każdy transport: gniazda blokujące ({@link ClientHandler})
+ * i połączenia nieblokujące ({@link NioConnection}).
+ *
+ * Gracz, który się połączył, czeka na przeciwnika w kolejce. Następny połączony gracz
+ * gra z nim od razu (pierwszy gra czarnymi). Jeśli w ciągu {@code waitMillis} nikt się
+ * nie połączy, gracz dostaje bota. Gracze, którzy rozłączyli się w kolejce, są z niej
+ * usuwani przed kojarzeniem. Sesje nie są nigdzie rejestrowane – każda żyje
+ * tak długo, jak wątki jej graczy – więc serwer może obsługiwać dowolnie wiele
+ * równoczesnych partii, a obliczenia wszystkich botów wykonuje wspólna pula {@link BotExecutor}.
+ *
+ * Sesja jest tworzona i uruchamiana w osobnym wątku wirtualnym, ponieważ wysłanie pierwszego
+ * stanu gniazdem blokującym może czekać na wolnego klienta, a nie może wstrzymywać
+ * przyjmowania kolejnych połączeń ani przydzielania botów.
+ */
+public class Lobby {
+
+    /** Domyślny czas oczekiwania na przeciwnika, po którym gracz dostaje bota. */
+    public static final long DEFAULT_WAIT_MILLIS = 10_000;
+
+    /** Gracze czekający na przeciwnika, w kolejności połączenia. */
+    private final ArrayDeque<Waiting> waiting = new ArrayDeque<>();
+
+    /** Fabryka botów dla graczy bez przeciwnika. */
+    private final PlayerFactory botFactory;
+
+    /** Czas oczekiwania na przeciwnika w milisekundach. */
+    private final long waitMillis;
+
+    /** Liczba rozpoczętych partii. */
+    private final AtomicLong gamesStarted = new AtomicLong();
+
+    /** Czy poczekalnia została zamknięta. */
+    private boolean closed;
+
+    /**
+     * Tworzy poczekalnię i uruchamia wątek przydzielający boty.
+     *
+     * @param botFactory Fabryka botów dla graczy, którzy nie znaleźli przeciwnika.
+     * @param waitMillis Czas oczekiwania na przeciwnika w milisekundach.
+     * @throws IllegalArgumentException jeśli czas oczekiwania jest ujemny.
+     */
+    public Lobby(PlayerFactory botFactory, long waitMillis) {
+        if (waitMillis < 0) throw new IllegalArgumentException("Invalid lobby wait: " + waitMillis + " ms");
+        this.botFactory = botFactory;
+        this.waitMillis = waitMillis;
+        Thread matcher = new Thread(this::assignBots, "lobby-matcher");
+        matcher.setDaemon(true);
+        matcher.start();
+    }
+
+    /**
+     * Dodaje gracza połączonego gniazdem blokującym, obsługiwanego przez {@link ClientHandler}.
+     *
+     * @param socket Gniazdo połączenia z graczem.
+     * @throws IOException           jeśli nie można otworzyć strumieni gniazda.
+     * @throws IllegalStateException jeśli poczekalnia została zamknięta.
+     */
+    public void join(Socket socket) throws IOException {
+        ClientHandler handler = new ClientHandler(socket);
+        join(handler);
+        handler.listen();
+    }
+
+    /**
+     * Dodaje połączonego gracza: kojarzy go z czekającym graczem albo ustawia w kolejce.
+     *
+     * @param connection Połączenie gracza, zamykane, jeśli gra nie dojdzie do skutku.
+     * @throws IllegalStateException jeśli poczekalnia została zamknięta.
+     */
+    public void join(ClientConnection connection) {
+        Waiting opponent;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("Lobby is closed");
+            opponent = pollConnected();
+            if (opponent == null) {
+                waiting.addLast(new Waiting(connection, System.nanoTime() + waitMillis * 1_000_000L));
+                notifyAll();
+                return;
+            }
+        }
+        startSession(opponent, new Waiting(connection, 0));
+    }
+
+    /**
+     * Zwraca liczbę graczy czekających na przeciwnika (bez rozłączonych).
+     *
+     * @return Liczba czekających.
+     */
+    public synchronized int getWaiting() {
+        waiting.removeIf(w -> w.connection.isClosed());
+        return waiting.size();
+    }
+
+    /**
+     * Zwraca liczbę partii rozpoczętych przez poczekalnię.
+     *
+     * @return Liczba partii.
+     */
+    public long getGamesStarted() {
+        return gamesStarted.get();
+    }
+
+    /**
+     * Zamyka poczekalnię: nowi gracze są odrzucani, a czekający rozłączani.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (Waiting w : waiting) closeQuietly(w.connection);
+        waiting.clear();
+        notifyAll();
+    }
+
+    /** Pętla wątku przydzielającego boty graczom, którzy za długo czekają na przeciwnika. */
+    private void assignBots() {
+        while (true) {
+            Waiting alone;
+            synchronized (this) {
+                try {
+                    while (!closed && (waiting.isEmpty() || waiting.peekFirst().deadline > System.nanoTime())) {
+                        if (waiting.isEmpty()) wait();
+                        else wait(Math.max(1, (waiting.peekFirst().deadline - System.nanoTime()) / 1_000_000L));
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) return;
+                alone = waiting.pollFirst();
+            }
+            if (!alone.connection.isClosed()) startSession(alone, null);
+        }
+    }
+
+    /**
+     * Zdejmuje z kolejki pierwszego gracza, który jest nadal połączony; rozłączonych pomija.
+     *
+     * @return Czekający gracz lub {@code null}, jeśli nikt nie czeka.
+     */
+    private Waiting pollConnected() {
+        Waiting w;
+        while ((w = waiting.pollFirst()) != null && w.connection.isClosed()) {
+            // rozłączony gracz jest pomijany
+        }
+        return w;
+    }
+
+    /**
+     * Tworzy i uruchamia sesję w osobnym wątku wirtualnym.
+     *
+     * @param black Gracz czarny.
+     * @param white Gracz biały lub {@code null}, aby białymi grał bot.
+     */
+    private void startSession(Waiting black, Waiting white) {
+        Thread.ofVirtual().name("session-start").start(() -> {
+            try {
+                GameSession session = new GameSession(black.connection::bind,
+                        white == null ? botFactory : white.connection::bind, GameSession.DEFAULT_SIZE);
+                gamesStarted.incrementAndGet();
+                session.start();
+            } catch (Exception e) {
+                System.err.println("Could not start session: " + e.getMessage());
+                closeQuietly(black.connection);
+                if (white != null) closeQuietly(white.connection);
+            }
+        });
+    }
+
+    /**
+     * Zamyka połączenie, ignorując błędy.
+     *
+     * @param connection Połączenie.
+     */
+    private static void closeQuietly(Closeable connection) {
+        try {
+            connection.close();
+        } catch (IOException ignored) {
+            // gniazdo i tak jest porzucane
+        }
+    }
+
+    /** Gracz w kolejce: połączenie i termin przydzielenia bota (wartość {@link System#nanoTime()}). */
+    private static final class Waiting {
+
+        final ClientConnection connection;
+        final long deadline;
+
+        Waiting(ClientConnection connection, long deadline) {
+            this.connection = connection;
+            this.deadline = deadline;
+        }
+    }
+}
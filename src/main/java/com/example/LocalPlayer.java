@@ -0,0 +1,33 @@
+package com.example;
+
+import java.util.function.Supplier;
+
+/**
+ * Gracz działający w tym samym procesie co serwer (np. bot).
+ *
+ * Zamiast sieciowego {@link GameState} sesja przekazuje takiemu graczowi
+ * niezmienny {@link GameView} z migawką planszy, numerem ruchu, jeńcami
+ * i informacjami o ko, więc gracz nie musi odtwarzać planszy z upakowanych pól
+ * ani odczytywać bieżącego stanu sesji.
+ */
+public interface LocalPlayer extends Player {
+
+    /**
+     * Przekazuje graczowi stan gry.
+     *
+     * @param view Niezmienny stan gry.
+     */
+    void sendView(GameView view);
+
+    /**
+     * Pobiera {@link GameView} i przekazuje go do {@link #sendView(GameView)};
+     * {@link GameState} nie jest tworzony.
+     *
+     * @param view  Dostawca stanu dla gracza lokalnego.
+     * @param state Dostawca stanu dla gracza sieciowego (nieużywany).
+     */
+    @Override
+    default void deliver(Supplier<GameView> view, Supplier<GameState> state) {
+        sendView(view.get());
+    }
+}
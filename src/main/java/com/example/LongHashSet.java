@@ -0,0 +1,121 @@
+package com.example;
+
+/**
+ * Zbiór wartości typu {@code long} z adresowaniem otwartym.
+ * Przechowuje wartości w tablicy prymitywów, bez opakowywania w obiekty {@link Long},
+ * dzięki czemu dodanie i sprawdzenie skrótu pozycji nie alokuje pamięci.
+ */
+public class LongHashSet {
+
+    /** Tablica kubełków; wartość 0 oznacza pusty kubełek. */
+    private long[] table;
+
+    /** Czy zbiór zawiera wartość 0 (przechowywaną osobno). */
+    private boolean hasZero;
+
+    /** Liczba elementów w zbiorze. */
+    private int size;
+
+    /** Tworzy pusty zbiór o domyślnej pojemności. */
+    public LongHashSet() {
+        this(64);
+    }
+
+    /**
+     * Tworzy pusty zbiór o podanej początkowej pojemności.
+     *
+     * @param capacity Oczekiwana liczba elementów.
+     */
+    public LongHashSet(int capacity) {
+        int n = 16;
+        while (n < capacity * 2) n <<= 1;
+        table = new long[n];
+    }
+
+    /**
+     * Dodaje wartość do zbioru.
+     *
+     * @param v Wartość do dodania.
+     * @return {@code true}, jeśli wartości nie było wcześniej w zbiorze.
+     */
+    public boolean add(long v) {
+        if (v == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int i = slot(v) & mask;
+        while (table[i] != 0) {
+            if (table[i] == v) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = v;
+        if (++size * 2 > table.length) grow();
+        return true;
+    }
+
+    /**
+     * Sprawdza, czy wartość należy do zbioru.
+     *
+     * @param v Szukana wartość.
+     * @return {@code true}, jeśli wartość jest w zbiorze.
+     */
+    public boolean contains(long v) {
+        if (v == 0) return hasZero;
+        int mask = table.length - 1;
+        int i = slot(v) & mask;
+        while (table[i] != 0) {
+            if (table[i] == v) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Zwraca liczbę elementów w zbiorze.
+     *
+     * @return Liczba elementów.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tworzy niezależną kopię zbioru.
+     *
+     * @return Nowy zbiór z tymi samymi elementami.
+     */
+    public LongHashSet copy() {
+        LongHashSet c = new LongHashSet(0);
+        c.table = table.clone();
+        c.hasZero = hasZero;
+        c.size = size;
+        return c;
+    }
+
+    /**
+     * Wyznacza początkowy kubełek dla wartości.
+     *
+     * @param v Wartość.
+     * @return Wymieszane bity wartości.
+     */
+    private static int slot(long v) {
+        long h = v * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** Podwaja rozmiar tablicy i rozmieszcza elementy ponownie. */
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for (long v : old) {
+            if (v == 0) continue;
+            int i = slot(v) & mask;
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = v;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example;
+
+/**
+ * Pomiar skalowania równoległego przeszukiwania Monte Carlo.
+ *
+ * Dla kolejnych liczb wątków (1, 2, 4, ... aż do liczby dostępnych rdzeni) uruchamia
+ * przeszukiwanie pustej planszy z limitem czasu i wypisuje liczbę rozgrywek na sekundę
+ * oraz przyspieszenie względem jednego wątku. Przed pomiarami wykonywana jest rozgrzewka JIT.
+ *
+ * Użycie: {@code java com.example.MctsBenchmark [rozmiar] [ms_na_pomiar] [maks_wątków]}.
+ */
+public class MctsBenchmark {
+
+    /**
+     * Punkt wejścia pomiaru.
+     *
+     * @param args Opcjonalnie: rozmiar planszy (domyślnie 9), czas pomiaru w milisekundach
+     *             (domyślnie 2000) i największa liczba wątków (domyślnie liczba rdzeni).
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        int maxThreads = args.length > 2
+                ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+
+        Board board = new Board(size);
+        new MctsSearch(GameSession.KOMI, maxThreads).search(board, Stone.BLACK, null, 0, millis);
+
+        System.out.printf("Board %dx%d, %d ms per run, %d cores%n",
+                size, size, millis, Runtime.getRuntime().availableProcessors());
+        System.out.println("threads  playouts/s  speedup");
+
+        double base = 0;
+        for (int threads = 1; threads <= maxThreads; threads = next(threads, maxThreads)) {
+            MctsSearch search = new MctsSearch(GameSession.KOMI, threads);
+            search.search(board, Stone.BLACK, null, 0, millis);
+            double rate = search.getPlayoutsPerSecond();
+            if (threads == 1) base = rate;
+            System.out.printf("%7d  %10.0f  %6.2fx%n", threads, rate, rate / base);
+        }
+    }
+
+    /**
+     * Wyznacza kolejną liczbę wątków do pomiaru (podwajanie, na końcu maksimum).
+     *
+     * @param threads    Bieżąca liczba wątków.
+     * @param maxThreads Największa liczba wątków.
+     * @return Kolejna liczba wątków (większa od {@code maxThreads} kończy pomiary).
+     */
+    private static int next(int threads, int maxThreads) {
+        if (threads == maxThreads) return maxThreads + 1;
+        return Math.min(threads * 2, maxThreads);
+    }
+}
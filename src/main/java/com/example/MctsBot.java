@@ -0,0 +1,230 @@
+package com.example;
+
+/**
+ * Gracz komputerowy wybierający ruchy przeszukiwaniem drzewa Monte Carlo (UCT).
+ *
+ * Bot podłącza się do {@link GameSession} tak samo jak {@link Bot}. Siłę gry i zużycie
+ * procesora określa budżet: limit liczby rozgrywek i/lub czas przydzielany przez
+ * {@link TimeManager} (limit na ruch i zapas na partię). W niestabilnej pozycji bot myśli
+ * dłużej, a gdy możliwy jest tylko jeden ruch, odpowiada natychmiast.
+ * Przeszukiwanie domyślnie używa tylu wątków, ile jest rdzeni procesora; pomocnicze wątki
+ * przeszukiwania i myślenie w tle są zadaniami tej samej puli, więc nie zwiększają liczby wątków.
+ * Statystyki pozycji są współdzielone między partiami przez {@link TranspositionTable#shared()}.
+ * Obliczenia są wykonywane we wspólnej puli {@link BotExecutor}, której limit czasu
+ * na ruch ogranicza przydział z zarządcy czasu (także namysł w tle).
+ * Po każdym ruchu bot wypisuje liczbę rozgrywek i ich szybkość (rozgrywki na sekundę).
+ * W fazie punktacji bot od razu potwierdza zakończenie usuwania kamieni.
+ *
+ * Gdy włączone jest myślenie w czasie tury przeciwnika, po swoim ruchu bot dalej
+ * rozbudowuje drzewo w tle, a po nadejściu ruchu przeciwnika zaczyna przeszukiwanie
+ * od pasującego poddrzewa zamiast od pustego drzewa.
+ */
+public class MctsBot implements LocalPlayer {
+
+    /** Domyślny limit czasu na ruch w milisekundach. */
+    public static final long DEFAULT_MILLIS = 1000;
+
+    /** Limit liczby rozgrywek w tle (ogranicza pamięć zajmowaną przez drzewo). */
+    public static final int PONDER_PLAYOUTS = 100_000;
+
+    private final Stone stone;
+    private final GameSession session;
+    private final MctsSearch search;
+
+    /** Wspólna pula wątków, w której bot wykonuje obliczenia. */
+    private final BotExecutor executor = BotExecutor.shared();
+
+    /** Księga otwarć, o którą bot pyta przed przeszukiwaniem. */
+    private final OpeningBook book = OpeningBook.shared();
+
+    private final RulesEngine rules = new RulesEngine();
+
+    /** Limit liczby rozgrywek na ruch (0 = bez limitu). */
+    private final int maxPlayouts;
+
+    /** Zarządca czasu namysłu. */
+    private final TimeManager clock;
+
+    /** Czy bot myśli w czasie tury przeciwnika. */
+    private volatile boolean pondering = true;
+
+    /** Czy bot wypisuje statystyki przeszukiwania po każdym ruchu. */
+    private volatile boolean verbose = true;
+
+    /**
+     * Tworzy bota z domyślnym budżetem czasu na ruch.
+     *
+     * @param stone   Kolor kamieni bota.
+     * @param session Sesja gry, do której bot należy.
+     */
+    public MctsBot(Stone stone, GameSession session) {
+        this(stone, session, 0, DEFAULT_MILLIS);
+    }
+
+    /**
+     * Tworzy bota z podanym budżetem, przeszukującego na wszystkich dostępnych rdzeniach.
+     *
+     * @param stone       Kolor kamieni bota.
+     * @param session     Sesja gry, do której bot należy.
+     * @param maxPlayouts Limit liczby rozgrywek na ruch (0 = bez limitu).
+     * @param maxMillis   Limit czasu na ruch w milisekundach (0 = bez limitu).
+     */
+    public MctsBot(Stone stone, GameSession session, int maxPlayouts, long maxMillis) {
+        this(stone, session, maxPlayouts, maxMillis, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Tworzy bota z podanym budżetem.
+     *
+     * @param stone       Kolor kamieni bota.
+     * @param session     Sesja gry, do której bot należy.
+     * @param maxPlayouts Limit liczby rozgrywek na ruch (0 = bez limitu).
+     * @param maxMillis   Limit czasu na ruch w milisekundach (0 = bez limitu).
+     * @param threads     Liczba wątków przeszukiwania.
+     */
+    public MctsBot(Stone stone, GameSession session, int maxPlayouts, long maxMillis, int threads) {
+        this(stone, session, maxPlayouts, new TimeManager(maxMillis), threads);
+    }
+
+    /**
+     * Tworzy bota, którego czas namysłu przydziela podany zarządca czasu.
+     *
+     * @param stone       Kolor kamieni bota.
+     * @param session     Sesja gry, do której bot należy.
+     * @param maxPlayouts Limit liczby rozgrywek na ruch (0 = bez limitu).
+     * @param clock       Zarządca czasu namysłu.
+     * @param threads     Liczba wątków przeszukiwania.
+     */
+    public MctsBot(Stone stone, GameSession session, int maxPlayouts, TimeManager clock, int threads) {
+        this.stone = stone;
+        this.search = new MctsSearch(GameSession.KOMI, threads);
+        this.search.setTranspositionTable(TranspositionTable.shared());
+        this.search.setExecutor(executor, session);
+        this.session = session;
+        this.maxPlayouts = maxPlayouts;
+        this.clock = clock;
+    }
+
+    @Override
+    public Stone getStone() {
+        return stone;
+    }
+
+    @Override
+    public void start() {
+        if (verbose) System.out.println("MCTS bot " + stone + " ready.");
+    }
+
+    /**
+     * Odbiera aktualny stan gry od serwera.
+     * Jeśli jest tura bota, zleca przeszukiwanie wspólnej puli {@link BotExecutor}.
+     *
+     * @param view Niezmienny stan gry (migawka planszy i historia pozycji).
+     */
+    @Override
+    public void sendView(GameView view) {
+        if (view.gameOver) {
+            search.stopPondering();
+            return;
+        }
+        if (!view.yourTurn) return;
+
+        if (view.scoringPhase) {
+            search.stopPondering();
+            executor.submit(session, () -> session.handleMove(new Move(-1, -1, false, false, true), this));
+            return;
+        }
+        executor.submit(session, () -> thinkAndMove(view));
+    }
+
+    /**
+     * Przeszukuje pozycję ze stanu gry i wysyła najlepszy znaleziony ruch do sesji.
+     * Pozycję znaną z księgi otwarć bot rozgrywa od razu, bez przeszukiwania.
+     *
+     * @param view Stan gry, w którym bot wykonuje ruch (jest też historią do reguły superko).
+     */
+    private synchronized void thinkAndMove(GameView view) {
+        Board board = view.board.toBoard();
+        Adjacency adj = Adjacency.forSize(board.getSize());
+
+        int bookMove = book.lookup(board, stone);
+        if (bookMove != OpeningBook.NO_MOVE && rules.isLegal(board, bookMove, Board.code(stone), view)) {
+            if (verbose) System.out.println("MCTS bot " + stone + ": book move");
+            session.handleMove(new Move(adj.xOf[bookMove], adj.yOf[bookMove], false, false, false), this);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long budget = executor.capMillis(clock.allocate(emptyPoints(board)));
+        int best = search.search(board, stone, view, maxPlayouts, budget);
+        int playouts = search.getLastPlayouts();
+        int reused = search.getLastReused();
+        boolean budgetLeft = maxPlayouts == 0 || playouts < maxPlayouts;
+        if (!search.wasLastForced() && !search.isLastStable() && budgetLeft) {
+            long extra = Math.min(clock.extension(budget), executor.getMoveCapMillis() - budget);
+            if (extra > 0) {
+                int left = maxPlayouts == 0 ? 0 : maxPlayouts - playouts;
+                best = search.search(board, stone, view, left, extra);
+                playouts += search.getLastPlayouts();
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000L;
+        clock.spent(millis);
+
+        if (verbose) {
+            System.out.printf("MCTS bot %s: %d playouts in %d ms on %d threads, %d reused%n",
+                    stone, playouts, millis, search.getThreads(), reused);
+        }
+
+        Move move = best == MctsNode.PASS
+                ? new Move(-1, -1, true, false, false)
+                : new Move(adj.xOf[best], adj.yOf[best], false, false, false);
+        if (pondering) {
+            if (best != MctsNode.PASS) rules.play(board, best, Board.code(stone), new MoveRecord());
+            search.ponder(board, stone.opposite(), PONDER_PLAYOUTS, executor.getMoveCapMillis());
+        }
+        session.handleMove(move, this);
+    }
+
+    /**
+     * Włącza lub wyłącza wypisywanie statystyk przeszukiwania (np. przy grach testowych).
+     *
+     * @param verbose {@code true}, aby wypisywać statystyki po każdym ruchu.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Zlicza wolne pola planszy.
+     *
+     * @param board Plansza.
+     * @return Liczba pustych pól.
+     */
+    private static int emptyPoints(Board board) {
+        int n = 0;
+        for (int i : Adjacency.forSize(board.getSize()).points) {
+            if (board.at(i) == Board.EMPTY) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Włącza lub wyłącza myślenie w czasie tury przeciwnika.
+     *
+     * @param pondering {@code true}, aby bot przeszukiwał w tle po swoim ruchu.
+     */
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+        if (!pondering) search.stopPondering();
+    }
+
+    /**
+     * Zwraca szybkość ostatniego przeszukiwania.
+     *
+     * @return Liczba rozgrywek na sekundę.
+     */
+    public double getPlayoutsPerSecond() {
+        return search.getPlayoutsPerSecond();
+    }
+}
@@ -0,0 +1,231 @@
+package com.example;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.IntPredicate;
+
+/**
+ * Węzeł drzewa przeszukiwania Monte Carlo (MCTS).
+ * Węzeł odpowiada pozycji po ruchu {@link #move} wykonanym przez kolor {@link #color};
+ * statystyki wygranych są liczone z perspektywy tego koloru.
+ *
+ * Drzewo jest współdzielone przez wątki przeszukiwania: statystyki są aktualizowane
+ * atomowo (CAS) bez blokad, a "wirtualna porażka" dodawana na czas przejścia przez węzeł
+ * kieruje pozostałe wątki do innych gałęzi. Rozwijanie węzła (lista nierozwiniętych
+ * ruchów i dodawanie potomków) odbywa się pod blokadą węzła; potomkowie są publikowani
+ * przez zapis ulotnego licznika {@link #childCount}.
+ */
+public class MctsNode {
+
+    /** Oznaczenie ruchu "pas". */
+    public static final int PASS = -1;
+
+    private static final AtomicIntegerFieldUpdater<MctsNode> VISITS =
+            AtomicIntegerFieldUpdater.newUpdater(MctsNode.class, "visits");
+    private static final AtomicIntegerFieldUpdater<MctsNode> WINS =
+            AtomicIntegerFieldUpdater.newUpdater(MctsNode.class, "wins");
+    private static final AtomicIntegerFieldUpdater<MctsNode> VIRTUAL_LOSS =
+            AtomicIntegerFieldUpdater.newUpdater(MctsNode.class, "virtualLoss");
+
+    /** Ruch prowadzący do węzła (indeks pola lub {@link #PASS}). */
+    final int move;
+
+    /** Kod koloru gracza, który wykonał ruch prowadzący do węzła. */
+    final byte color;
+
+    /** Węzeł nadrzędny ({@code null} dla korzenia, także po awansowaniu poddrzewa na korzeń). */
+    MctsNode parent;
+
+    /** Rozwinięte węzły potomne (tablica alokowana raz, przy rozwinięciu węzła). */
+    MctsNode[] children;
+
+    /** Liczba opublikowanych węzłów potomnych. */
+    volatile int childCount;
+
+    /** Ruchy jeszcze nierozwinięte ({@code null}, dopóki węzeł nie został odwiedzony). */
+    int[] untried;
+
+    /** Liczba ruchów w {@link #untried}. */
+    int untriedCount;
+
+    /** Liczba zakończonych symulacji przechodzących przez węzeł. */
+    volatile int visits;
+
+    /** Liczba wygranych koloru {@link #color} w tych symulacjach. */
+    volatile int wins;
+
+    /** Liczba symulacji, które przechodzą przez węzeł i jeszcze się nie zakończyły. */
+    volatile int virtualLoss;
+
+    /**
+     * Tworzy węzeł drzewa.
+     *
+     * @param move   Ruch prowadzący do węzła.
+     * @param color  Kod koloru gracza wykonującego ruch.
+     * @param parent Węzeł nadrzędny.
+     */
+    MctsNode(int move, byte color, MctsNode parent) {
+        this.move = move;
+        this.color = color;
+        this.parent = parent;
+    }
+
+    /**
+     * Ustawia listę ruchów do rozwinięcia (wywoływane pod blokadą węzła).
+     *
+     * @param moves Ruchy do rozwinięcia.
+     * @param n     Liczba ruchów.
+     */
+    void setUntried(int[] moves, int n) {
+        untried = new int[n];
+        System.arraycopy(moves, 0, untried, 0, n);
+        untriedCount = n;
+        children = new MctsNode[n];
+    }
+
+    /**
+     * Dodaje węzeł potomny (wywoływane pod blokadą węzła).
+     *
+     * @param move  Ruch prowadzący do potomka.
+     * @param color Kod koloru gracza wykonującego ruch.
+     * @return Nowy węzeł potomny.
+     */
+    MctsNode addChild(int move, byte color) {
+        MctsNode child = new MctsNode(move, color, this);
+        int n = childCount;
+        children[n] = child;
+        childCount = n + 1;
+        return child;
+    }
+
+    /**
+     * Zwraca liczbę ruchów możliwych w pozycji węzła (rozwiniętych i nierozwiniętych).
+     *
+     * @return Liczba ruchów (0, jeśli węzeł nie został jeszcze rozwinięty).
+     */
+    synchronized int candidateCount() {
+        return untried == null ? 0 : childCount + untriedCount;
+    }
+
+    /**
+     * Zwraca dowolny z ruchów możliwych w pozycji rozwiniętego węzła.
+     *
+     * @return Indeks pola lub {@link #PASS}.
+     */
+    synchronized int anyCandidate() {
+        if (childCount > 0) return children[0].move;
+        return untriedCount > 0 ? untried[0] : PASS;
+    }
+
+    /** Odłącza węzeł od rodzica, czyniąc go korzeniem (pozostała część drzewa może zostać zwolniona). */
+    void detach() {
+        parent = null;
+    }
+
+    /**
+     * Dodaje do statystyk węzła wiedzę wstępną (np. z tablicy transpozycji).
+     *
+     * @param visits Liczba symulacji.
+     * @param wins   Liczba wygranych koloru {@link #color}.
+     */
+    void addPrior(int visits, int wins) {
+        WINS.addAndGet(this, wins);
+        VISITS.addAndGet(this, visits);
+    }
+
+    /** Oznacza rozpoczęcie symulacji przechodzącej przez węzeł (wirtualna porażka). */
+    void addVirtualLoss() {
+        VIRTUAL_LOSS.incrementAndGet(this);
+    }
+
+    /**
+     * Zapisuje wynik symulacji.
+     *
+     * @param winner  Kod koloru zwycięzcy.
+     * @param virtual Czy dla tej symulacji dodano wcześniej wirtualną porażkę.
+     */
+    void update(byte winner, boolean virtual) {
+        if (winner == color) WINS.incrementAndGet(this);
+        VISITS.incrementAndGet(this);
+        if (virtual) VIRTUAL_LOSS.decrementAndGet(this);
+    }
+
+    /**
+     * Wybiera potomka według wzoru UCT (średnia wygranych + premia eksploracji).
+     * Trwające symulacje innych wątków są liczone jako porażki.
+     *
+     * @param exploration Współczynnik eksploracji.
+     * @return Wybrany potomek lub {@code null}, jeśli węzeł nie ma potomków.
+     */
+    MctsNode selectChild(double exploration) {
+        int n = childCount;
+        MctsNode[] cs = children;
+        double logN = Math.log(visits + virtualLoss + 1);
+        MctsNode best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < n; k++) {
+            MctsNode c = cs[k];
+            int played = c.visits + c.virtualLoss;
+            double value = played == 0
+                    ? Double.POSITIVE_INFINITY
+                    : (double) c.wins / played + exploration * Math.sqrt(logN / played);
+            if (value > bestValue) {
+                bestValue = value;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca potomka z największą liczbą odwiedzin (najbardziej przebadany ruch).
+     *
+     * @return Najlepszy potomek lub {@code null}, jeśli węzeł nie ma potomków.
+     */
+    MctsNode mostVisitedChild() {
+        return mostVisitedChild(move -> true);
+    }
+
+    /**
+     * Zwraca potomka z największą liczbą odwiedzin spośród potomków z dozwolonym ruchem.
+     *
+     * @param allowed Warunek dopuszczający ruch.
+     * @return Najlepszy potomek lub {@code null}, jeśli żaden ruch nie jest dozwolony.
+     */
+    MctsNode mostVisitedChild(IntPredicate allowed) {
+        int n = childCount;
+        MctsNode best = null;
+        for (int k = 0; k < n; k++) {
+            MctsNode c = children[k];
+            if ((best == null || c.visits > best.visits) && allowed.test(c.move)) best = c;
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca ruch prowadzący do węzła.
+     *
+     * @return Indeks pola lub {@link #PASS}.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Zwraca liczbę symulacji przechodzących przez węzeł.
+     *
+     * @return Liczba odwiedzin.
+     */
+    public int getVisits() {
+        return visits;
+    }
+
+    /**
+     * Zwraca odsetek wygranych koloru, który wykonał ruch prowadzący do węzła.
+     *
+     * @return Wartość z przedziału [0, 1] (0.5 dla nieodwiedzonego węzła).
+     */
+    public double getWinRate() {
+        int v = visits;
+        return v == 0 ? 0.5 : (double) wins / v;
+    }
+}
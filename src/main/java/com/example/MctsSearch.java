@@ -0,0 +1,801 @@
+package com.example;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Przeszukiwanie drzewa gry metodą Monte Carlo (UCT) z szybkimi losowymi rozgrywkami.
+ *
+ * Każda iteracja kopiuje pozycję korzenia do roboczej planszy, schodzi w dół drzewa
+ * wybierając ruchy wzorem UCT, rozwija jeden nowy węzeł, rozgrywa partię losowymi
+ * legalnymi ruchami (bez zapełniania własnych oczu) do dwóch pasów i propaguje wynik
+ * w górę drzewa. Rozgrywki korzystają z {@link RulesEngine#play(GoBoard, int, byte, MoveRecord)}
+ * na planszy z przyrostowymi łańcuchami i nie alokują pamięci.
+ *
+ * Przeszukiwanie może działać równolegle: N wątków współdzieli jedno drzewo
+ * (statystyki węzłów aktualizowane atomowo, wirtualna porażka rozprasza wątki
+ * po gałęziach), a każdy wątek ma własną planszę roboczą i bufory. Wątek wywołujący
+ * jest pierwszym z nich, a pozostałe są zadaniami pomocniczymi sesji w puli {@link BotExecutor}
+ * ({@link BotExecutor#submitHelper(Object, Runnable)}), więc przeszukiwanie nie tworzy wątków,
+ * a pomocnicy korzystają tylko z wolnych wątków puli w ramach limitu sesji i kończą pracę,
+ * gdy inne sesje czekają. Pomocnik, któremu pula nie przydzieliła wątku przed końcem
+ * przeszukiwania, jest anulowany.
+ * Jedna instancja może wykonywać tylko jedno przeszukiwanie naraz. Kolejne wywołanie
+ * dla tej samej pozycji kontynuuje budowę drzewa (np. przy przedłużeniu namysłu).
+ *
+ * Drzewo jest zachowywane między przeszukiwaniami: jeśli nowa pozycja odpowiada węzłowi
+ * poprzedniego drzewa (po ruchu bota i odpowiedzi przeciwnika), pasujące poddrzewo staje
+ * się nowym korzeniem, a reszta drzewa jest porzucana. Podczas tury przeciwnika drzewo
+ * może być rozbudowywane w tle ({@link #ponder(Board, Stone, int, long)}) zadaniami
+ * kolejki sesji w puli, po {@link #PONDER_SLICE_MILLIS} ms, aby nie blokować innych zadań sesji.
+ *
+ * Z {@link TranspositionTable} nowe węzły przejmują (ograniczone) statystyki pozycji
+ * znanych z wcześniejszych przeszukiwań, a po przeszukiwaniu dobrze zbadane węzły
+ * drzewa są w niej zapisywane.
+ */
+public class MctsSearch {
+
+    /** Domyślny współczynnik eksploracji UCT. */
+    private static final double EXPLORATION = 0.7;
+
+    /** Domyślna liczba rozgrywek, gdy nie podano żadnego limitu. */
+    private static final int DEFAULT_PLAYOUTS = 1000;
+
+    /**
+     * Wynik jest stabilny, jeśli najczęściej odwiedzany ruch ma co najmniej tyle razy
+     * więcej odwiedzin niż każdy inny ruch.
+     */
+    private static final double STABLE_VISIT_RATIO = 1.5;
+
+    /** Największa liczba symulacji przejmowana z tablicy transpozycji przez nowy węzeł. */
+    private static final int PRIOR_VISITS = 32;
+
+    /** Najmniejsza liczba symulacji węzła zapisywanego w tablicy transpozycji. */
+    private static final int STORE_VISITS = 16;
+
+    /** Czas jednego zadania przeszukiwania w tle w milisekundach. */
+    static final long PONDER_SLICE_MILLIS = 100;
+
+    /** Komi doliczane białemu przy ocenie rozgrywek. */
+    private final float komi;
+
+    /** Stan roboczy wątków przeszukiwania (pierwszy używany przez wątek wywołujący). */
+    private final Worker[] workers;
+
+    /** Liczba rozgrywek w ostatnim przeszukiwaniu. */
+    private int lastPlayouts;
+
+    /** Czas ostatniego przeszukiwania w nanosekundach. */
+    private long lastNanos;
+
+    /** Liczba odwiedzin korzenia przejęta z poprzedniego drzewa. */
+    private int lastReused;
+
+    /** Czy w ostatnim przeszukiwaniu był możliwy tylko jeden ruch. */
+    private boolean lastForced;
+
+    /** Czy wynik ostatniego przeszukiwania był stabilny. */
+    private boolean lastStable;
+
+    /** Silnik reguł do sprawdzania ruchów korzenia i odtwarzania ruchów drzewa. */
+    private final RulesEngine rules = new RulesEngine();
+
+    /** Korzeń drzewa ostatniego przeszukiwania. */
+    private MctsNode tree;
+
+    /** Pozycja korzenia drzewa {@link #tree}. */
+    private Board treeBoard;
+
+    /** Zapisy ruchów przy szukaniu pasującego poddrzewa. */
+    private final MoveRecord first = new MoveRecord();
+    private final MoveRecord second = new MoveRecord();
+
+    /** Pula wykonująca zadania pomocnicze i przeszukiwanie w tle. */
+    private volatile BotExecutor executor = BotExecutor.shared();
+
+    /** Klucz kolejki sesji, w której wykonywane jest przeszukiwanie w tle. */
+    private volatile Object session = this;
+
+    /** Bieżące zadanie przeszukiwania w tle ({@code null}, jeśli nie działa). */
+    private volatile Task ponderTask;
+
+    /** Czy wątki przeszukiwania mają się zatrzymać. */
+    private volatile boolean stopRequested;
+
+    /** Tablica transpozycji ze statystykami z wcześniejszych przeszukiwań ({@code null} = brak). */
+    private volatile TranspositionTable table;
+
+    /**
+     * Tworzy jednowątkowe przeszukiwanie z losowym ziarnem.
+     *
+     * @param komi Komi doliczane białemu.
+     */
+    public MctsSearch(float komi) {
+        this(komi, 1);
+    }
+
+    /**
+     * Tworzy przeszukiwanie wykonywane przez podaną liczbę wątków.
+     *
+     * @param komi    Komi doliczane białemu.
+     * @param threads Liczba wątków (co najmniej 1).
+     */
+    public MctsSearch(float komi, int threads) {
+        this(komi, threads, new SplittableRandom());
+    }
+
+    /**
+     * Tworzy jednowątkowe przeszukiwanie z podanym generatorem (np. dla powtarzalnych testów).
+     *
+     * @param komi   Komi doliczane białemu.
+     * @param random Generator liczb losowych.
+     */
+    public MctsSearch(float komi, SplittableRandom random) {
+        this(komi, 1, random);
+    }
+
+    /**
+     * Tworzy przeszukiwanie wykonywane przez podaną liczbę wątków.
+     *
+     * @param komi    Komi doliczane białemu.
+     * @param threads Liczba wątków (co najmniej 1).
+     * @param random  Generator, z którego wyprowadzane są generatory wątków.
+     */
+    public MctsSearch(float komi, int threads, SplittableRandom random) {
+        this.komi = komi;
+        this.workers = new Worker[Math.max(1, threads)];
+        for (int k = 0; k < workers.length; k++)
+            workers[k] = new Worker(random.split());
+    }
+
+    /**
+     * Wyszukuje najlepszy ruch w podanej pozycji.
+     * Przeszukiwanie kończy się po wykonaniu {@code maxPlayouts} rozgrywek lub po
+     * upływie {@code maxMillis} milisekund (wartość niedodatnia wyłącza dany limit).
+     *
+     * @param root        Pozycja, w której szukany jest ruch (nie jest modyfikowana).
+     * @param toMove      Kolor gracza wykonującego ruch.
+     * @param history     Historia pozycji (reguła superko dla ruchów z korzenia)
+     *                    lub {@code null}.
+     * @param maxPlayouts Limit liczby rozgrywek.
+     * @param maxMillis   Limit czasu w milisekundach.
+     * @return Indeks pola najlepszego ruchu lub {@link MctsNode#PASS}.
+     */
+    public int search(Board root, Stone toMove, PositionHistory history, int maxPlayouts, long maxMillis) {
+        stopPondering();
+        if (maxPlayouts <= 0 && maxMillis <= 0) maxPlayouts = DEFAULT_PLAYOUTS;
+
+        long deadline = maxMillis > 0 ? System.nanoTime() + maxMillis * 1_000_000L : Long.MAX_VALUE;
+        int limit = maxPlayouts > 0 ? maxPlayouts : Integer.MAX_VALUE;
+        byte color = Board.code(toMove);
+        MctsNode tree = run(root, color, history, limit, deadline);
+        TranspositionTable tt = table;
+        if (tt != null) store(tt, tree);
+
+        MctsNode best = tree.mostVisitedChild(
+                move -> move == MctsNode.PASS || rules.isLegal(root, move, color, history));
+        lastStable = best == null || isStable(tree, best);
+        if (best != null) return best.move;
+        // Korzeń przejęty z poprzedniego drzewa mógł zostać rozwinięty przy krótszej historii,
+        // więc jedyny kandydat może już łamać regułę superko
+        int forced = lastForced ? tree.anyCandidate() : MctsNode.PASS;
+        return forced == MctsNode.PASS || rules.isLegal(root, forced, color, history) ? forced : MctsNode.PASS;
+    }
+
+    /**
+     * Ustawia tablicę transpozycji używaną przez przeszukiwanie.
+     *
+     * @param table Tablica (może być współdzielona przez wiele przeszukiwań) lub {@code null}.
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Ustawia pulę wykonującą zadania przeszukiwania i sesję, do której kolejki trafia
+     * przeszukiwanie w tle (domyślnie {@link BotExecutor#shared()} i osobna kolejka).
+     *
+     * @param executor Pula zadań botów.
+     * @param session  Klucz sesji (np. obiekt {@link GameSession}).
+     */
+    public void setExecutor(BotExecutor executor, Object session) {
+        this.executor = executor;
+        this.session = session != null ? session : this;
+    }
+
+    /**
+     * Zapisuje w tablicy transpozycji statystyki węzła i jego dobrze zbadanych potomków.
+     * Plansza drzewa musi być w pozycji węzła; ruchy potomków są na niej wykonywane i cofane.
+     *
+     * @param tt   Tablica transpozycji.
+     * @param node Węzeł drzewa.
+     */
+    private void store(TranspositionTable tt, MctsNode node) {
+        tt.store(TranspositionTable.key(treeBoard.getHash(), opposite(node.color), treeBoard.getSize()), node.visits, node.wins);
+        MoveRecord next = null;
+        for (int k = 0, n = node.childCount; k < n; k++) {
+            MctsNode c = node.children[k];
+            if (c.visits < STORE_VISITS) continue;
+            if (next == null) next = new MoveRecord();
+            playTree(c, next);
+            store(tt, c);
+            undoTree(c, next);
+        }
+    }
+
+    /**
+     * Sprawdza, czy wybór ruchu jest wyraźny: najczęściej odwiedzany ruch ma też
+     * najlepszy odsetek wygranych, a drugi ruch ma wyraźnie mniej odwiedzin.
+     *
+     * @param tree Korzeń drzewa.
+     * @param best Najczęściej odwiedzany potomek.
+     * @return {@code true}, jeśli dalsze przeszukiwanie raczej nie zmieni wyboru.
+     */
+    private static boolean isStable(MctsNode tree, MctsNode best) {
+        int secondVisits = 0;
+        double bestRate = best.getWinRate();
+        for (int k = 0, n = tree.childCount; k < n; k++) {
+            MctsNode c = tree.children[k];
+            if (c == best) continue;
+            secondVisits = Math.max(secondVisits, c.visits);
+            if (c.visits * STABLE_VISIT_RATIO >= best.visits && c.getWinRate() > bestRate) return false;
+        }
+        return secondVisits * STABLE_VISIT_RATIO < best.visits;
+    }
+
+    /**
+     * Rozpoczyna przeszukiwanie w tle podczas tury przeciwnika (ang. pondering).
+     * Drzewo zbudowane w tle zostanie wykorzystane przez kolejne wywołanie
+     * {@link #search(Board, Stone, PositionHistory, int, long)}, o ile pozycja, w której
+     * szukany jest ruch, wynika z pozycji {@code root} po co najwyżej dwóch ruchach.
+     * Wcześniejsze przeszukiwanie w tle jest przerywane.
+     *
+     * Przeszukiwanie jest dzielone na zadania w kolejce sesji ({@link #setExecutor(BotExecutor, Object)}),
+     * z których każde trwa co najwyżej {@link #PONDER_SLICE_MILLIS} ms i po zakończeniu
+     * dodaje następne na koniec kolejki. Łączny czas ogranicza też limit puli.
+     *
+     * @param root        Pozycja po ruchu bota (kopiowana, nie jest modyfikowana).
+     * @param toMove      Kolor gracza na ruchu (przeciwnika bota).
+     * @param maxPlayouts Limit liczby rozgrywek (ogranicza rozmiar drzewa).
+     * @param maxMillis   Limit czasu w milisekundach (wartość niedodatnia oznacza limit puli).
+     */
+    public synchronized void ponder(Board root, Stone toMove, int maxPlayouts, long maxMillis) {
+        stopPondering();
+        Board position = root.copy();
+        byte color = Board.code(toMove);
+        int limit = maxPlayouts > 0 ? maxPlayouts : Integer.MAX_VALUE;
+        long millis = executor.capMillis(maxMillis > 0 ? maxMillis : TimeManager.UNLIMITED);
+        schedulePonder(position, color, limit, System.nanoTime() + millis * 1_000_000L);
+    }
+
+    /**
+     * Dodaje do kolejki sesji następne zadanie przeszukiwania w tle.
+     *
+     * @param root     Pozycja korzenia.
+     * @param color    Kod koloru gracza na ruchu.
+     * @param limit    Pozostały limit liczby rozgrywek.
+     * @param deadline Termin zakończenia (wartość {@link System#nanoTime()}).
+     */
+    private void schedulePonder(Board root, byte color, int limit, long deadline) {
+        Task task = new Task(() -> {
+            long sliceEnd = System.nanoTime() + PONDER_SLICE_MILLIS * 1_000_000L;
+            run(root, color, null, limit, Math.min(deadline, sliceEnd));
+            int left = limit - lastPlayouts;
+            if (!stopRequested && left > 0 && System.nanoTime() < deadline)
+                schedulePonder(root, color, left, deadline);
+        });
+        ponderTask = task;
+        executor.submit(session, task);
+    }
+
+    /**
+     * Przerywa przeszukiwanie w tle (drzewo zostaje zachowane): anuluje zadanie czekające
+     * w kolejce albo czeka na zakończenie wykonywanego.
+     */
+    public synchronized void stopPondering() {
+        Task task = ponderTask;
+        if (task == null) return;
+        stopRequested = true;
+        // Wykonywane zadanie mogło zdążyć dodać następne, zanim zauważyło przerwanie
+        while (true) {
+            task.cancelOrAwait();
+            if (ponderTask == task) break;
+            task = ponderTask;
+        }
+        stopRequested = false;
+        ponderTask = null;
+    }
+
+    /**
+     * Sprawdza, czy trwa przeszukiwanie w tle.
+     *
+     * @return {@code true}, jeśli zadanie przeszukiwania w tle czeka w kolejce lub jest wykonywane.
+     */
+    public boolean isPondering() {
+        Task task = ponderTask;
+        return task != null && !task.isDone();
+    }
+
+    /**
+     * Wykonuje iteracje przeszukiwania we wszystkich wątkach, zaczynając od drzewa
+     * poprzedniego przeszukiwania, jeśli pasuje ono do pozycji.
+     *
+     * @param root     Pozycja korzenia.
+     * @param color    Kod koloru gracza na ruchu.
+     * @param history  Historia pozycji lub {@code null}.
+     * @param limit    Limit liczby rozgrywek.
+     * @param deadline Termin zakończenia (wartość {@link System#nanoTime()}).
+     * @return Korzeń drzewa.
+     */
+    private MctsNode run(Board root, byte color, PositionHistory history, int limit, long deadline) {
+        long start = System.nanoTime();
+        MctsNode tree = promote(root, color);
+        if (tree == null) tree = new MctsNode(MctsNode.PASS, opposite(color), null);
+        tree.detach();
+        this.tree = tree;
+        if (treeBoard == null || treeBoard.getSize() != root.getSize()) treeBoard = root.copy();
+        else treeBoard.copyFrom(root);
+        lastReused = tree.visits;
+
+        for (Worker w : workers) w.prepare(root);
+        synchronized (tree) {
+            if (tree.untried == null) workers[0].expand(tree, root, color, history);
+        }
+        lastForced = tree.candidateCount() == 1;
+        int budget = lastForced ? 0 : limit;
+
+        AtomicInteger started = new AtomicInteger();
+        Task[] helpers = new Task[workers.length - 1];
+        BotExecutor pool = executor;
+        for (int k = 0; k < helpers.length; k++) {
+            Worker w = workers[k + 1];
+            MctsNode shared = tree;
+            helpers[k] = new Task(() -> w.run(root, shared, color, started, budget, deadline, pool));
+            pool.submitHelper(session, helpers[k]);
+        }
+        workers[0].run(root, tree, color, started, budget, deadline, null);
+        for (Task t : helpers) t.cancelOrAwait();
+
+        int playouts = 0;
+        for (Worker w : workers) playouts += w.playouts;
+        lastPlayouts = playouts;
+        lastNanos = System.nanoTime() - start;
+        return tree;
+    }
+
+    /**
+     * Szuka w drzewie poprzedniego przeszukiwania węzła odpowiadającego pozycji:
+     * korzenia, potomka lub wnuka (np. po ruchu bota i odpowiedzi przeciwnika).
+     *
+     * @param root  Pozycja, w której szukany jest ruch.
+     * @param color Kod koloru gracza na ruchu.
+     * @return Pasujący węzeł lub {@code null}, jeśli drzewa nie da się użyć.
+     */
+    private MctsNode promote(Board root, byte color) {
+        if (tree == null || treeBoard.getSize() != root.getSize()) return null;
+        long hash = root.getHash();
+        if (matches(tree, treeBoard, hash, color)) return tree;
+
+        for (int a = 0, na = tree.childCount; a < na; a++) {
+            MctsNode child = tree.children[a];
+            playTree(child, first);
+            if (matches(child, treeBoard, hash, color)) {
+                undoTree(child, first);
+                return child;
+            }
+            MctsNode found = null;
+            for (int b = 0, nb = child.childCount; b < nb && found == null; b++) {
+                MctsNode grandchild = child.children[b];
+                playTree(grandchild, second);
+                if (matches(grandchild, treeBoard, hash, color)) found = grandchild;
+                undoTree(grandchild, second);
+            }
+            undoTree(child, first);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    /**
+     * Sprawdza, czy węzeł odpowiada pozycji o podanym skrócie i graczu na ruchu.
+     *
+     * @param node  Węzeł drzewa.
+     * @param board Plansza w pozycji węzła.
+     * @param hash  Skrót szukanej pozycji.
+     * @param color Kod koloru gracza na ruchu w szukanej pozycji.
+     * @return {@code true}, jeśli pozycje są takie same.
+     */
+    private static boolean matches(MctsNode node, Board board, long hash, byte color) {
+        return node.color != color && board.getHash() == hash;
+    }
+
+    /**
+     * Wykonuje ruch węzła na planszy drzewa.
+     *
+     * @param node   Węzeł drzewa.
+     * @param record Zapis ruchu do późniejszego cofnięcia.
+     */
+    private void playTree(MctsNode node, MoveRecord record) {
+        if (node.move != MctsNode.PASS) rules.play(treeBoard, node.move, node.color, record);
+    }
+
+    /**
+     * Cofa ruch węzła na planszy drzewa.
+     *
+     * @param node   Węzeł drzewa.
+     * @param record Zapis ruchu z {@link #playTree(MctsNode, MoveRecord)}.
+     */
+    private void undoTree(MctsNode node, MoveRecord record) {
+        if (node.move != MctsNode.PASS) rules.undo(treeBoard, record);
+    }
+
+    /**
+     * Zwraca liczbę odwiedzin korzenia przejętą z poprzedniego drzewa
+     * (w tym z przeszukiwania w tle) na początku ostatniego przeszukiwania.
+     *
+     * @return Liczba ponownie wykorzystanych symulacji.
+     */
+    public int getLastReused() {
+        return lastReused;
+    }
+
+    /**
+     * Sprawdza, czy w ostatnim przeszukiwaniu był możliwy tylko jeden ruch
+     * (odpowiedź bez rozgrywek).
+     *
+     * @return {@code true}, jeśli ruch był wymuszony.
+     */
+    public boolean wasLastForced() {
+        return lastForced;
+    }
+
+    /**
+     * Sprawdza, czy wynik ostatniego przeszukiwania był stabilny (wyraźny najlepszy ruch).
+     * Niestabilny wynik uzasadnia przedłużenie namysłu.
+     *
+     * @return {@code true}, jeśli najlepszy ruch wyraźnie wyprzedza pozostałe.
+     */
+    public boolean isLastStable() {
+        return lastStable;
+    }
+
+    /**
+     * Zwraca liczbę wątków przeszukiwania.
+     *
+     * @return Liczba wątków.
+     */
+    public int getThreads() {
+        return workers.length;
+    }
+
+    /**
+     * Zwraca liczbę rozgrywek wykonanych w ostatnim przeszukiwaniu.
+     *
+     * @return Liczba rozgrywek.
+     */
+    public int getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Zwraca szybkość ostatniego przeszukiwania.
+     *
+     * @return Liczba rozgrywek na sekundę.
+     */
+    public double getPlayoutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastPlayouts * 1e9 / lastNanos;
+    }
+
+    /**
+     * Zwraca kod koloru przeciwnika.
+     *
+     * @param color Kod koloru.
+     * @return Kod przeciwnego koloru.
+     */
+    static byte opposite(byte color) {
+        return color == Board.BLACK ? Board.WHITE : Board.BLACK;
+    }
+
+    /**
+     * Stan roboczy jednego wątku przeszukiwania: plansza, bufory i generator.
+     */
+    private final class Worker {
+
+        /** Silnik reguł używany w drzewie i rozgrywkach. */
+        private final RulesEngine rules = new RulesEngine();
+
+        /** Generator liczb losowych wątku. */
+        private final SplittableRandom random;
+
+        /** Wielokrotnie używany zapis ruchu. */
+        private final MoveRecord record = new MoveRecord();
+
+        /** Robocza plansza, na której rozgrywane są iteracje. */
+        private Board work;
+
+        /** Bufor na legalne ruchy przy rozwijaniu węzła. */
+        private int[] moveBuffer = new int[0];
+
+        /** Liczba rozgrywek wykonanych przez wątek w bieżącym przeszukiwaniu. */
+        private int playouts;
+
+        Worker(SplittableRandom random) {
+            this.random = random;
+        }
+
+        /**
+         * Przygotowuje planszę roboczą i bufory dla pozycji korzenia.
+         *
+         * @param root Pozycja korzenia.
+         */
+        void prepare(Board root) {
+            if (work == null || work.getSize() != root.getSize()) work = root.copy();
+            int points = root.getSize() * root.getSize();
+            if (moveBuffer.length < points) moveBuffer = new int[points];
+            playouts = 0;
+        }
+
+        /**
+         * Wykonuje iteracje, dopóki nie zostanie wyczerpany wspólny limit rozgrywek lub czasu.
+         *
+         * @param root     Pozycja korzenia.
+         * @param tree     Korzeń drzewa.
+         * @param color    Kod koloru gracza na ruchu w korzeniu.
+         * @param started  Wspólny licznik rozpoczętych rozgrywek.
+         * @param limit    Limit liczby rozgrywek.
+         * @param deadline Termin zakończenia (wartość {@link System#nanoTime()}).
+         * @param yieldTo  Pula, której czekającym sesjom pomocnik ustępuje wątek, lub {@code null}.
+         */
+        void run(Board root, MctsNode tree, byte color, AtomicInteger started, int limit, long deadline,
+                 BotExecutor yieldTo) {
+            while (!stopRequested && (yieldTo == null || !yieldTo.hasWaitingSessions())
+                    && started.getAndIncrement() < limit && System.nanoTime() < deadline) {
+                work.copyFrom(root);
+                iterate(tree, color);
+                playouts++;
+            }
+        }
+
+        /**
+         * Wykonuje jedną iterację: selekcja, rozwinięcie, rozgrywka i propagacja wyniku.
+         *
+         * @param tree  Korzeń drzewa.
+         * @param color Kod koloru gracza na ruchu w korzeniu.
+         */
+        private void iterate(MctsNode tree, byte color) {
+            MctsNode node = tree;
+
+            while (true) {
+                MctsNode child = null;
+                synchronized (node) {
+                    if (node.untried == null) expand(node, work, color, null);
+                    if (node.untriedCount > 0) {
+                        int k = random.nextInt(node.untriedCount);
+                        int move = node.untried[k];
+                        node.untried[k] = node.untried[--node.untriedCount];
+                        child = node.addChild(move, color);
+                    }
+                }
+                if (child != null) {
+                    child.addVirtualLoss();
+                    playMove(child.move, color);
+                    seed(child);
+                    node = child;
+                    color = opposite(color);
+                    break;
+                }
+
+                MctsNode next = node.selectChild(EXPLORATION);
+                if (next == null) break;
+                next.addVirtualLoss();
+                playMove(next.move, next.color);
+                node = next;
+                color = opposite(next.color);
+            }
+
+            byte winner = playout(work, color);
+
+            for (MctsNode n = node; n != null; n = n.parent) {
+                n.update(winner, n != tree);
+            }
+        }
+
+        /**
+         * Przejmuje do nowego węzła statystyki jego pozycji z tablicy transpozycji,
+         * ograniczone do {@link #PRIOR_VISITS} symulacji.
+         *
+         * @param node Nowy węzeł (plansza robocza jest w jego pozycji).
+         */
+        private void seed(MctsNode node) {
+            TranspositionTable tt = table;
+            if (tt == null) return;
+            long data = tt.probe(TranspositionTable.key(work.getHash(), opposite(node.color), work.getSize()));
+            if (data == TranspositionTable.NOT_FOUND) return;
+            int visits = TranspositionTable.visits(data);
+            int wins = TranspositionTable.wins(data);
+            if (visits > PRIOR_VISITS) {
+                wins = (int) ((long) wins * PRIOR_VISITS / visits);
+                visits = PRIOR_VISITS;
+            }
+            node.addPrior(visits, wins);
+        }
+
+        /**
+         * Wyznacza ruchy do rozwinięcia w węźle: legalne ruchy bez zapełniania własnych oczu,
+         * a jeśli takich nie ma – pas.
+         *
+         * @param node    Rozwijany węzeł.
+         * @param board   Plansza w pozycji węzła.
+         * @param color   Kod koloru gracza na ruchu.
+         * @param history Historia pozycji lub {@code null}.
+         */
+        void expand(MctsNode node, Board board, byte color, PositionHistory history) {
+            int n = 0;
+            for (int i : Adjacency.forSize(board.getSize()).points) {
+                if (!isOwnEye(board, i, color) && rules.isLegal(board, i, color, history))
+                    moveBuffer[n++] = i;
+            }
+            if (n == 0) moveBuffer[n++] = MctsNode.PASS;
+            node.setUntried(moveBuffer, n);
+        }
+
+        /**
+         * Rozgrywa partię losowymi ruchami do dwóch kolejnych pasów (lub limitu długości).
+         *
+         * @param board Plansza robocza.
+         * @param color Kod koloru gracza na ruchu.
+         * @return Kod koloru zwycięzcy.
+         */
+        private byte playout(Board board, byte color) {
+            int size = board.getSize();
+            int maxMoves = 3 * size * size;
+            int passes = 0;
+            for (int m = 0; m < maxMoves && passes < 2; m++) {
+                int move = randomMove(board, color);
+                if (move == MctsNode.PASS) {
+                    passes++;
+                } else {
+                    passes = 0;
+                    rules.play(board, move, color, record);
+                }
+                color = opposite(color);
+            }
+            return winner(board);
+        }
+
+        /**
+         * Losuje legalny ruch, który nie zapełnia własnego oka.
+         * Przegląda pola cyklicznie od losowego miejsca, więc nie alokuje pamięci.
+         *
+         * @param board Plansza robocza.
+         * @param color Kod koloru gracza na ruchu.
+         * @return Indeks pola lub {@link MctsNode#PASS}.
+         */
+        private int randomMove(Board board, byte color) {
+            int[] points = Adjacency.forSize(board.getSize()).points;
+            int n = points.length;
+            int start = random.nextInt(n);
+            for (int k = 0; k < n; k++) {
+                int p = start + k;
+                int i = points[p < n ? p : p - n];
+                if (board.at(i) == Board.EMPTY
+                        && !isOwnEye(board, i, color)
+                        && rules.isLegal(board, i, color, null)) {
+                    return i;
+                }
+            }
+            return MctsNode.PASS;
+        }
+
+        /**
+         * Wykonuje ruch z drzewa na planszy roboczej.
+         *
+         * @param move  Indeks pola lub {@link MctsNode#PASS}.
+         * @param color Kod koloru gracza.
+         */
+        private void playMove(int move, byte color) {
+            if (move != MctsNode.PASS) rules.play(work, move, color, record);
+        }
+    }
+
+    /**
+     * Zadanie przeszukiwania wykonywane w puli {@link BotExecutor}. Zadanie, które jeszcze
+     * się nie rozpoczęło, można anulować; na wykonywane trzeba poczekać.
+     */
+    private static final class Task implements Runnable {
+
+        /** Właściwa praca zadania. */
+        private final Runnable body;
+
+        /** Stan zadania (chroniony monitorem zadania). */
+        private boolean started, finished, cancelled;
+
+        Task(Runnable body) {
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (cancelled) return;
+                started = true;
+            }
+            try {
+                body.run();
+            } finally {
+                synchronized (this) {
+                    finished = true;
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Anuluje zadanie, jeśli się nie rozpoczęło, a w przeciwnym razie czeka na jego zakończenie.
+         */
+        synchronized void cancelOrAwait() {
+            cancelled = true;
+            boolean interrupted = false;
+            while (started && !finished) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+
+        /**
+         * Sprawdza, czy zadanie zakończyło się lub zostało anulowane.
+         *
+         * @return {@code true}, jeśli zadanie nie będzie już wykonywane.
+         */
+        synchronized boolean isDone() {
+            return finished || (cancelled && !started);
+        }
+    }
+
+    /**
+     * Sprawdza, czy puste pole jest otoczone wyłącznie własnymi kamieniami.
+     *
+     * @param board Plansza.
+     * @param i     Indeks pola.
+     * @param color Kod koloru gracza.
+     * @return {@code true}, jeśli pole jest (prostym) okiem gracza.
+     */
+    private static boolean isOwnEye(Board board, int i, byte color) {
+        if (board.at(i) != Board.EMPTY) return false;
+        Adjacency adj = Adjacency.forSize(board.getSize());
+        for (int k = adj.start(i), end = k + adj.count[i]; k < end; k++) {
+            if (board.at(adj.neighbors[k]) != color) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ocenia zakończoną rozgrywkę liczeniem obszaru (kamienie i otoczone puste pola).
+     *
+     * @param board Plansza po rozgrywce.
+     * @return Kod koloru zwycięzcy.
+     */
+    private byte winner(Board board) {
+        Adjacency adj = Adjacency.forSize(board.getSize());
+        int score = 0;
+        for (int i : adj.points) {
+            byte c = board.at(i);
+            if (c == Board.BLACK) {
+                score++;
+            } else if (c == Board.WHITE) {
+                score--;
+            } else {
+                int touch = 0;
+                for (int k = adj.start(i), end = k + adj.count[i]; k < end; k++)
+                    touch |= board.at(adj.neighbors[k]);
+                if (touch == Board.BLACK) score++;
+                else if (touch == Board.WHITE) score--;
+            }
+        }
+        return score - komi > 0 ? Board.BLACK : Board.WHITE;
+    }
+}
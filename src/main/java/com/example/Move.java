@@ -1,17 +1,15 @@
 package com.example;
 
-import java.io.Serializable;
-
 /**
  * Reprezentuje akcję wykonaną przez gracza i przesłaną do serwera.
- * Klasa implementuje {@link Serializable}, aby umożliwić przesyłanie danych przez sieć.
+ * Przez sieć jest przesyłana w binarnej ramce {@link FrameCodec}.
  * Obiekt ten może reprezentować trzy rodzaje akcji:
  * Postawienie kamienia (użycie pól x, y)
  * Akcję specjalną (pass, resign)
  * Potwierdzenie zakończenia fazy punktacji (doneScoring)
  *
  */
-public class Move implements Serializable {
+public class Move {
 
     public int x;
     public int y;
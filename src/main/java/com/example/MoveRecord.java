@@ -0,0 +1,104 @@
+package com.example;
+
+/**
+ * Zapis wykonanego ruchu potrzebny do jego cofnięcia.
+ * Przechowuje wyłącznie postawiony kamień oraz indeksy zbitych kamieni,
+ * więc cofnięcie ruchu kosztuje czas proporcjonalny do liczby zmienionych pól.
+ * Obiekt może być używany wielokrotnie (np. w przeszukiwaniu), aby nie alokować
+ * nowego zapisu dla każdego ruchu.
+ */
+public class MoveRecord {
+
+    /** Indeks pola, na którym postawiono kamień. */
+    private int point;
+
+    /** Kod koloru postawionego kamienia. */
+    private byte color;
+
+    /** Indeksy zbitych kamieni przeciwnika. */
+    private int[] captured = new int[4];
+
+    /** Liczba zbitych kamieni. */
+    private int capturedCount;
+
+    /**
+     * Rozpoczyna nowy zapis ruchu, czyszcząc poprzednią zawartość.
+     *
+     * @param point Indeks pola ruchu.
+     * @param color Kod koloru kamienia.
+     */
+    void reset(int point, byte color) {
+        this.point = point;
+        this.color = color;
+        this.capturedCount = 0;
+    }
+
+    /**
+     * Zapewnia miejsce na dodatkowe zbite kamienie.
+     *
+     * @param extra Liczba kamieni, które zostaną dopisane.
+     */
+    void ensureCapacity(int extra) {
+        int needed = capturedCount + extra;
+        if (needed > captured.length) {
+            int[] grown = new int[Math.max(needed, captured.length * 2)];
+            System.arraycopy(captured, 0, grown, 0, capturedCount);
+            captured = grown;
+        }
+    }
+
+    /**
+     * Zwraca bufor na indeksy zbitych kamieni.
+     *
+     * @return Tablica indeksów (ważne są pierwsze {@link #getCapturedCount()} pozycje).
+     */
+    int[] capturedBuffer() {
+        return captured;
+    }
+
+    /**
+     * Zwiększa liczbę zapisanych zbitych kamieni.
+     *
+     * @param n Liczba dopisanych kamieni.
+     */
+    void addCaptured(int n) {
+        capturedCount += n;
+    }
+
+    /**
+     * Zwraca indeks pola, na którym postawiono kamień.
+     *
+     * @return Indeks pola.
+     */
+    public int getPoint() {
+        return point;
+    }
+
+    /**
+     * Zwraca kod koloru postawionego kamienia.
+     *
+     * @return Kod {@link Board#BLACK} lub {@link Board#WHITE}.
+     */
+    public byte getColor() {
+        return color;
+    }
+
+    /**
+     * Zwraca liczbę kamieni zbitych tym ruchem.
+     *
+     * @return Liczba zbitych kamieni.
+     */
+    public int getCapturedCount() {
+        return capturedCount;
+    }
+
+    /**
+     * Zwraca indeks k-tego zbitego kamienia.
+     *
+     * @param k Numer zbitego kamienia (od 0).
+     * @return Indeks pola.
+     */
+    public int getCaptured(int k) {
+        return captured[k];
+    }
+}
@@ -0,0 +1,252 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Połączenie z klientem obsługiwane przez pętlę zdarzeń {@link NioTransport}; dla sesji
+ * gry jest zwykłym graczem ({@link Player}), tak jak {@link ClientHandler}.
+ *
+ * Odczyt i zapis gniazda wykonuje wyłącznie wątek pętli. Przychodzące ramki
+ * ({@link FrameCodec}) są czytane do wspólnego bufora pętli; tylko niepełna ramka
+ * zostaje przeniesiona do bufora pożyczonego z puli do czasu jej dokończenia, więc
+ * bezczynne połączenie nie zajmuje bufora. Stan gry może być wysyłany z dowolnego
+ * wątku: zakodowana ramka trafia do kolejki połączenia, a pętla wysyła ją bez blokowania.
+ * Klient, który nie odbiera danych, zostaje rozłączony po przekroczeniu
+ * {@link #MAX_QUEUED} niewysłanych ramek. Zamknięcie połączenia przypisanego do sesji
+ * kończy grę walkowerem ({@link GameSession#disconnect(Player)}); sesja jest powiadamiana
+ * w osobnym wątku wirtualnym, bo połączenie może być zamykane pod blokadą sesji.
+ */
+public class NioConnection implements ClientConnection {
+
+    /** Największa liczba niewysłanych ramek, po której połączenie jest zamykane. */
+    static final int MAX_QUEUED = 64;
+
+    /** Kanał połączenia (w trybie nieblokującym). */
+    private final SocketChannel channel;
+
+    /** Pętla zdarzeń obsługująca połączenie. */
+    private final NioTransport.EventLoop loop;
+
+    /** Pula buforów transportu. */
+    private final BufferPool pool;
+
+    /** Ramki oczekujące na wysłanie (bufory z puli w trybie odczytu). */
+    private final ConcurrentLinkedQueue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>();
+
+    /** Liczba ramek w {@link #outbox}. */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /** Czy połączenie zostało zamknięte. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** Klucz rejestracji w selektorze pętli (ustawiany przez pętlę). */
+    private SelectionKey key;
+
+    /** Niepełna ramka przychodząca (bufor z puli w trybie zapisu) lub {@code null}. */
+    private ByteBuffer pending;
+
+    /** Kolor kamieni gracza (ustawiany przy dołączeniu do sesji). */
+    private volatile Stone stone;
+
+    /** Sesja gry, do której należy połączenie. */
+    private volatile GameSession session;
+
+    /** Czy sesja rozpoczęła grę; wcześniejsze ruchy klienta są pomijane. */
+    private volatile boolean started;
+
+    /**
+     * Tworzy połączenie; rejestrację w selektorze wykonuje {@link NioTransport}.
+     *
+     * @param channel Kanał w trybie nieblokującym.
+     * @param loop    Pętla zdarzeń.
+     * @param pool    Pula buforów.
+     */
+    NioConnection(SocketChannel channel, NioTransport.EventLoop loop, BufferPool pool) {
+        this.channel = channel;
+        this.loop = loop;
+        this.pool = pool;
+    }
+
+    /**
+     * Przypisuje połączenie do sesji gry; jeśli klient już się rozłączył, sesja kończy się walkowerem.
+     *
+     * @param stone   Kolor kamieni gracza.
+     * @param session Sesja gry.
+     * @return To połączenie jako gracz sesji.
+     */
+    @Override
+    public Player bind(Stone stone, GameSession session) {
+        this.stone = stone;
+        this.session = session;
+        if (closed.get()) session.disconnect(this);
+        return this;
+    }
+
+    /**
+     * Zwraca kolor kamienia przypisany do tego gracza.
+     *
+     * @return Kolor gracza lub {@code null}, jeśli połączenie nie należy jeszcze do sesji.
+     */
+    @Override
+    public Stone getStone() {
+        return stone;
+    }
+
+    /** Zaczyna przekazywać ruchy klienta do sesji. */
+    @Override
+    public void start() {
+        started = true;
+    }
+
+    /**
+     * Koduje stan gry i przekazuje go pętli do wysłania (bez blokowania wywołującego).
+     *
+     * @param state Stan gry.
+     */
+    @Override
+    public void sendState(GameState state) {
+        if (closed.get()) return;
+        if (queued.incrementAndGet() > MAX_QUEUED) {
+            System.out.println("Client too slow, disconnecting: " + stone);
+            close();
+            return;
+        }
+        ByteBuffer buffer = pool.acquire();
+        FrameCodec.encode(state, buffer);
+        buffer.flip();
+        outbox.offer(buffer);
+        loop.requestFlush(this);
+    }
+
+    /** Zamyka połączenie; metoda może być wywołana z dowolnego wątku i wielokrotnie. */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // połączenie i tak jest zakończone
+        }
+        loop.closed(this);
+        GameSession s = session;
+        if (s != null) Thread.ofVirtual().name("disconnect").start(() -> s.disconnect(this));
+    }
+
+    /**
+     * Sprawdza, czy połączenie zostało zamknięte.
+     *
+     * @return {@code true} po zamknięciu.
+     */
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Zwraca kanał połączenia.
+     *
+     * @return Kanał.
+     */
+    SocketChannel channel() {
+        return channel;
+    }
+
+    /**
+     * Zapamiętuje klucz rejestracji (wywoływane przez wątek pętli).
+     *
+     * @param key Klucz w selektorze pętli.
+     */
+    void registered(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Czyta dostępne dane i przekazuje kompletne ramki do sesji (wywoływane przez wątek pętli).
+     *
+     * @param shared Wspólny bufor odczytu pętli.
+     */
+    void read(ByteBuffer shared) {
+        ByteBuffer buffer = pending != null ? pending : shared.clear();
+        try {
+            if (channel.read(buffer) < 0) {
+                disconnect();
+                return;
+            }
+            buffer.flip();
+            Object message;
+            while ((message = FrameCodec.decode(buffer)) != null) dispatch(message);
+        } catch (IOException | IllegalArgumentException e) {
+            disconnect();
+            return;
+        }
+
+        if (!buffer.hasRemaining()) {
+            if (pending != null) {
+                pool.release(pending);
+                pending = null;
+            }
+        } else if (pending == null) {
+            pending = pool.acquire().put(buffer);
+        } else {
+            pending.compact();
+        }
+    }
+
+    /**
+     * Wysyła oczekujące ramki, ile przyjmie gniazdo, i ustawia zainteresowanie zapisem,
+     * jeśli coś zostało (wywoływane przez wątek pętli).
+     */
+    void flush() {
+        if (key == null || closed.get()) return;
+        ByteBuffer head;
+        while ((head = outbox.peek()) != null) {
+            try {
+                channel.write(head);
+            } catch (IOException e) {
+                disconnect();
+                return;
+            }
+            if (head.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            outbox.poll();
+            queued.decrementAndGet();
+            pool.release(head);
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /** Oddaje bufory połączenia do puli po zamknięciu (wywoływane przez wątek pętli). */
+    void releaseBuffers() {
+        if (pending != null) {
+            pool.release(pending);
+            pending = null;
+        }
+        ByteBuffer b;
+        while ((b = outbox.poll()) != null) pool.release(b);
+    }
+
+    /**
+     * Przekazuje odebraną wiadomość do sesji.
+     *
+     * @param message Wiadomość od klienta.
+     */
+    private void dispatch(Object message) {
+        if (!started) return;
+        if (message instanceof Move) session.handleMove((Move) message, this);
+        else if (message == FrameCodec.RESYNC) session.resync(this);
+    }
+
+    /** Zamyka połączenie po rozłączeniu się klienta lub błędzie protokołu. */
+    private void disconnect() {
+        if (!closed.get()) System.out.println("Client disconnected: " + stone);
+        close();
+    }
+}
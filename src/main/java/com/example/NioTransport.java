@@ -0,0 +1,226 @@
+package com.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nieblokujący transport serwera: kilka pętli zdarzeń ({@link Selector}) obsługuje
+ * wszystkie połączenia ({@link NioConnection}) zamiast jednego wątku na połączenie
+ * jak w {@link ClientHandler}.
+ *
+ * Połączenia są przydzielane pętlom po kolei. Pętla czyta ramki ({@link FrameCodec})
+ * i przekazuje ruchy do sesji gry we własnym wątku; obsługa ruchu nie blokuje, bo stan
+ * dla graczy sieciowych jest tylko kolejkowany, a boty liczą w {@link BotExecutor}.
+ * Bufory bezpośrednie pochodzą ze wspólnej puli ({@link BufferPool}).
+ */
+public class NioTransport implements Closeable {
+
+    /** Największa liczba wolnych buforów przechowywanych w puli. */
+    private static final int POOLED_BUFFERS = 1024;
+
+    /** Pętle zdarzeń. */
+    private final EventLoop[] loops;
+
+    /** Pula buforów ramek. */
+    private final BufferPool pool = new BufferPool(FrameCodec.HEADER + FrameCodec.MAX_PAYLOAD, POOLED_BUFFERS);
+
+    /** Liczba otwartych połączeń. */
+    private final AtomicInteger connections = new AtomicInteger();
+
+    /** Numer następnej pętli do przydziału połączenia. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Tworzy transport i uruchamia wątki pętli zdarzeń.
+     *
+     * @param threads Liczba pętli zdarzeń.
+     * @throws IOException jeśli nie można otworzyć selektora.
+     * @throws IllegalArgumentException jeśli liczba pętli nie jest dodatnia.
+     */
+    public NioTransport(int threads) throws IOException {
+        if (threads < 1) throw new IllegalArgumentException("Invalid event loop count: " + threads);
+        loops = new EventLoop[threads];
+        for (int k = 0; k < threads; k++) {
+            loops[k] = new EventLoop(Selector.open());
+            Thread t = new Thread(loops[k], "nio-loop-" + k);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /**
+     * Przejmuje połączenie przyjęte przez serwer i rejestruje je w jednej z pętli.
+     *
+     * @param channel Kanał przyjętego połączenia.
+     * @return Połączenie, które można przekazać sesji jako gracza.
+     * @throws IOException jeśli nie można przełączyć kanału w tryb nieblokujący.
+     */
+    public NioConnection register(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        EventLoop loop = loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+        NioConnection connection = new NioConnection(channel, loop, pool);
+        connections.incrementAndGet();
+        loop.register(connection);
+        return connection;
+    }
+
+    /**
+     * Zwraca liczbę otwartych połączeń.
+     *
+     * @return Liczba połączeń.
+     */
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Zwraca pulę buforów transportu.
+     *
+     * @return Pula buforów.
+     */
+    public BufferPool getBufferPool() {
+        return pool;
+    }
+
+    /** Zatrzymuje pętle zdarzeń i zamyka wszystkie połączenia. */
+    @Override
+    public void close() {
+        for (EventLoop loop : loops) loop.shutdown();
+    }
+
+    /**
+     * Pętla zdarzeń: jeden wątek obsługujący selektor i zarejestrowane w nim połączenia.
+     * Inne wątki przekazują jej pracę przez kolejki i budzą selektor.
+     */
+    final class EventLoop implements Runnable {
+
+        /** Selektor pętli. */
+        private final Selector selector;
+
+        /** Wspólny bufor odczytu wszystkich połączeń pętli. */
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(FrameCodec.HEADER + FrameCodec.MAX_PAYLOAD);
+
+        /** Połączenia oczekujące na rejestrację. */
+        private final ConcurrentLinkedQueue<NioConnection> registrations = new ConcurrentLinkedQueue<>();
+
+        /** Połączenia z nowymi ramkami do wysłania. */
+        private final ConcurrentLinkedQueue<NioConnection> flushes = new ConcurrentLinkedQueue<>();
+
+        /** Połączenia zamknięte przez inne wątki, których bufory trzeba oddać. */
+        private final ConcurrentLinkedQueue<NioConnection> closings = new ConcurrentLinkedQueue<>();
+
+        /** Wątek pętli. */
+        private volatile Thread thread;
+
+        /** Czy pętla ma działać. */
+        private volatile boolean running = true;
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Zleca rejestrację połączenia.
+         *
+         * @param connection Połączenie.
+         */
+        void register(NioConnection connection) {
+            registrations.offer(connection);
+            selector.wakeup();
+        }
+
+        /**
+         * Zleca wysłanie ramek połączenia; w wątku pętli wysyła je od razu.
+         *
+         * @param connection Połączenie.
+         */
+        void requestFlush(NioConnection connection) {
+            if (Thread.currentThread() == thread) {
+                connection.flush();
+            } else {
+                flushes.offer(connection);
+                selector.wakeup();
+            }
+        }
+
+        /**
+         * Odnotowuje zamknięcie połączenia i zwalnia jego bufory w wątku pętli.
+         *
+         * @param connection Zamknięte połączenie.
+         */
+        void closed(NioConnection connection) {
+            connections.decrementAndGet();
+            if (Thread.currentThread() == thread) {
+                connection.releaseBuffers();
+            } else {
+                closings.offer(connection);
+                selector.wakeup();
+            }
+        }
+
+        /** Zatrzymuje pętlę. */
+        void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            try {
+                while (running) {
+                    selector.select();
+                    drainQueues();
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) connection.read(readBuffer);
+                            if (key.isValid() && key.isWritable()) connection.flush();
+                        } catch (RuntimeException e) {
+                            System.err.println("Connection error: " + e.getMessage());
+                            e.printStackTrace();
+                            connection.close();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Event loop error: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                for (SelectionKey key : selector.keys()) ((NioConnection) key.attachment()).close();
+                drainQueues();
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // pętla i tak kończy działanie
+                }
+            }
+        }
+
+        /** Wykonuje pracę zleconą przez inne wątki. */
+        private void drainQueues() {
+            NioConnection c;
+            while ((c = registrations.poll()) != null) {
+                if (c.isClosed()) continue;
+                try {
+                    c.registered(c.channel().register(selector, SelectionKey.OP_READ, c));
+                } catch (IOException e) {
+                    c.close();
+                }
+            }
+            while ((c = flushes.poll()) != null) c.flush();
+            while ((c = closings.poll()) != null) c.releaseBuffers();
+        }
+    }
+}
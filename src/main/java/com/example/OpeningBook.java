@@ -0,0 +1,275 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Księga otwarć: statystyki ruchów zagranych w pierwszych fazach zapisanych partii.
+ *
+ * Pozycje są identyfikowane skrótem postaci kanonicznej ({@link CanonicalHash}),
+ * kolorem gracza na ruchu i rozmiarem planszy, więc obroty i odbicia tej samej pozycji
+ * dzielą statystyki, a ruchy są przechowywane w układzie kanonicznym. Tablica pozycji
+ * używa adresowania otwartego, a ruchy pozycji tworzą listę w tablicach liczb, więc
+ * zapytanie kosztuje jedno wyliczenie skrótu i kilka odczytów tablic (mikrosekundy)
+ * i nie tworzy obiektów.
+ *
+ * Boty pytają księgę przed przeszukiwaniem; jeśli zna ona pozycję, ruch jest
+ * wykonywany natychmiast, bez zużywania czasu na myślenie.
+ */
+public class OpeningBook {
+
+    /** Domyślna liczba początkowych ruchów partii zapisywanych w księdze. */
+    public static final int DEFAULT_MAX_PLY = 30;
+
+    /** Domyślna najmniejsza liczba partii, w których ruch musi wystąpić, aby księga go zagrała. */
+    public static final int DEFAULT_MIN_GAMES = 2;
+
+    /** Wynik {@link #lookup(Board, Stone)}, gdy księga nie zna pozycji. */
+    public static final int NO_MOVE = -2;
+
+    /** Brak pozycji w komórce tablicy lub koniec listy ruchów. */
+    private static final int NONE = -1;
+
+    /** Wspólna księga serwera. */
+    private static OpeningBook shared;
+
+    /** Liczba zapisywanych ruchów od początku partii. */
+    private final int maxPly;
+
+    /** Najmniejsza liczba partii z danym ruchem. */
+    private final int minGames;
+
+    /** Klucze pozycji (adresowanie otwarte). */
+    private long[] keys = new long[1024];
+
+    /** Pierwszy ruch pozycji na liście ruchów ({@link #NONE} – pusta komórka). */
+    private int[] heads = newHeads(1024);
+
+    /** Liczba pozycji. */
+    private int positions;
+
+    /** Ruch wpisu (indeks pola w układzie kanonicznym). */
+    private int[] entryMove = new int[1024];
+
+    /** Następny wpis tej samej pozycji. */
+    private int[] entryNext = new int[1024];
+
+    /** Liczba partii, w których zagrano ruch. */
+    private int[] entryGames = new int[1024];
+
+    /** Liczba tych partii wygranych przez gracza wykonującego ruch. */
+    private int[] entryWins = new int[1024];
+
+    /** Liczba wpisów. */
+    private int entries;
+
+    /** Silnik reguł do odtwarzania partii. */
+    private final RulesEngine rules = new RulesEngine();
+
+    /** Tworzy pustą księgę z domyślnymi ustawieniami. */
+    public OpeningBook() {
+        this(DEFAULT_MAX_PLY, DEFAULT_MIN_GAMES);
+    }
+
+    /**
+     * Tworzy pustą księgę.
+     *
+     * @param maxPly   Liczba zapisywanych ruchów od początku partii.
+     * @param minGames Najmniejsza liczba partii, w których ruch musi wystąpić.
+     * @throws IllegalArgumentException jeśli parametry nie są dodatnie.
+     */
+    public OpeningBook(int maxPly, int minGames) {
+        if (maxPly < 1 || minGames < 1)
+            throw new IllegalArgumentException("Invalid opening book: " + maxPly + " plies, " + minGames + " games");
+        this.maxPly = maxPly;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Zwraca wspólną księgę serwera (domyślnie pustą).
+     *
+     * @return Wspólna księga.
+     */
+    public static synchronized OpeningBook shared() {
+        if (shared == null) shared = new OpeningBook();
+        return shared;
+    }
+
+    /**
+     * Ustawia wspólną księgę serwera.
+     *
+     * @param book Księga używana przez wszystkie boty.
+     */
+    public static synchronized void setShared(OpeningBook book) {
+        shared = book;
+    }
+
+    /**
+     * Tworzy księgę z partii zapisanych w pliku SGF lub w katalogu plików SGF.
+     *
+     * @param path Plik lub katalog.
+     * @return Księga z wczytanymi partiami.
+     * @throws IOException w przypadku błędu dostępu do plików.
+     */
+    public static OpeningBook load(Path path) throws IOException {
+        OpeningBook book = new OpeningBook();
+        for (GameRecord game : GameRecord.load(path)) book.add(game);
+        return book;
+    }
+
+    /**
+     * Dodaje do księgi początkowe ruchy partii. Odtwarzanie kończy się na pierwszym
+     * pasie, rezygnacji lub ruchu niedozwolonym.
+     *
+     * @param game Zapis partii.
+     */
+    public synchronized void add(GameRecord game) {
+        Board board = new Board(game.size);
+        CanonicalHash canonical = board.trackSymmetries();
+        Stone toMove = Stone.BLACK;
+        int plies = Math.min(maxPly, game.getMoves().size());
+        for (int k = 0; k < plies; k++) {
+            Move m = game.getMoves().get(k);
+            if (m.pass || m.resign || !board.inBounds(m.x, m.y)) break;
+            long key = key(canonical, game.size, toMove);
+            int move = canonical.toCanonical(board.index(m.x, m.y));
+            if (rules.play(board, m.x, m.y, toMove) == null) break;
+            record(key, move, toMove == game.winner);
+            toMove = toMove.opposite();
+        }
+    }
+
+    /**
+     * Szuka ruchu księgi w pozycji: najczęściej granego ruchu (przy remisie – częściej
+     * wygrywającego), który wystąpił w co najmniej {@code minGames} partiach.
+     * Skróty symetrii są liczone jednorazowo, bez dołączania trackera do planszy, więc
+     * późniejsze ruchy na niej (np. czytanie drabin) nie aktualizują ośmiu skrótów.
+     * Wywołujący sprawdza legalność ruchu (np. regułę superko) w swojej partii.
+     *
+     * @param board  Pozycja.
+     * @param toMove Gracz na ruchu.
+     * @return Indeks pola ruchu na planszy lub {@link #NO_MOVE}.
+     */
+    public synchronized int lookup(Board board, Stone toMove) {
+        if (positions == 0) return NO_MOVE;
+        CanonicalHash canonical = new CanonicalHash(board);
+        int slot = find(key(canonical, board.getSize(), toMove));
+        if (heads[slot] == NONE) return NO_MOVE;
+
+        int best = NONE;
+        for (int e = heads[slot]; e != NONE; e = entryNext[e]) {
+            if (entryGames[e] < minGames) continue;
+            if (best == NONE || entryGames[e] > entryGames[best]
+                    || (entryGames[e] == entryGames[best] && entryWins[e] > entryWins[best])) best = e;
+        }
+        return best == NONE ? NO_MOVE : canonical.fromCanonical(entryMove[best]);
+    }
+
+    /**
+     * Zwraca liczbę pozycji w księdze.
+     *
+     * @return Liczba pozycji.
+     */
+    public synchronized int size() {
+        return positions;
+    }
+
+    /**
+     * Wyznacza klucz pozycji.
+     *
+     * @param canonical Skróty symetrii pozycji.
+     * @param size      Rozmiar planszy.
+     * @param toMove    Gracz na ruchu.
+     * @return Klucz pozycji.
+     */
+    private static long key(CanonicalHash canonical, int size, Stone toMove) {
+        return TranspositionTable.key(canonical.canonicalHash(), Board.code(toMove), size);
+    }
+
+    /**
+     * Zwiększa statystyki ruchu w pozycji, dodając pozycję lub ruch, jeśli ich nie ma.
+     *
+     * @param key  Klucz pozycji.
+     * @param move Ruch w układzie kanonicznym.
+     * @param won  Czy gracz wykonujący ruch wygrał partię.
+     */
+    private void record(long key, int move, boolean won) {
+        int slot = find(key);
+        if (heads[slot] == NONE) {
+            keys[slot] = key;
+            heads[slot] = newEntry(move);
+            if (++positions * 2 > keys.length) grow();
+            slot = find(key);
+        }
+        int e = heads[slot];
+        while (entryMove[e] != move && entryNext[e] != NONE) e = entryNext[e];
+        if (entryMove[e] != move) {
+            int added = newEntry(move);
+            entryNext[added] = heads[slot];
+            heads[slot] = added;
+            e = added;
+        }
+        entryGames[e]++;
+        if (won) entryWins[e]++;
+    }
+
+    /**
+     * Dodaje pusty wpis ruchu.
+     *
+     * @param move Ruch w układzie kanonicznym.
+     * @return Numer wpisu.
+     */
+    private int newEntry(int move) {
+        if (entries == entryMove.length) {
+            int n = 2 * entries;
+            entryMove = Arrays.copyOf(entryMove, n);
+            entryNext = Arrays.copyOf(entryNext, n);
+            entryGames = Arrays.copyOf(entryGames, n);
+            entryWins = Arrays.copyOf(entryWins, n);
+        }
+        entryMove[entries] = move;
+        entryNext[entries] = NONE;
+        return entries++;
+    }
+
+    /**
+     * Znajduje komórkę pozycji lub pustą komórkę, w której należy ją umieścić.
+     *
+     * @param key Klucz pozycji.
+     * @return Numer komórki.
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int i = (int) (h ^ (h >>> 32)) & mask;
+        while (heads[i] != NONE && keys[i] != key) i = (i + 1) & mask;
+        return i;
+    }
+
+    /** Podwaja tablicę pozycji. */
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        keys = new long[oldKeys.length * 2];
+        heads = newHeads(keys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] == NONE) continue;
+            int slot = find(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            heads[slot] = oldHeads[i];
+        }
+    }
+
+    /**
+     * Tworzy tablicę pustych komórek.
+     *
+     * @param n Rozmiar tablicy.
+     * @return Tablica wypełniona {@link #NONE}.
+     */
+    private static int[] newHeads(int n) {
+        int[] h = new int[n];
+        Arrays.fill(h, NONE);
+        return h;
+    }
+}
@@ -1,12 +1,22 @@
 package com.example;
 
+import java.util.function.Supplier;
+
 public interface Player {
-    /** Wysyła stan gry do gracza (przez sieć lub do bota) */
-    void sendState(GameState state);
+    /**
+     * Przekazuje graczowi stan gry. Gracz pobiera tylko potrzebną mu postać stanu:
+     * lokalny ({@link LocalPlayer}) niezmienny {@link GameView}, a sieciowy
+     * ({@link RemotePlayer}) {@link GameState} do wysłania. Dostawców wolno użyć
+     * wyłącznie w trakcie wywołania, co najwyżej raz.
+     *
+     * @param view  Dostawca stanu dla gracza lokalnego.
+     * @param state Dostawca stanu dla gracza sieciowego.
+     */
+    void deliver(Supplier<GameView> view, Supplier<GameState> state);
 
     /** Zwraca kolor gracza */
     Stone getStone();
 
     /** Rozpoczyna działanie gracza */
     void start();
-}
\ No newline at end of file
+}
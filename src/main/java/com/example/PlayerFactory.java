@@ -0,0 +1,18 @@
+package com.example;
+
+/**
+ * Tworzy gracza działającego po stronie serwera (np. bota) dla danej sesji gry.
+ * Pozwala sesji przyjmować różne implementacje {@link Player} bez znajomości ich konstruktorów.
+ */
+@FunctionalInterface
+public interface PlayerFactory {
+
+    /**
+     * Tworzy gracza.
+     *
+     * @param stone   Kolor kamieni gracza.
+     * @param session Sesja gry, do której gracz należy.
+     * @return Nowy gracz.
+     */
+    Player create(Stone stone, GameSession session);
+}
@@ -0,0 +1,17 @@
+package com.example;
+
+/**
+ * Historia pozycji partii na potrzeby pozycyjnej reguły superko.
+ * Udostępniana przez sesję gry ({@link GameSession}) oraz przez niezmienny
+ * stan gry przekazywany lokalnym graczom ({@link GameView}).
+ */
+public interface PositionHistory {
+
+    /**
+     * Sprawdza, czy pozycja o podanym skrócie wystąpiła już w partii.
+     *
+     * @param hash Skrót Zobrista pozycji.
+     * @return {@code true}, jeśli pozycja się powtarza.
+     */
+    boolean isRepeatedPosition(long hash);
+}
@@ -0,0 +1,30 @@
+package com.example;
+
+import java.util.function.Supplier;
+
+/**
+ * Gracz połączony przez sieć ({@link ClientHandler}, {@link NioConnection}).
+ *
+ * Sesja przekazuje mu {@link GameState}, który gracz koduje ({@link FrameCodec})
+ * i wysyła klientowi; {@link GameView} nie jest tworzony.
+ */
+public interface RemotePlayer extends Player {
+
+    /**
+     * Wysyła stan gry do klienta.
+     *
+     * @param state Stan gry.
+     */
+    void sendState(GameState state);
+
+    /**
+     * Pobiera {@link GameState} i przekazuje go do {@link #sendState(GameState)}.
+     *
+     * @param view  Dostawca stanu dla gracza lokalnego (nieużywany).
+     * @param state Dostawca stanu dla gracza sieciowego.
+     */
+    @Override
+    default void deliver(Supplier<GameView> view, Supplier<GameState> state) {
+        sendState(state.get());
+    }
+}
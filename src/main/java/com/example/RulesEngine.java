@@ -1,10 +1,13 @@
 package com.example;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * Odpowiada za sprawdzanie poprawności ruchów
- * oraz egzekwowanie reguł gry Go.
+ * oraz egzekwowanie reguł gry Go (w tym pozycyjnego superko).
+ * Silnik działa na dowolnej implementacji {@link GoBoard}: dla {@link Board}
+ * bicie i samobójstwo są rozstrzygane na podstawie struktury łańcuchów utrzymywanej
+ * przyrostowo, a dla {@link BitBoard} operacjami bitowymi na całych łańcuchach.
  */
 public class RulesEngine {
 
@@ -17,176 +20,282 @@ public class RulesEngine {
      * @param session Sesja gry (obsługa reguły Ko i jeńców).
      * @return true, jeśli ruch jest poprawny, w przeciwnym razie false.
      */
-    public boolean applyMove(Board board, Move move, Stone stone, GameSession session) {
-        int x = move.x;
-        int y = move.y;
-
+    public boolean applyMove(GoBoard board, Move move, Stone stone, GameSession session) {
         /**
-         * Sprawdzenie, czy ruch mieści się w granicach planszy
-         * oraz czy pole jest puste.
+         * Wykonanie ruchu (granice planszy, zajęte pole, samobójstwo, bicie).
          */
-        if (!board.inBounds(x, y)) return false;
-        if (board.get(x, y) != Stone.EMPTY) return false;
+        MoveRecord record = play(board, move.x, move.y, stone);
+        if (record == null) return false;
 
         /**
-         * Zapisanie stanu planszy przed ruchem
-         * (potrzebne do cofnięcia ruchu i reguły Ko).
+         * Sprawdzenie reguły (pozycyjnego) superko:
+         * pozycja po ruchu nie może powtórzyć żadnej wcześniejszej pozycji.
+         * Naruszający ją ruch jest cofany na podstawie zapisu ruchu.
          */
-        Board beforeMove = board.copy();
-
-        /**
-         * Postawienie kamienia na planszy.
-         */
-        board.set(x, y, stone);
+        if (session.isRepeatedPosition(board.getHash())) {
+            undo(board, record);
+            return false;
+        }
 
         /**
-         * Licznik zbitych kamieni przeciwnika.
+         * Zapamiętanie nowej pozycji w historii partii.
          */
-        int captured = 0;
+        session.recordPosition(board.getHash());
 
         /**
-         * Sprawdzenie i ewentualne zbicie łańcuchów przeciwnika.
+         * Dodanie jeńców do odpowiedniego gracza.
          */
-        for (int[] n : neighbors(x, y)) {
-            int nx = n[0], ny = n[1];
-            if (!board.inBounds(nx, ny)) continue;
-
-            if (board.get(nx, ny) == stone.opposite()) {
-                Set<Point> chain = collectChain(board, nx, ny);
-                if (!hasLiberty(board, chain)) {
-                    removeChain(board, chain);
-                    captured += chain.size();
-                }
-            }
+        for (int k = 0; k < record.getCapturedCount(); k++) {
+            session.addPrisoner(stone);
         }
 
+        return true;
+    }
+
+    /**
+     * Wykonuje ruch na planszy bez sprawdzania reguły superko i zwraca jego zapis,
+     * który pozwala cofnąć ruch metodą {@link #undo(GoBoard, MoveRecord)}.
+     *
+     * @param board Plansza gry.
+     * @param x     Współrzędna X ruchu.
+     * @param y     Współrzędna Y ruchu.
+     * @param stone Kamień gracza wykonującego ruch.
+     * @return Zapis ruchu lub {@code null}, jeśli ruch jest niedozwolony
+     * (poza planszą, na zajętym polu lub samobójczy).
+     */
+    public MoveRecord play(GoBoard board, int x, int y, Stone stone) {
+        if (!board.inBounds(x, y)) return null;
+        MoveRecord record = new MoveRecord();
+        return play(board, board.index(x, y), Board.code(stone), record) ? record : null;
+    }
+
+    /**
+     * Wykonuje ruch na planszy bez sprawdzania reguły superko, zapisując go
+     * do podanego (wielokrotnego użytku) obiektu. Wariant bez alokacji dla przeszukiwania.
+     *
+     * @param board  Plansza gry.
+     * @param i      Indeks pola ruchu.
+     * @param color  Kod koloru kamienia.
+     * @param record Obiekt, do którego zostanie zapisany ruch.
+     * @return {@code true}, jeśli ruch został wykonany.
+     */
+    public boolean play(GoBoard board, int i, byte color, MoveRecord record) {
+        if (board.at(i) != Board.EMPTY) return false;
+
         /**
          * Sprawdzenie samobójstwa kamienia
          * (dozwolone tylko, jeśli coś zostało zbite).
          */
-        Set<Point> myChain = collectChain(board, x, y);
-        if (!hasLiberty(board, myChain) && captured == 0) {
-            restoreBoard(board, beforeMove);
-            return false;
-        }
+        if (isSuicide(board, i, color)) return false;
 
         /**
-         * Sprawdzenie reguły Ko.
+         * Postawienie kamienia na planszy
+         * oraz zbicie łańcuchów przeciwnika pozbawionych oddechów.
          */
-        Board prev = session.getPreviousBoard();
-        if (prev != null && board.equals(prev)) {
-            restoreBoard(board, beforeMove);
-            return false;
+        record.reset(i, color);
+        board.placeStone(i, color);
+        byte opponent = color == Board.BLACK ? Board.WHITE : Board.BLACK;
+        int stride = board.getStride();
+        captureAt(board, i + 1, opponent, record);
+        captureAt(board, i - 1, opponent, record);
+        captureAt(board, i + stride, opponent, record);
+        captureAt(board, i - stride, opponent, record);
+        return true;
+    }
+
+    /**
+     * Cofa ruch wykonany metodą {@code play}: zdejmuje postawiony kamień
+     * i przywraca zbite kamienie przeciwnika. Ruchy należy cofać w odwrotnej
+     * kolejności niż zostały wykonane.
+     *
+     * @param board  Plansza gry.
+     * @param record Zapis cofanego ruchu.
+     */
+    public void undo(GoBoard board, MoveRecord record) {
+        board.removeStone(record.getPoint());
+        byte opponent = record.getColor() == Board.BLACK ? Board.WHITE : Board.BLACK;
+        for (int k = 0; k < record.getCapturedCount(); k++) {
+            board.placeStone(record.getCaptured(k), opponent);
         }
+    }
 
-        /**
-         * Zapamiętanie poprzedniego stanu planszy
-         * do sprawdzania reguły Ko w następnym ruchu.
-         */
-        session.setPreviousBoard(beforeMove);
+    /**
+     * Wyznacza wszystkie legalne ruchy gracza bez modyfikowania planszy.
+     * Samobójstwo jest rozstrzygane na podstawie oddechów sąsiednich łańcuchów,
+     * a reguła superko na podstawie przewidzianego skrótu pozycji po ruchu
+     * (skrót planszy, klucz nowego kamienia i skróty zbijanych łańcuchów).
+     *
+     * @param board   Plansza gry.
+     * @param stone   Kamień gracza wykonującego ruch.
+     * @param session Historia pozycji lub {@code null}, aby pominąć regułę superko.
+     * @return Indeksy pól (w układzie z ramką) wszystkich legalnych ruchów.
+     */
+    public int[] legalMoves(GoBoard board, Stone stone, PositionHistory session) {
+        int[] out = new int[board.getSize() * board.getSize()];
+        int n = legalMoves(board, stone, session, out);
+        return Arrays.copyOf(out, n);
+    }
 
-        /**
-         * Dodanie jeńców do odpowiedniego gracza.
-         */
-        for (int i = 0; i < captured; i++) {
-            session.addPrisoner(stone);
+    /**
+     * Wariant {@link #legalMoves(GoBoard, Stone, PositionHistory)} zapisujący wynik
+     * do podanego bufora, bez alokacji pamięci.
+     *
+     * @param board   Plansza gry.
+     * @param stone   Kamień gracza wykonującego ruch.
+     * @param session Historia pozycji lub {@code null}, aby pominąć regułę superko.
+     * @param out     Bufor o długości co najmniej {@code size * size}.
+     * @return Liczba legalnych ruchów zapisanych w buforze.
+     */
+    public int legalMoves(GoBoard board, Stone stone, PositionHistory session, int[] out) {
+        byte color = Board.code(stone);
+        int n = 0;
+        for (int i : Adjacency.forSize(board.getSize()).points) {
+            if (isLegal(board, i, color, session)) out[n++] = i;
         }
+        return n;
+    }
 
-        return true;
+    /**
+     * Sprawdza legalność ruchu bez modyfikowania planszy.
+     *
+     * @param board   Plansza gry.
+     * @param i       Indeks pola ruchu.
+     * @param color   Kod koloru kamienia.
+     * @param session Historia pozycji lub {@code null}, aby pominąć regułę superko.
+     * @return {@code true}, jeśli ruch jest legalny.
+     */
+    public boolean isLegal(GoBoard board, int i, byte color, PositionHistory session) {
+        if (board.at(i) != Board.EMPTY) return false;
+        if (isSuicide(board, i, color)) return false;
+        return session == null || !session.isRepeatedPosition(hashAfter(board, i, color));
     }
 
     /**
-     * Zbiera cały łańcuch połączonych kamieni tego samego koloru.
+     * Przewiduje skrót pozycji po postawieniu kamienia (wraz z biciami),
+     * nie modyfikując planszy. Ruch musi być dozwolony (puste pole, bez samobójstwa).
      *
      * @param board Plansza gry.
-     * @param x     Współrzędna początkowa X.
-     * @param y     Współrzędna początkowa Y.
-     * @return Zbiór punktów należących do jednego łańcucha.
+     * @param i     Indeks pola ruchu.
+     * @param color Kod koloru kamienia.
+     * @return Skrót Zobrista pozycji po ruchu.
      */
-    private Set<Point> collectChain(Board board, int x, int y) {
-        Stone color = board.get(x, y);
-        Set<Point> chain = new HashSet<>();
-        Queue<Point> q = new LinkedList<>();
-
-        Point start = new Point(x, y);
-        chain.add(start);
-        q.add(start);
-
-        while (!q.isEmpty()) {
-            Point p = q.poll();
-            for (int[] n : neighbors(p.x, p.y)) {
-                int nx = n[0], ny = n[1];
-                Point np = new Point(nx, ny);
-
-                if (board.inBounds(nx, ny)
-                        && board.get(nx, ny) == color
-                        && !chain.contains(np)) {
-                    chain.add(np);
-                    q.add(np);
-                }
-            }
-        }
-        return chain;
+    public long hashAfter(GoBoard board, int i, byte color) {
+        long h = board.getHash() ^ board.zobristKey(i, color);
+        byte opponent = color == Board.BLACK ? Board.WHITE : Board.BLACK;
+        int stride = board.getStride();
+        int right = i + 1, left = i - 1, down = i + stride, up = i - stride;
+        h ^= capturedHash(board, opponent, right, -1, -1, -1);
+        h ^= capturedHash(board, opponent, left, right, -1, -1);
+        h ^= capturedHash(board, opponent, down, right, left, -1);
+        h ^= capturedHash(board, opponent, up, right, left, down);
+        return h;
+    }
+
+    /**
+     * Zwraca skrót łańcucha przeciwnika, który zostanie zbity ruchem obok niego,
+     * pomijając łańcuchy już uwzględnione przy wcześniej sprawdzonych sąsiadach.
+     *
+     * @param board    Plansza gry.
+     * @param opponent Kod koloru przeciwnika.
+     * @param n        Indeks sąsiedniego pola.
+     * @param p1       Indeks wcześniej sprawdzonego sąsiada lub -1.
+     * @param p2       Indeks wcześniej sprawdzonego sąsiada lub -1.
+     * @param p3       Indeks wcześniej sprawdzonego sąsiada lub -1.
+     * @return Skrót zbijanego łańcucha lub 0.
+     */
+    private long capturedHash(GoBoard board, byte opponent, int n, int p1, int p2, int p3) {
+        if (board.at(n) != opponent || !board.inAtari(n)) return 0;
+        if (joins(board, n, p1) || joins(board, n, p2) || joins(board, n, p3)) return 0;
+        return board.chainHash(n);
     }
 
     /**
-     * Sprawdza, czy dany łańcuch ma przynajmniej jeden oddech.
+     * Sprawdza, czy dwa pola zajmują kamienie tego samego łańcucha.
      *
      * @param board Plansza gry.
-     * @param chain Łańcuch kamieni.
-     * @return true, jeśli łańcuch ma oddech.
+     * @param n     Indeks pierwszego pola.
+     * @param p     Indeks drugiego pola lub -1.
+     * @return {@code true}, jeśli oba pola należą do jednego łańcucha.
      */
-    private boolean hasLiberty(Board board, Set<Point> chain) {
-        for (Point p : chain) {
-            for (int[] n : neighbors(p.x, p.y)) {
-                int nx = n[0], ny = n[1];
-                if (board.inBounds(nx, ny)
-                        && board.get(nx, ny) == Stone.EMPTY) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    private boolean joins(GoBoard board, int n, int p) {
+        return p >= 0 && board.at(p) == board.at(n) && board.sameChain(n, p);
     }
 
     /**
-     * Usuwa wszystkie kamienie należące do danego łańcucha.
+     * Sprawdza, czy ruch na pustym polu zbija jakiś łańcuch przeciwnika.
      *
      * @param board Plansza gry.
-     * @param chain Łańcuch do usunięcia.
+     * @param i     Indeks pola ruchu.
+     * @param color Kod koloru kamienia.
+     * @return {@code true}, jeśli sąsiedni łańcuch przeciwnika jest w atari.
      */
-    private void removeChain(Board board, Set<Point> chain) {
-        for (Point p : chain) {
-            board.set(p.x, p.y, Stone.EMPTY);
-        }
+    public boolean isCapture(GoBoard board, int i, byte color) {
+        byte opponent = color == Board.BLACK ? Board.WHITE : Board.BLACK;
+        int stride = board.getStride();
+        return atariOf(board, i + 1, opponent)
+                || atariOf(board, i - 1, opponent)
+                || atariOf(board, i + stride, opponent)
+                || atariOf(board, i - stride, opponent);
+    }
+
+    /**
+     * Sprawdza, czy na polu stoi łańcuch danego koloru będący w atari.
+     *
+     * @param board Plansza gry.
+     * @param n     Indeks pola.
+     * @param color Kod koloru.
+     * @return {@code true}, jeśli łańcuch jest w atari.
+     */
+    private boolean atariOf(GoBoard board, int n, byte color) {
+        return board.at(n) == color && board.inAtari(n);
     }
 
     /**
-     * Zwraca listę sąsiadów danego pola
-     * (góra, dół, lewo, prawo).
+     * Sprawdza, czy postawienie kamienia na pustym polu byłoby samobójstwem.
+     * Ruch jest dozwolony, jeśli pole ma pustego sąsiada, łączy się z własnym
+     * łańcuchem mającym inny oddech albo bije łańcuch przeciwnika będący w atari.
      *
-     * @param x Współrzędna X.
-     * @param y Współrzędna Y.
-     * @return Lista sąsiednich pól.
+     * @param board Plansza gry.
+     * @param i     Indeks pustego pola.
+     * @param color Kod koloru stawianego kamienia.
+     * @return true, jeśli ruch byłby samobójstwem.
+     */
+    private boolean isSuicide(GoBoard board, int i, byte color) {
+        int stride = board.getStride();
+        return !breathes(board, i + 1, color)
+                && !breathes(board, i - 1, color)
+                && !breathes(board, i + stride, color)
+                && !breathes(board, i - stride, color);
+    }
+
+    /**
+     * Sprawdza, czy sąsiednie pole zapewni oddech kamieniowi postawionemu obok.
+     *
+     * @param board Plansza gry.
+     * @param n     Indeks sąsiedniego pola.
+     * @param color Kod koloru stawianego kamienia.
+     * @return true, jeśli sąsiad jest pusty, jest własnym łańcuchem z innym oddechem
+     * lub jest łańcuchem przeciwnika w atari (zostanie zbity).
      */
-    private List<int[]> neighbors(int x, int y) {
-        List<int[]> list = new ArrayList<>();
-        list.add(new int[]{x + 1, y});
-        list.add(new int[]{x - 1, y});
-        list.add(new int[]{x, y + 1});
-        list.add(new int[]{x, y - 1});
-        return list;
+    private boolean breathes(GoBoard board, int n, byte color) {
+        byte c = board.at(n);
+        if (c == Board.EMPTY) return true;
+        if (c == Board.BORDER) return false;
+        return (c == color) != board.inAtari(n);
     }
 
     /**
-     * Przywraca planszę do wcześniejszego stanu.
+     * Zbija łańcuch przeciwnika na wskazanym polu, jeśli nie ma on oddechów,
+     * i dopisuje zbite kamienie do zapisu ruchu.
      *
-     * @param board    Plansza do przywrócenia.
-     * @param snapshot Poprzedni zapis planszy.
+     * @param board    Plansza gry.
+     * @param n        Indeks pola.
+     * @param opponent Kod koloru przeciwnika.
+     * @param record   Zapis bieżącego ruchu.
      */
-    private void restoreBoard(Board board, Board snapshot) {
-        for (int x = 0; x < board.getSize(); x++)
-            for (int y = 0; y < board.getSize(); y++)
-                board.set(x, y, snapshot.get(x, y));
+    private void captureAt(GoBoard board, int n, byte opponent, MoveRecord record) {
+        if (board.at(n) != opponent || board.hasLiberties(n)) return;
+        record.ensureCapacity(board.chainSize(n));
+        record.addCaptured(board.removeChain(n, record.capturedBuffer(), record.getCapturedCount()));
     }
-}
\ No newline at end of file
+}
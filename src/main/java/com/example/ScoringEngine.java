@@ -1,42 +1,59 @@
 package com.example;
 
-import java.util.*;
-
 /**
  * Silnik odpowiedzialny za obliczanie końcowego wyniku partii.
  * Wykorzystuje algorytm wypełniania do identyfikacji terytoriów
  * otoczonych przez poszczególne kolory kamieni.
+ * Sąsiedzi pól są odczytywani z tablic {@link Adjacency}, a bufory robocze
+ * są wielokrotnie używane, więc liczenie wyniku nie tworzy nowych obiektów
+ * (poza samym wynikiem). Instancja nie jest bezpieczna wielowątkowo.
  */
 public class ScoringEngine {
 
+    /** Bit koloru czarnego w masce kolorów graniczących z obszarem. */
+    private static final int TOUCHES_BLACK = 1;
+
+    /** Bit koloru białego w masce kolorów graniczących z obszarem. */
+    private static final int TOUCHES_WHITE = 2;
+
+    /** Znaczniki pól odwiedzonych w bieżącym liczeniu (porównywane z {@link #epoch}). */
+    private int[] visited = new int[0];
+
+    /** Kolejka pól wypełniania. */
+    private int[] queue = new int[0];
+
+    /** Bieżąca wartość znacznika odwiedzin. */
+    private int epoch;
+
     /**
      * Oblicza końcowy wynik gry na podstawie aktualnego stanu planszy.
      * Wynik uwzględnia terytorium (puste pola otoczone wyłącznie przez jeden kolor),
      * liczbę zbitych kamieni oraz komi.
      *
      *
-     * @param board          Aktualny stan planszy {@link Board}.
+     * @param board          Aktualny stan planszy (dowolna implementacja {@link GoBoard}).
      * @param blackPrisoners Liczba białych kamieni zbitych przez czarnego gracza.
      * @param whitePrisoners Liczba czarnych kamieni zbitych przez białego gracza.
      * @param komi           Punkty dodatkowe dla białego gracza (wyrównanie szans).
      * @return Obiekt {@link ScoringResult} zawierający końcową punktację obu graczy.
      */
-    public ScoringResult score(Board board, int blackPrisoners, int whitePrisoners, float komi) {
+    public ScoringResult score(GoBoard board, int blackPrisoners, int whitePrisoners, float komi) {
+        Adjacency adj = Adjacency.forSize(board.getSize());
+        prepare(adj.count.length);
+        int mark = ++epoch;
 
-        boolean[][] visited = new boolean[board.getSize()][board.getSize()];
         int blackTerritory = 0;
         int whiteTerritory = 0;
 
-        for (int x = 0; x < board.getSize(); x++) {
-            for (int y = 0; y < board.getSize(); y++) {
-                if (board.get(x, y) == Stone.EMPTY && !visited[x][y]) {
-                    Territory t = floodTerritory(board, x, y, visited);
+        for (int i : adj.points) {
+            if (board.at(i) == Board.EMPTY && visited[i] != mark) {
+                int region = floodTerritory(board, adj, i, mark);
+                int size = region >>> 2;
 
-                    if (t.owner == Stone.BLACK)
-                        blackTerritory += t.size;
-                    else if (t.owner == Stone.WHITE)
-                        whiteTerritory += t.size;
-                }
+                if ((region & 3) == TOUCHES_BLACK)
+                    blackTerritory += size;
+                else if ((region & 3) == TOUCHES_WHITE)
+                    whiteTerritory += size;
             }
         }
 
@@ -51,75 +68,51 @@ public class ScoringEngine {
      * Obszar jest uznawany za terytorium danego koloru tylko wtedy, gdy styka się
      * wyłącznie z kamieniami tego samego koloru.
      *
-     * @param board   Plansza do analizy.
-     * @param sx      Współrzędna początkowa X.
-     * @param sy      Współrzędna początkowa Y.
-     * @param visited Tablica pól już odwiedzonych podczas bieżącej sesji punktowania.
-     * @return Obiekt {@link Territory} zawierający kolor właściciela obszaru i jego rozmiar.
+     * @param board Plansza do analizy.
+     * @param adj   Tablica sąsiedztwa planszy.
+     * @param start Indeks pola początkowego.
+     * @param mark  Znacznik odwiedzin bieżącego liczenia.
+     * @return Rozmiar obszaru przesunięty o 2 bity, połączony z maską kolorów
+     * graniczących ({@link #TOUCHES_BLACK}, {@link #TOUCHES_WHITE}).
      */
-    private Territory floodTerritory(Board board, int sx, int sy, boolean[][] visited) {
-        Set<Stone> borderingColors = new HashSet<>();
-        int count = 0;
-
-        Queue<Point> q = new LinkedList<>();
-        q.add(new Point(sx, sy));
-        visited[sx][sy] = true;
-
-        while (!q.isEmpty()) {
-            Point p = q.poll();
-            count++;
-
-            for (int[] n : neighbors(p.x, p.y)) {
-                int nx = n[0], ny = n[1];
-                if (!board.inBounds(nx, ny)) continue;
-
-                Stone s = board.get(nx, ny);
-                if (s == Stone.EMPTY) {
-                    if (!visited[nx][ny]) {
-                        visited[nx][ny] = true;
-                        q.add(new Point(nx, ny));
+    private int floodTerritory(GoBoard board, Adjacency adj, int start, int mark) {
+        int touches = 0;
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = start;
+        visited[start] = mark;
+
+        while (head < tail) {
+            int p = queue[head++];
+
+            for (int k = adj.start(p), end = k + adj.count[p]; k < end; k++) {
+                int n = adj.neighbors[k];
+                byte c = board.at(n);
+                if (c == Board.EMPTY) {
+                    if (visited[n] != mark) {
+                        visited[n] = mark;
+                        queue[tail++] = n;
                     }
                 } else {
-                    borderingColors.add(s);
+                    touches |= c == Board.BLACK ? TOUCHES_BLACK : TOUCHES_WHITE;
                 }
             }
         }
 
-        if (borderingColors.size() != 1) {
-            return new Territory(Stone.EMPTY, 0);
-        }
-
-        return new Territory(borderingColors.iterator().next(), count);
+        return (tail << 2) | touches;
     }
 
     /**
-     * Pomocnicza klasa wewnętrzna reprezentująca wyliczony obszar terytorium.
-     */
-    private static class Territory {
-        /** Właściciel terytorium. */
-        Stone owner;
-        /** Liczba pól. */
-        int size;
-
-        Territory(Stone owner, int size) {
-            this.owner = owner;
-            this.size = size;
-        }
-    }
-
-    /**
-     * Generuje listę współrzędnych sąsiadujących dla punktu.
+     * Zapewnia bufory robocze odpowiedniej długości.
      *
-     * @param x Współrzędna X pola.
-     * @param y Współrzędna Y pola.
-     * @return Lista tablic dwuelementowych zawierających współrzędne sąsiadów.
+     * @param cells Liczba pól planszy łącznie z ramką.
      */
-    private List<int[]> neighbors(int x, int y) {
-        List<int[]> list = new ArrayList<>();
-        list.add(new int[]{x + 1, y});
-        list.add(new int[]{x - 1, y});
-        list.add(new int[]{x, y + 1});
-        list.add(new int[]{x, y - 1});
-        return list;
+    private void prepare(int cells) {
+        if (visited.length < cells) {
+            visited = new int[cells];
+            queue = new int[cells];
+            epoch = 0;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,442 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Rozgrywa partie między dwoma graczami działającymi w procesie serwera, bez gniazd
+ * sieciowych i bez interfejsu graficznego (np. do testów obciążeniowych i porównywania botów).
+ *
+ * Każda partia to zwykła {@link GameSession}, której gracze są opakowani w "miejsca przy
+ * stole": miejsce przekazuje stan gry graczowi, mierzy czas jego odpowiedzi, po
+ * przekroczeniu limitu długości partii pasuje za gracza, a w fazie punktacji od razu ją
+ * kończy. Wiele partii toczy się równolegle; obliczenia botów wykonuje wspólna pula
+ * {@link BotExecutor}, więc skalują się z liczbą rdzeni.
+ *
+ * Raport podaje liczbę partii i ruchów na sekundę, odsetek wygranych czarnego
+ * z 95-procentowym przedziałem ufności (Wilsona) i percentyle czasu odpowiedzi na ruch.
+ */
+public class SelfPlay {
+
+    /** Limit czasu na jedną partię, po którym jest ona liczona jako nierozstrzygnięta. */
+    private static final long GAME_TIMEOUT_MINUTES = 10;
+
+    /** Liczba odrzuconych ruchów z rzędu, po której miejsce pasuje za gracza. */
+    private static final int MAX_REJECTED_MOVES = 3;
+
+    /** Kwantyl rozkładu normalnego dla 95-procentowego przedziału ufności. */
+    private static final double Z95 = 1.96;
+
+    /** Fabryka gracza czarnego. */
+    private final PlayerFactory blackFactory;
+
+    /** Fabryka gracza białego. */
+    private final PlayerFactory whiteFactory;
+
+    /** Rozmiar planszy. */
+    private final int size;
+
+    /** Liczba ruchów, po której gracze są zmuszani do pasowania. */
+    private final int maxMoves;
+
+    /** Liczba wygranych czarnego. */
+    private final AtomicInteger blackWins = new AtomicInteger();
+
+    /** Liczba wygranych białego. */
+    private final AtomicInteger whiteWins = new AtomicInteger();
+
+    /** Łączna liczba ruchów (łącznie z pasami). */
+    private final AtomicLong moves = new AtomicLong();
+
+    /** Numer kolejnej partii (do nazw plików zapisu). */
+    private final AtomicInteger gameIds = new AtomicInteger();
+
+    /** Katalog, do którego zapisywane są partie w formacie SGF ({@code null} – bez zapisu). */
+    private volatile Path recordDirectory;
+
+    /** Czasy odpowiedzi na ruch w nanosekundach. */
+    private long[] latencies = new long[1024];
+
+    /** Liczba zapisanych czasów odpowiedzi. */
+    private int latencyCount;
+
+    /**
+     * Tworzy rozgrywkę między dwoma rodzajami graczy.
+     *
+     * @param blackFactory Fabryka gracza czarnego.
+     * @param whiteFactory Fabryka gracza białego.
+     * @param size         Rozmiar planszy.
+     * @param maxMoves     Liczba ruchów, po której gracze pasują (ogranicza długość partii).
+     */
+    public SelfPlay(PlayerFactory blackFactory, PlayerFactory whiteFactory, int size, int maxMoves) {
+        this.blackFactory = blackFactory;
+        this.whiteFactory = whiteFactory;
+        this.size = size;
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Włącza zapisywanie rozstrzygniętych partii w formacie SGF (np. jako materiału
+     * do księgi otwarć, {@link OpeningBook#load(Path)}).
+     *
+     * @param directory Istniejący katalog na pliki {@code game-N.sgf}.
+     */
+    public void setRecordDirectory(Path directory) {
+        this.recordDirectory = directory;
+    }
+
+    /**
+     * Rozgrywa partie i zwraca raport. Jednocześnie toczy się co najwyżej {@code parallel} partii.
+     *
+     * @param games    Liczba partii.
+     * @param parallel Największa liczba jednocześnie toczonych partii.
+     * @return Raport z wynikami i szybkością.
+     * @throws InterruptedException jeśli wątek zostanie przerwany w trakcie oczekiwania.
+     */
+    public Report run(int games, int parallel) throws InterruptedException {
+        Semaphore slots = new Semaphore(parallel);
+        CountDownLatch finished = new CountDownLatch(games);
+        AtomicInteger stalled = new AtomicInteger();
+        long start = System.nanoTime();
+
+        for (int g = 0; g < games; g++) {
+            slots.acquire();
+            Game game = new Game(() -> {
+                slots.release();
+                finished.countDown();
+            });
+            game.start();
+            Thread watchdog = new Thread(() -> {
+                try {
+                    if (!game.done.await(GAME_TIMEOUT_MINUTES, TimeUnit.MINUTES) && game.finish(false))
+                        stalled.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "self-play-watchdog");
+            watchdog.setDaemon(true);
+            watchdog.start();
+        }
+        finished.await();
+
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(sorted);
+        return new Report(games, blackWins.get(), whiteWins.get(), stalled.get(), moves.get(),
+                System.nanoTime() - start, sorted);
+    }
+
+    /**
+     * Zapisuje czas odpowiedzi gracza na ruch.
+     *
+     * @param nanos Czas w nanosekundach.
+     */
+    private synchronized void recordLatency(long nanos) {
+        if (latencyCount == latencies.length) latencies = Arrays.copyOf(latencies, 2 * latencies.length);
+        latencies[latencyCount++] = nanos;
+    }
+
+    /**
+     * Jedna partia: sesja gry i dwa miejsca przy stole.
+     */
+    private final class Game {
+
+        /** Sesja gry. */
+        private final GameSession session;
+
+        /** Zwalniany po zakończeniu partii. */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /** Czy wynik partii został już policzony. */
+        private final AtomicBoolean counted = new AtomicBoolean();
+
+        /** Wywoływane raz po zakończeniu partii. */
+        private final Runnable onFinish;
+
+        Game(Runnable onFinish) {
+            this.onFinish = onFinish;
+            this.session = new GameSession(
+                    (stone, s) -> new Seat(stone, blackFactory.create(stone, s), s, this),
+                    (stone, s) -> new Seat(stone, whiteFactory.create(stone, s), s, this),
+                    size);
+        }
+
+        void start() {
+            session.start();
+        }
+
+        /**
+         * Kończy partię (tylko za pierwszym razem) i zlicza jej wynik.
+         *
+         * @param decided Czy partia zakończyła się normalnie (a nie przekroczeniem czasu).
+         * @return {@code true}, jeśli to wywołanie zakończyło partię.
+         */
+        boolean finish(boolean decided) {
+            if (!counted.compareAndSet(false, true)) return false;
+            if (decided) {
+                if (session.getWinner() == Stone.BLACK) blackWins.incrementAndGet();
+                else whiteWins.incrementAndGet();
+                moves.addAndGet(session.getMoveNumber());
+                Path dir = recordDirectory;
+                if (dir != null) save(dir.resolve("game-" + gameIds.incrementAndGet() + ".sgf"));
+            }
+            done.countDown();
+            onFinish.run();
+            return true;
+        }
+
+        /**
+         * Zapisuje partię w pliku SGF.
+         *
+         * @param file Ścieżka pliku.
+         */
+        private void save(Path file) {
+            try {
+                Files.writeString(file, session.getRecord().toSgf());
+            } catch (IOException e) {
+                System.err.println("Could not save " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Miejsce przy stole: pośredniczy między sesją a graczem, mierzy czas odpowiedzi,
+     * wymusza pas po limicie ruchów (lub gdy gracz uparcie proponuje odrzucane ruchy)
+     * i kończy fazę punktacji.
+     * Metody są wywoływane przez sesję pod jej blokadą, więc stan nie wymaga synchronizacji.
+     */
+    private final class Seat implements Player {
+
+        private final Stone stone;
+        private final Player player;
+        private final GameSession session;
+        private final Game game;
+
+        /** Numer ruchu, na który gracz ma odpowiedzieć (-1, jeśli nie jest jego tura). */
+        private int pendingMove = -1;
+
+        /** Chwila przekazania graczowi tury. */
+        private long pendingSince;
+
+        /** Liczba kolejnych odrzuconych ruchów gracza w bieżącej turze. */
+        private int rejected;
+
+        Seat(Stone stone, Player player, GameSession session, Game game) {
+            this.stone = stone;
+            this.player = player;
+            this.session = session;
+            this.game = game;
+        }
+
+        @Override
+        public Stone getStone() {
+            return stone;
+        }
+
+        @Override
+        public void start() {
+            player.start();
+        }
+
+        @Override
+        public void deliver(Supplier<GameView> views, Supplier<GameState> state) {
+            GameView view = views.get();
+            if (pendingMove >= 0 && view.moveNumber > pendingMove) {
+                recordLatency(System.nanoTime() - pendingSince);
+                pendingMove = -1;
+            }
+            if (view.gameOver) {
+                game.finish(true);
+                return;
+            }
+            if (view.yourTurn && view.scoringPhase) {
+                submit(new Move(-1, -1, false, false, true));
+                return;
+            }
+            if (view.yourTurn && pendingMove == view.moveNumber) rejected++;
+            if (view.yourTurn && (view.moveNumber >= maxMoves || rejected >= MAX_REJECTED_MOVES)) {
+                submit(new Move(-1, -1, true, false, false));
+                return;
+            }
+            if (view.yourTurn && pendingMove != view.moveNumber) {
+                pendingMove = view.moveNumber;
+                pendingSince = System.nanoTime();
+                rejected = 0;
+            }
+            player.deliver(() -> view, state);
+        }
+
+        /**
+         * Wysyła ruch w imieniu gracza poza wątkiem sesji.
+         *
+         * @param move Ruch.
+         */
+        private void submit(Move move) {
+            BotExecutor.shared().submit(session, () -> session.handleMove(move, this));
+        }
+    }
+
+    /**
+     * Raport z rozgrywki.
+     */
+    public static final class Report {
+
+        /** Liczba partii. */
+        public final int games;
+
+        /** Liczba wygranych czarnego. */
+        public final int blackWins;
+
+        /** Liczba wygranych białego. */
+        public final int whiteWins;
+
+        /** Liczba partii przerwanych po przekroczeniu limitu czasu. */
+        public final int stalled;
+
+        /** Łączna liczba ruchów. */
+        public final long moves;
+
+        /** Czas rozgrywki w nanosekundach. */
+        public final long nanos;
+
+        /** Posortowane czasy odpowiedzi na ruch w nanosekundach. */
+        private final long[] latencies;
+
+        Report(int games, int blackWins, int whiteWins, int stalled, long moves, long nanos, long[] latencies) {
+            this.games = games;
+            this.blackWins = blackWins;
+            this.whiteWins = whiteWins;
+            this.stalled = stalled;
+            this.moves = moves;
+            this.nanos = nanos;
+            this.latencies = latencies;
+        }
+
+        /**
+         * Zwraca liczbę rozegranych partii na sekundę.
+         *
+         * @return Partie na sekundę.
+         */
+        public double gamesPerSecond() {
+            return games * 1e9 / nanos;
+        }
+
+        /**
+         * Zwraca liczbę ruchów na sekundę.
+         *
+         * @return Ruchy na sekundę.
+         */
+        public double movesPerSecond() {
+            return moves * 1e9 / nanos;
+        }
+
+        /**
+         * Zwraca odsetek wygranych czarnego wśród rozstrzygniętych partii.
+         *
+         * @return Wartość z przedziału [0, 1].
+         */
+        public double blackWinRate() {
+            int decided = blackWins + whiteWins;
+            return decided == 0 ? 0 : (double) blackWins / decided;
+        }
+
+        /**
+         * Zwraca 95-procentowy przedział ufności (Wilsona) odsetka wygranych czarnego.
+         *
+         * @return Dolna i górna granica przedziału.
+         */
+        public double[] blackWinInterval() {
+            int n = blackWins + whiteWins;
+            if (n == 0) return new double[]{0, 1};
+            double p = blackWinRate();
+            double z2 = Z95 * Z95;
+            double denominator = 1 + z2 / n;
+            double center = (p + z2 / (2 * n)) / denominator;
+            double half = Z95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / denominator;
+            return new double[]{Math.max(0, center - half), Math.min(1, center + half)};
+        }
+
+        /**
+         * Zwraca percentyl czasu odpowiedzi na ruch.
+         *
+         * @param p Percentyl z przedziału (0, 100].
+         * @return Czas w mikrosekundach (0, jeśli nie zmierzono żadnego ruchu).
+         */
+        public long latencyMicros(double p) {
+            if (latencies.length == 0) return 0;
+            int k = (int) Math.ceil(p / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, k))] / 1000;
+        }
+
+        /**
+         * Formatuje raport do wypisania.
+         *
+         * @return Podsumowanie rozgrywki.
+         */
+        @Override
+        public String toString() {
+            double[] ci = blackWinInterval();
+            return String.format(
+                    "%d games (%d stalled) in %.1f s: %.2f games/s, %.0f moves/s%n"
+                            + "BLACK %d | WHITE %d, black win rate %.3f (95%% CI %.3f-%.3f)%n"
+                            + "move latency us: p50 %d, p90 %d, p99 %d, max %d",
+                    games, stalled, nanos / 1e9, gamesPerSecond(), movesPerSecond(),
+                    blackWins, whiteWins, blackWinRate(), ci[0], ci[1],
+                    latencyMicros(50), latencyMicros(90), latencyMicros(99), latencyMicros(100));
+        }
+    }
+
+    /**
+     * Punkt wejścia rozgrywki z linii komend.
+     * Gracz jest opisany jako {@code bot} (prosty {@link Bot}) lub {@code mcts:N}
+     * ({@link MctsBot} z limitem N rozgrywek na ruch, jednowątkowy, bez myślenia w tle).
+     *
+     * @param args Liczba partii (100), liczba równoległych partii (64), rozmiar planszy (9),
+     *             gracz czarny (bot), gracz biały (bot) i opcjonalnie katalog na zapisy partii SGF.
+     * @throws InterruptedException jeśli wątek zostanie przerwany.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int parallel = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 9;
+        PlayerFactory black = player(args.length > 3 ? args[3] : "bot");
+        PlayerFactory white = player(args.length > 4 ? args[4] : "bot");
+
+        SelfPlay selfPlay = new SelfPlay(black, white, size, 3 * size * size);
+        if (args.length > 5) selfPlay.setRecordDirectory(Paths.get(args[5]));
+        System.out.println(selfPlay.run(games, parallel));
+    }
+
+    /**
+     * Tworzy fabrykę gracza na podstawie opisu z linii komend.
+     *
+     * @param spec Opis gracza ({@code bot} lub {@code mcts:N}).
+     * @return Fabryka gracza.
+     * @throws IllegalArgumentException jeśli opis jest nieznany.
+     */
+    static PlayerFactory player(String spec) {
+        if (spec.equals("bot")) return Bot::new;
+        if (spec.startsWith("mcts:")) {
+            int playouts = Integer.parseInt(spec.substring(5));
+            return (stone, session) -> {
+                MctsBot bot = new MctsBot(stone, session, playouts, TimeManager.UNLIMITED, 1);
+                bot.setPondering(false);
+                bot.setVerbose(false);
+                return bot;
+            };
+        }
+        throw new IllegalArgumentException("Unknown player: " + spec);
+    }
+}
@@ -1,50 +1,159 @@
 package com.example;
 
+import java.io.IOException;
 import java.net.*;
-import java.util.Scanner;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
 
 /**
  * Główna klasa serwera gry Go.
- * Odpowiada za uruchomienie gniazda serwerowego ({@link ServerSocket}),
- * oczekiwanie na połączenia od dwóch klientów i zainicjowanie sesji gry.
+ * Odpowiada za uruchomienie gniazda serwerowego ({@link ServerSocket}) i nieprzerwane
+ * przyjmowanie połączeń, które trafiają do poczekalni ({@link Lobby}) kojarzącej graczy
+ * w pary lub przydzielającej im boty. Serwer prowadzi równolegle dowolnie wiele sesji gry.
+ *
+ * Ustawienia podaje się właściwościami systemowymi (wszystkie opcjonalne):
+ * {@code go.transport} – transport połączeń: {@code blocking} (wątek na połączenie,
+ * {@link ClientHandler}) lub {@code nio} (pętle zdarzeń {@link NioTransport}, których liczbę
+ * podaje {@code go.nio.loops}); oba transporty używają tego samego protokołu {@link FrameCodec};
+ * {@code go.lobby.wait} – czas oczekiwania na przeciwnika w ms, po którym gracz dostaje bota;
+ * {@code go.bot} – rodzaj bota ({@code bot} lub {@code mcts});
+ * {@code go.bot.move} i {@code go.bot.game} – budżet czasu bota MCTS na ruch (ms) i na partię (s);
+ * {@code go.tt.file} i {@code go.book} – plik tablicy transpozycji i księga otwarć botów.
  */
 public class ServerMain {
 
     /** Domyślny numer portu, na którym serwer nasłuchuje połączeń. */
     private static final int PORT = 12345;
+
+    /** Długość kolejki połączeń oczekujących na przyjęcie (przy wielu klientach łączących się naraz). */
+    private static final int BACKLOG = 1024;
+
+    /** Właściwość systemowa ze ścieżką pliku tablicy transpozycji botów (opcjonalna). */
+    private static final String TT_FILE_PROPERTY = "go.tt.file";
+
+    /** Właściwość systemowa ze ścieżką pliku lub katalogu SGF księgi otwarć botów (opcjonalna). */
+    private static final String BOOK_PROPERTY = "go.book";
+
+    /** Właściwość systemowa z rodzajem transportu ({@code blocking} lub {@code nio}). */
+    private static final String TRANSPORT_PROPERTY = "go.transport";
+
+    /** Właściwość systemowa z liczbą pętli zdarzeń transportu nieblokującego. */
+    private static final String LOOPS_PROPERTY = "go.nio.loops";
+
+    /** Właściwość systemowa z czasem oczekiwania na przeciwnika w ms. */
+    private static final String WAIT_PROPERTY = "go.lobby.wait";
+
+    /** Właściwość systemowa z rodzajem bota ({@code bot} lub {@code mcts}). */
+    private static final String BOT_PROPERTY = "go.bot";
+
+    /** Właściwość systemowa z czasem bota MCTS na ruch w ms. */
+    private static final String BOT_MOVE_PROPERTY = "go.bot.move";
+
+    /** Właściwość systemowa z czasem bota MCTS na całą partię w s. */
+    private static final String BOT_GAME_PROPERTY = "go.bot.game";
+
     /**
      * Punkt wejścia aplikacji serwerowej.
      * Metoda wykonuje następujące kroki:
+     * Wczytuje ustawienia botów z właściwości systemowych.
      * Otwiera gniazdo serwerowe na porcie 12345.
-     * Wstrzymuje wykonanie (blokuje wątek) do momentu połączenia się pierwszego gracza.
-     * Ponownie blokuje wątek do momentu połączenia się drugiego gracza.
-     * Tworzy obiekt {@link GameSession}, który przejmuje dalszą obsługę logiki gry.
+     * W nieskończonej pętli przyjmuje połączenia i przekazuje je do {@link Lobby},
+     * które tworzy sesje gry bez udziału operatora.
      *
      * @param args Argumenty linii komend (nieużywane).
      */
     public static void main(String[] args) {
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-            System.out.println("Server started, waiting for players on port " + PORT + "...");
-
-            Socket p1 = serverSocket.accept();
-            System.out.println("Player 1 connected from: " + p1.getInetAddress());
-            Scanner scanner = new Scanner(System.in);
-            System.out.println("wybierz opcje:");
-            System.out.println("1. bot");
-            String input = scanner.nextLine();
-            if (input.equals("1")) {
-                GameSession session = new GameSession(p1); // Konstruktor z botem
-                session.start();
+        try {
+            String ttFile = System.getProperty(TT_FILE_PROPERTY);
+            if (ttFile != null) {
+                TranspositionTable.setShared(TranspositionTable.open(Paths.get(ttFile), TranspositionTable.DEFAULT_BUCKETS));
+                System.out.println("Transposition table: " + ttFile);
+            }
+            String bookPath = System.getProperty(BOOK_PROPERTY);
+            if (bookPath != null) {
+                OpeningBook book = OpeningBook.load(Paths.get(bookPath));
+                OpeningBook.setShared(book);
+                System.out.println("Opening book: " + book.size() + " positions from " + bookPath);
+            }
+            long waitMillis = Long.getLong(WAIT_PROPERTY, Lobby.DEFAULT_WAIT_MILLIS);
+            Lobby lobby = new Lobby(botFactory(System.getProperty(BOT_PROPERTY, "bot")), waitMillis);
+            if ("nio".equals(System.getProperty(TRANSPORT_PROPERTY))) {
+                serveNio(lobby, Integer.getInteger(LOOPS_PROPERTY, Runtime.getRuntime().availableProcessors()));
             } else {
-                System.out.println("Waiting for Player 2...");
-                Socket p2 = serverSocket.accept();
-                GameSession session = new GameSession(p1, p2);
-                session.start();
+                serveBlocking(lobby);
             }
-
         } catch (Exception e) {
             System.err.println("Server error: " + e.getMessage());
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Przyjmuje połączenia obsługiwane przez wątki {@link ClientHandler}.
+     *
+     * @param lobby Poczekalnia.
+     * @throws IOException w przypadku błędu gniazda serwerowego.
+     */
+    private static void serveBlocking(Lobby lobby) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(PORT, BACKLOG)) {
+            System.out.println("Server started, waiting for players on port " + PORT + "...");
+            while (true) {
+                Socket socket = serverSocket.accept();
+                try {
+                    socket.setTcpNoDelay(true);
+                    lobby.join(socket);
+                } catch (IOException e) {
+                    System.err.println("Could not accept client: " + e.getMessage());
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Przyjmuje połączenia obsługiwane przez pętle zdarzeń {@link NioTransport}.
+     *
+     * @param lobby Poczekalnia.
+     * @param loops Liczba pętli zdarzeń.
+     * @throws IOException w przypadku błędu gniazda serwerowego.
+     */
+    private static void serveNio(Lobby lobby, int loops) throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open();
+             NioTransport transport = new NioTransport(loops)) {
+            server.bind(new InetSocketAddress(PORT), BACKLOG);
+            System.out.println("Server started (NIO, " + loops + " event loops), waiting for players on port " + PORT + "...");
+            while (true) {
+                SocketChannel channel = server.accept();
+                NioConnection connection = transport.register(channel);
+                lobby.join(connection);
+            }
+        }
+    }
+
+    /**
+     * Tworzy fabrykę botów dla graczy bez przeciwnika.
+     * Boty MCTS są jednowątkowe, aby każda partia zajmowała w puli {@link BotExecutor}
+     * jedną kolejkę; myślenie w czasie ruchu przeciwnika też jest wykonywane w tej kolejce.
+     *
+     * @param kind Rodzaj bota ({@code bot} lub {@code mcts}).
+     * @return Fabryka botów.
+     * @throws IllegalArgumentException jeśli rodzaj bota jest nieznany.
+     */
+    static PlayerFactory botFactory(String kind) {
+        switch (kind) {
+            case "bot":
+                return Bot::new;
+            case "mcts":
+                long moveMillis = Long.getLong(BOT_MOVE_PROPERTY, MctsBot.DEFAULT_MILLIS);
+                long gameMillis = Long.getLong(BOT_GAME_PROPERTY, TimeManager.UNLIMITED) * 1000;
+                return (stone, session) -> {
+                    MctsBot bot = new MctsBot(stone, session, 0, new TimeManager(moveMillis, gameMillis), 1);
+                    bot.setVerbose(false);
+                    return bot;
+                };
+            default:
+                throw new IllegalArgumentException("Unknown bot: " + kind);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prekomputowane tablice ośmiu symetrii planszy (obroty i odbicia kwadratu).
+ * Indeksy pól są zgodne z układem z ramką używanym przez {@link GoBoard};
+ * pola ramki przechodzą same na siebie. Tablice są niezmienne i współdzielone
+ * dla każdego rozmiaru planszy, tak jak {@link Adjacency}.
+ *
+ * Symetria {@code s} przenosi pole (x, y) na:
+ * 0: (x, y), 1: (n-x, y), 2: (x, n-y), 3: (n-x, n-y),
+ * 4: (y, x), 5: (y, n-x), 6: (n-y, x), 7: (n-y, n-x), gdzie {@code n = size - 1}.
+ */
+public final class Symmetry {
+
+    /** Liczba symetrii planszy. */
+    public static final int COUNT = 8;
+
+    /** Numer przekształcenia tożsamościowego. */
+    public static final int IDENTITY = 0;
+
+    /** Tablice symetrii współdzielone dla każdego rozmiaru planszy. */
+    private static final Map<Integer, Symmetry> CACHE = new ConcurrentHashMap<>();
+
+    /** Rozmiar planszy. */
+    public final int size;
+
+    /** Obraz pola w symetrii: {@code map[s][i]}. */
+    private final int[][] map;
+
+    /** Numer symetrii odwrotnej do danej. */
+    private final int[] inverse = new int[COUNT];
+
+    /**
+     * Buduje tablice symetrii dla planszy o podanym rozmiarze.
+     *
+     * @param size Rozmiar planszy.
+     */
+    private Symmetry(int size) {
+        int stride = size + 2;
+        int n = size - 1;
+        this.size = size;
+        this.map = new int[COUNT][stride * stride];
+
+        for (int s = 0; s < COUNT; s++) {
+            for (int i = 0; i < stride * stride; i++) map[s][i] = i;
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int tx = (s & 1) != 0 ? n - x : x;
+                    int ty = (s & 2) != 0 ? n - y : y;
+                    if ((s & 4) != 0) {
+                        int t = tx;
+                        tx = ty;
+                        ty = t;
+                    }
+                    map[s][(y + 1) * stride + (x + 1)] = (ty + 1) * stride + (tx + 1);
+                }
+            }
+        }
+
+        for (int s = 0; s < COUNT; s++) {
+            for (int t = 0; t < COUNT; t++) {
+                if (composesToIdentity(s, t)) {
+                    inverse[s] = t;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sprawdza, czy złożenie symetrii {@code s}, a po niej {@code t} jest tożsamością.
+     *
+     * @param s Pierwsza symetria.
+     * @param t Druga symetria.
+     * @return {@code true}, jeśli każde pole wraca na swoje miejsce.
+     */
+    private boolean composesToIdentity(int s, int t) {
+        for (int i = 0; i < map[s].length; i++) {
+            if (map[t][map[s][i]] != i) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Zwraca (współdzielone) tablice symetrii dla planszy o podanym rozmiarze.
+     *
+     * @param size Rozmiar planszy.
+     * @return Tablice symetrii.
+     */
+    public static Symmetry forSize(int size) {
+        return CACHE.computeIfAbsent(size, Symmetry::new);
+    }
+
+    /**
+     * Przekształca pole przez symetrię.
+     *
+     * @param s Numer symetrii.
+     * @param i Indeks pola (lub {@link MctsNode#PASS}).
+     * @return Indeks obrazu pola ({@link MctsNode#PASS} przechodzi na siebie).
+     */
+    public int apply(int s, int i) {
+        return i < 0 ? i : map[s][i];
+    }
+
+    /**
+     * Zwraca symetrię odwrotną.
+     *
+     * @param s Numer symetrii.
+     * @return Numer symetrii {@code t}, dla której {@code apply(t, apply(s, i)) == i}.
+     */
+    public int inverse(int s) {
+        return inverse[s];
+    }
+}
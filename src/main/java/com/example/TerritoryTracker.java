@@ -0,0 +1,234 @@
+package com.example;
+
+/**
+ * Przyrostowo utrzymuje podział pustych pól planszy na obszary
+ * oraz bieżące sumy terytorium czarnego i białego.
+ *
+ * Tracker jest dołączany do planszy metodą {@link Board#trackTerritory()};
+ * plansza zgłasza każde postawione i zdjęte pole, a przy odczycie sum tracker
+ * wypełnia od nowa tylko obszary, których dotknęły zmiany (zawierające zmienione
+ * pola lub z nimi sąsiadujące). Reguła przynależności jest taka sama jak
+ * w {@link ScoringEngine}: obszar należy do koloru, jeśli graniczy wyłącznie
+ * z kamieniami tego koloru.
+ */
+public class TerritoryTracker {
+
+    /** Bit koloru czarnego w masce kolorów graniczących z obszarem. */
+    private static final byte TOUCHES_BLACK = 1;
+
+    /** Bit koloru białego w masce kolorów graniczących z obszarem. */
+    private static final byte TOUCHES_WHITE = 2;
+
+    /** Śledzona plansza. */
+    private final Board board;
+
+    /** Przesunięcia indeksów do czterech sąsiadów pola. */
+    private final int[] dirs;
+
+    /** Reprezentant obszaru dla każdego pustego pola (-1 dla kamieni i ramki). */
+    private final int[] regionOf;
+
+    /** Liczba pól obszaru (ważna dla reprezentanta). */
+    private final int[] regionSize;
+
+    /** Maska kolorów graniczących z obszarem (ważna dla reprezentanta). */
+    private final byte[] regionTouch;
+
+    /** Znaczniki unieważnionych obszarów i odwiedzonych pól. */
+    private final int[] mark;
+
+    /** Bieżąca wartość znacznika. */
+    private int epoch;
+
+    /** Pola zmienione od ostatniej aktualizacji. */
+    private final int[] pending;
+
+    /** Liczba pól w {@link #pending}. */
+    private int pendingCount;
+
+    /** Czy zmian było tyle, że taniej jest przeliczyć całą planszę. */
+    private boolean fullRebuild;
+
+    /** Kolejka wypełniania. */
+    private final int[] queue;
+
+    /** Bieżąca suma terytorium czarnego. */
+    private int blackTerritory;
+
+    /** Bieżąca suma terytorium białego. */
+    private int whiteTerritory;
+
+    /**
+     * Tworzy tracker dla planszy i wyznacza początkowy podział na obszary.
+     *
+     * @param board Śledzona plansza.
+     */
+    TerritoryTracker(Board board) {
+        int stride = board.getStride();
+        int cells = stride * stride;
+        this.board = board;
+        this.dirs = new int[]{1, -1, stride, -stride};
+        this.regionOf = new int[cells];
+        this.regionSize = new int[cells];
+        this.regionTouch = new byte[cells];
+        this.mark = new int[cells];
+        this.pending = new int[cells];
+        this.queue = new int[cells];
+        rebuild();
+    }
+
+    /**
+     * Zgłasza zmianę zawartości pola (postawienie lub zdjęcie kamienia).
+     *
+     * @param i Indeks zmienionego pola.
+     */
+    void changed(int i) {
+        if (fullRebuild) return;
+        if (pendingCount == pending.length) {
+            fullRebuild = true;
+            return;
+        }
+        pending[pendingCount++] = i;
+    }
+
+    /** Oznacza, że stan planszy został zastąpiony w całości. */
+    void invalidate() {
+        fullRebuild = true;
+    }
+
+    /**
+     * Zwraca bieżącą sumę terytorium czarnego.
+     *
+     * @return Liczba pustych pól otoczonych wyłącznie przez czarne kamienie.
+     */
+    public int getBlackTerritory() {
+        update();
+        return blackTerritory;
+    }
+
+    /**
+     * Zwraca bieżącą sumę terytorium białego.
+     *
+     * @return Liczba pustych pól otoczonych wyłącznie przez białe kamienie.
+     */
+    public int getWhiteTerritory() {
+        update();
+        return whiteTerritory;
+    }
+
+    /**
+     * Wylicza wynik na podstawie bieżących sum terytorium,
+     * tak samo jak {@link ScoringEngine#score(GoBoard, int, int, float)}.
+     *
+     * @param blackPrisoners Liczba jeńców czarnego gracza.
+     * @param whitePrisoners Liczba jeńców białego gracza.
+     * @param komi           Punkty dodatkowe dla białego gracza.
+     * @return Wynik obu graczy.
+     */
+    public ScoringResult score(int blackPrisoners, int whitePrisoners, float komi) {
+        update();
+        return new ScoringResult(blackTerritory + blackPrisoners, whiteTerritory + whitePrisoners + komi);
+    }
+
+    /** Przetwarza zgłoszone zmiany, wypełniając od nowa tylko dotknięte obszary. */
+    private void update() {
+        if (fullRebuild) {
+            rebuild();
+            return;
+        }
+        if (pendingCount == 0) return;
+
+        int invalid = ++epoch;
+        for (int k = 0; k < pendingCount; k++) {
+            int q = pending[k];
+            invalidateRegion(q, invalid);
+            for (int d = 0; d < 4; d++) invalidateRegion(q + dirs[d], invalid);
+        }
+
+        int visit = ++epoch;
+        for (int k = 0; k < pendingCount; k++) {
+            int q = pending[k];
+            if (board.at(q) != Board.EMPTY) regionOf[q] = -1;
+            flood(q, visit);
+            for (int d = 0; d < 4; d++) flood(q + dirs[d], visit);
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Odejmuje od sum wkład obszaru zawierającego pole (jeśli pole było puste)
+     * i oznacza obszar jako unieważniony.
+     *
+     * @param i    Indeks pola.
+     * @param stamp Znacznik unieważnienia.
+     */
+    private void invalidateRegion(int i, int stamp) {
+        int r = regionOf[i];
+        if (r < 0 || mark[r] == stamp) return;
+        mark[r] = stamp;
+        addContribution(r, -1);
+    }
+
+    /** Wyznacza od nowa wszystkie obszary planszy. */
+    private void rebuild() {
+        blackTerritory = 0;
+        whiteTerritory = 0;
+        pendingCount = 0;
+        fullRebuild = false;
+
+        int visit = ++epoch;
+        for (int i = 0; i < regionOf.length; i++) regionOf[i] = -1;
+        for (int i = 0; i < regionOf.length; i++) flood(i, visit);
+    }
+
+    /**
+     * Wypełnia nowy obszar zaczynając od pustego, nieodwiedzonego pola
+     * i dodaje jego wkład do sum.
+     *
+     * @param start Indeks pola początkowego.
+     * @param visit Znacznik odwiedzin bieżącej aktualizacji.
+     */
+    private void flood(int start, int visit) {
+        if (board.at(start) != Board.EMPTY || mark[start] == visit) return;
+
+        byte touch = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        mark[start] = visit;
+
+        while (head < tail) {
+            int p = queue[head++];
+            regionOf[p] = start;
+            for (int d = 0; d < 4; d++) {
+                int n = p + dirs[d];
+                byte c = board.at(n);
+                if (c == Board.EMPTY) {
+                    if (mark[n] != visit) {
+                        mark[n] = visit;
+                        queue[tail++] = n;
+                    }
+                } else if (c == Board.BLACK) {
+                    touch |= TOUCHES_BLACK;
+                } else if (c == Board.WHITE) {
+                    touch |= TOUCHES_WHITE;
+                }
+            }
+        }
+
+        regionSize[start] = tail;
+        regionTouch[start] = touch;
+        addContribution(start, 1);
+    }
+
+    /**
+     * Dodaje lub odejmuje wkład obszaru do sum terytorium.
+     *
+     * @param r    Reprezentant obszaru.
+     * @param sign 1 przy dodawaniu, -1 przy odejmowaniu.
+     */
+    private void addContribution(int r, int sign) {
+        if (regionTouch[r] == TOUCHES_BLACK) blackTerritory += sign * regionSize[r];
+        else if (regionTouch[r] == TOUCHES_WHITE) whiteTerritory += sign * regionSize[r];
+    }
+}
@@ -0,0 +1,118 @@
+package com.example;
+
+/**
+ * Zarządza czasem namysłu bota w trakcie partii.
+ *
+ * Łączy dwa budżety: limit czasu na pojedynczy ruch oraz łączny zapas czasu na całą
+ * partię. Przydział na ruch to mniejsza z wartości: limit na ruch albo pozostały zapas
+ * podzielony przez szacowaną liczbę ruchów do końca partii (połowa wolnych pól, lecz
+ * nie mniej niż {@link #MIN_MOVES_LEFT}). W niestabilnych pozycjach bot może dostać
+ * przedłużenie, ograniczone tak, by nie wyczerpać zapasu na kolejne ruchy.
+ *
+ * Budżety pozwalają dobrać siłę bota do obciążenia serwera osobno dla każdej sesji.
+ * Instancja należy do jednego bota i nie jest bezpieczna wielowątkowo.
+ */
+public class TimeManager {
+
+    /** Wartość oznaczająca brak limitu czasu. */
+    public static final long UNLIMITED = 0;
+
+    /** Najmniejsza zakładana liczba ruchów bota do końca partii. */
+    private static final int MIN_MOVES_LEFT = 10;
+
+    /** Najkrótszy przydział na ruch w milisekundach (gdy zapas jest na wyczerpaniu). */
+    private static final long MIN_MILLIS = 10;
+
+    /** Największe przedłużenie jako wielokrotność podstawowego przydziału. */
+    private static final double MAX_EXTENSION = 1.0;
+
+    /** Limit czasu na ruch w milisekundach ({@link #UNLIMITED} = bez limitu). */
+    private final long moveMillis;
+
+    /** Łączny zapas czasu na partię w milisekundach ({@link #UNLIMITED} = bez limitu). */
+    private final long gameMillis;
+
+    /** Pozostały zapas czasu na partię w milisekundach. */
+    private long remainingMillis;
+
+    /**
+     * Tworzy zarządcę czasu z limitem tylko na pojedynczy ruch.
+     *
+     * @param moveMillis Limit czasu na ruch w milisekundach.
+     */
+    public TimeManager(long moveMillis) {
+        this(moveMillis, UNLIMITED);
+    }
+
+    /**
+     * Tworzy zarządcę czasu z limitem na ruch i łącznym zapasem na partię.
+     *
+     * @param moveMillis Limit czasu na ruch w milisekundach ({@link #UNLIMITED} = bez limitu).
+     * @param gameMillis Zapas czasu na partię w milisekundach ({@link #UNLIMITED} = bez limitu).
+     * @throws IllegalArgumentException jeśli któryś z limitów jest ujemny.
+     */
+    public TimeManager(long moveMillis, long gameMillis) {
+        if (moveMillis < 0 || gameMillis < 0)
+            throw new IllegalArgumentException("Negative time budget: " + moveMillis + ", " + gameMillis);
+        this.moveMillis = moveMillis;
+        this.gameMillis = gameMillis;
+        this.remainingMillis = gameMillis;
+    }
+
+    /**
+     * Wyznacza podstawowy czas namysłu nad bieżącym ruchem.
+     *
+     * @param emptyPoints Liczba wolnych pól na planszy (miara długości reszty partii).
+     * @return Czas w milisekundach lub {@link #UNLIMITED}, jeśli żaden limit nie jest ustawiony.
+     */
+    public long allocate(int emptyPoints) {
+        if (gameMillis == UNLIMITED) return moveMillis;
+
+        long share = remainingMillis / Math.max(MIN_MOVES_LEFT, emptyPoints / 2);
+        if (moveMillis != UNLIMITED) share = Math.min(share, moveMillis);
+        return Math.max(MIN_MILLIS, share);
+    }
+
+    /**
+     * Wyznacza dodatkowy czas namysłu w niestabilnej pozycji
+     * (gdy przeszukiwanie nie wskazało wyraźnie najlepszego ruchu).
+     *
+     * @param allocated Podstawowy przydział z {@link #allocate(int)}.
+     * @return Przedłużenie w milisekundach (0, jeśli przedłużenie nie jest możliwe).
+     */
+    public long extension(long allocated) {
+        if (allocated == UNLIMITED) return 0;
+
+        long extra = (long) (allocated * MAX_EXTENSION);
+        if (gameMillis != UNLIMITED)
+            extra = Math.min(extra, (remainingMillis - allocated) / MIN_MOVES_LEFT);
+        return Math.max(0, extra);
+    }
+
+    /**
+     * Odejmuje czas zużyty na ruch od zapasu na partię.
+     *
+     * @param millis Czas namysłu w milisekundach.
+     */
+    public void spent(long millis) {
+        if (gameMillis != UNLIMITED) remainingMillis = Math.max(0, remainingMillis - millis);
+    }
+
+    /**
+     * Zwraca pozostały zapas czasu na partię.
+     *
+     * @return Czas w milisekundach lub {@link Long#MAX_VALUE}, jeśli zapas nie jest ograniczony.
+     */
+    public long getRemainingMillis() {
+        return gameMillis == UNLIMITED ? Long.MAX_VALUE : remainingMillis;
+    }
+
+    /**
+     * Zwraca limit czasu na ruch.
+     *
+     * @return Czas w milisekundach lub {@link #UNLIMITED}.
+     */
+    public long getMoveMillis() {
+        return moveMillis;
+    }
+}
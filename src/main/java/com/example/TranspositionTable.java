@@ -0,0 +1,256 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tablica transpozycji: pamięć podręczna statystyk przeszukiwania (liczba symulacji
+ * i wygranych) dla pozycji identyfikowanych 64-bitowym kluczem.
+ *
+ * Tablica ma stały rozmiar i jest podzielona na kubełki po {@link #BUCKET_ENTRIES}
+ * wpisy (64 bajty, jedna linia pamięci podręcznej procesora). Wpis trafia do kubełka
+ * wyznaczonego przez młodsze bity klucza; jeśli klucza nie ma w kubełku, zastępowany
+ * jest wpis z najmniejszą liczbą symulacji. Dane leżą w jednym buforze bajtów, więc
+ * wpisy nie są obiektami i nie obciążają odśmiecacza.
+ *
+ * Tablica może być zapisana w pliku odwzorowanym w pamięci ({@link #open(Path, int)}),
+ * dzięki czemu przetrwa restart serwera. Jedna instancja może być współdzielona przez
+ * wszystkie sesje: zapisy nie są blokowane, a każdy wpis przechowuje klucz zaszyfrowany
+ * danymi (XOR), więc wpis rozerwany przez równoległe zapisy nie zostanie odczytany.
+ */
+public class TranspositionTable {
+
+    /** Liczba wpisów w kubełku. */
+    public static final int BUCKET_ENTRIES = 4;
+
+    /** Domyślna liczba kubełków (4 MB danych). */
+    public static final int DEFAULT_BUCKETS = 1 << 16;
+
+    /** Wynik {@link #probe(long)}, gdy pozycji nie ma w tablicy. */
+    public static final long NOT_FOUND = 0;
+
+    /** Rozmiar wpisu w bajtach: klucz XOR dane oraz dane. */
+    private static final int ENTRY_BYTES = 16;
+
+    /** Rozmiar kubełka w bajtach. */
+    private static final int BUCKET_BYTES = BUCKET_ENTRIES * ENTRY_BYTES;
+
+    /**
+     * Rozmiar nagłówka pliku (znacznik formatu i liczba kubełków),
+     * dopełniony do granicy kubełka.
+     */
+    private static final int HEADER_BYTES = BUCKET_BYTES;
+
+    /** Znacznik formatu pliku. */
+    private static final long MAGIC = 0x474F5454_00000002L;
+
+    /** Klucz Zobrista gracza na ruchu (biały), odróżniający pozycje o tym samym układzie. */
+    private static final long WHITE_TO_MOVE = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Klucz rozmiaru planszy. Klucze Zobrista zależą tylko od indeksu pola, więc te same
+     * kamienie na planszach różnych rozmiarów mają ten sam skrót.
+     */
+    private static final long SIZE_KEY = 0xC2B2AE3D27D4EB4FL;
+
+    /** Wspólna tablica serwera. */
+    private static TranspositionTable shared;
+
+    /** Bufor z nagłówkiem i kubełkami. */
+    private final ByteBuffer buffer;
+
+    /** Maska numeru kubełka. */
+    private final int mask;
+
+    /**
+     * Tworzy tablicę w pamięci.
+     *
+     * @param buckets Liczba kubełków (potęga dwójki).
+     * @throws IllegalArgumentException jeśli liczba kubełków nie jest dodatnią potęgą dwójki.
+     */
+    public TranspositionTable(int buckets) {
+        this(ByteBuffer.allocateDirect(bytes(buckets)), buckets);
+        buffer.putLong(0, MAGIC);
+        buffer.putInt(8, buckets);
+    }
+
+    /**
+     * Tworzy tablicę na gotowym buforze.
+     *
+     * @param buffer  Bufor o rozmiarze {@link #bytes(int)}.
+     * @param buckets Liczba kubełków.
+     */
+    private TranspositionTable(ByteBuffer buffer, int buckets) {
+        this.buffer = buffer;
+        this.mask = buckets - 1;
+    }
+
+    /**
+     * Otwiera tablicę zapisaną w pliku odwzorowanym w pamięci (tworzy plik, jeśli nie istnieje).
+     * Jeśli plik ma inny format lub rozmiar, jego zawartość jest czyszczona.
+     *
+     * @param file    Ścieżka pliku.
+     * @param buckets Liczba kubełków (potęga dwójki).
+     * @return Tablica zapisywana w pliku.
+     * @throws IOException w przypadku błędu dostępu do pliku.
+     */
+    public static TranspositionTable open(Path file, int buckets) throws IOException {
+        int size = bytes(buckets);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean valid = channel.size() == size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!valid || buffer.getLong(0) != MAGIC || buffer.getInt(8) != buckets) {
+                for (int i = 0; i < size; i += 8) buffer.putLong(i, 0L);
+                buffer.putLong(0, MAGIC);
+                buffer.putInt(8, buckets);
+            }
+            return new TranspositionTable(buffer, buckets);
+        }
+    }
+
+    /**
+     * Zwraca wspólną tablicę serwera (domyślnie w pamięci, o {@link #DEFAULT_BUCKETS} kubełkach).
+     *
+     * @return Wspólna tablica.
+     */
+    public static synchronized TranspositionTable shared() {
+        if (shared == null) shared = new TranspositionTable(DEFAULT_BUCKETS);
+        return shared;
+    }
+
+    /**
+     * Ustawia wspólną tablicę serwera (np. zapisywaną w pliku).
+     *
+     * @param table Tablica używana przez wszystkie sesje.
+     */
+    public static synchronized void setShared(TranspositionTable table) {
+        shared = table;
+    }
+
+    /**
+     * Wyznacza klucz pozycji z jej skrótu Zobrista, gracza na ruchu i rozmiaru planszy.
+     *
+     * @param hash   Skrót Zobrista układu kamieni.
+     * @param toMove Kod koloru gracza na ruchu.
+     * @param size   Rozmiar planszy.
+     * @return Klucz pozycji.
+     */
+    public static long key(long hash, byte toMove, int size) {
+        return (toMove == Board.WHITE ? hash ^ WHITE_TO_MOVE : hash) ^ (SIZE_KEY * size);
+    }
+
+    /**
+     * Odczytuje statystyki pozycji.
+     *
+     * @param key Klucz pozycji.
+     * @return Spakowane statystyki (do odczytu przez {@link #visits(long)} i {@link #wins(long)})
+     * lub {@link #NOT_FOUND}.
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int e = 0; e < BUCKET_ENTRIES; e++) {
+            int at = base + e * ENTRY_BYTES;
+            long data = buffer.getLong(at + 8);
+            if (data != NOT_FOUND && (buffer.getLong(at) ^ data) == key) return data;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Zapisuje statystyki pozycji, zastępując jej poprzedni wpis lub (gdy pozycji nie ma
+     * w kubełku) wpis z najmniejszą liczbą symulacji, o ile ma ich mniej niż nowy wpis.
+     *
+     * @param key    Klucz pozycji.
+     * @param visits Liczba symulacji (dodatnia).
+     * @param wins   Liczba wygranych gracza, który wykonał ruch prowadzący do pozycji.
+     */
+    public void store(long key, int visits, int wins) {
+        if (visits <= 0) return;
+        long data = ((long) visits << 32) | (wins & 0xFFFFFFFFL);
+        int base = bucket(key);
+        int slot = base;
+        boolean same = false;
+        int slotVisits = Integer.MAX_VALUE;
+        for (int e = 0; e < BUCKET_ENTRIES; e++) {
+            int at = base + e * ENTRY_BYTES;
+            long old = buffer.getLong(at + 8);
+            if (old != NOT_FOUND && (buffer.getLong(at) ^ old) == key) {
+                slot = at;
+                same = true;
+                break;
+            }
+            if (visits(old) < slotVisits) {
+                slotVisits = visits(old);
+                slot = at;
+            }
+        }
+        if (!same && slotVisits > visits) return;
+        buffer.putLong(slot + 8, data);
+        buffer.putLong(slot, key ^ data);
+    }
+
+    /**
+     * Zapisuje zmiany tablicy plikowej na dysk (dla tablicy w pamięci nie robi nic).
+     */
+    public void flush() {
+        if (buffer instanceof MappedByteBuffer) ((MappedByteBuffer) buffer).force();
+    }
+
+    /**
+     * Zwraca liczbę kubełków tablicy.
+     *
+     * @return Liczba kubełków.
+     */
+    public int getBuckets() {
+        return mask + 1;
+    }
+
+    /**
+     * Odczytuje liczbę symulacji ze spakowanych statystyk.
+     *
+     * @param data Wynik {@link #probe(long)}.
+     * @return Liczba symulacji.
+     */
+    public static int visits(long data) {
+        return (int) (data >>> 32);
+    }
+
+    /**
+     * Odczytuje liczbę wygranych ze spakowanych statystyk.
+     *
+     * @param data Wynik {@link #probe(long)}.
+     * @return Liczba wygranych.
+     */
+    public static int wins(long data) {
+        return (int) data;
+    }
+
+    /**
+     * Wyznacza położenie kubełka klucza w buforze.
+     *
+     * @param key Klucz pozycji.
+     * @return Przesunięcie kubełka w bajtach.
+     */
+    private int bucket(long key) {
+        return HEADER_BYTES + ((int) key & mask) * BUCKET_BYTES;
+    }
+
+    /**
+     * Wyznacza rozmiar bufora tablicy.
+     *
+     * @param buckets Liczba kubełków.
+     * @return Rozmiar w bajtach.
+     * @throws IllegalArgumentException jeśli liczba kubełków nie jest dodatnią potęgą dwójki
+     *                                  lub tablica nie mieści się w jednym buforze.
+     */
+    private static int bytes(int buckets) {
+        if (buckets <= 0 || Integer.bitCount(buckets) != 1 || buckets > (Integer.MAX_VALUE - HEADER_BYTES) / BUCKET_BYTES)
+            throw new IllegalArgumentException("Invalid number of buckets: " + buckets);
+        return HEADER_BYTES + buckets * BUCKET_BYTES;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dostarcza losowe klucze haszowania Zobrista dla pól planszy.
+ * Klucze są wyznaczane deterministycznie (funkcja SplitMix64) z indeksu pola
+ * i koloru kamienia, dlatego ta sama pozycja ma ten sam skrót w każdej sesji
+ * i po każdym uruchomieniu serwera.
+ */
+public final class Zobrist {
+
+    /** Tablice kluczy współdzielone przez wszystkie plansze o danej liczbie pól. */
+    private static final Map<Integer, long[]> TABLES = new ConcurrentHashMap<>();
+
+    private Zobrist() {}
+
+    /**
+     * Zwraca tablicę kluczy dla planszy o podanej liczbie pól (łącznie z ramką).
+     * Klucz kamienia o kodzie {@code c} na polu {@code i} znajduje się pod indeksem
+     * {@code 2 * i + c - 1}.
+     *
+     * @param cells Długość jednowymiarowej tablicy pól planszy.
+     * @return Tablica kluczy (nie wolno jej modyfikować).
+     */
+    public static long[] table(int cells) {
+        return TABLES.computeIfAbsent(cells, n -> {
+            long[] keys = new long[2 * n];
+            for (int k = 0; k < keys.length; k++)
+                keys[k] = mix(k + 1);
+            return keys;
+        });
+    }
+
+    /**
+     * Funkcja mieszająca SplitMix64.
+     *
+     * @param z Wartość wejściowa.
+     * @return Pseudolosowa wartość 64-bitowa.
+     */
+    private static long mix(long z) {
+        z = (z * 0x9E3779B97F4A7C15L) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe tablic sąsiedztwa.
+ */
+class AdjacencyTest {
+
+    @Test
+    void testNeighborCounts() {
+        Adjacency adj = Adjacency.forSize(5);
+        Board board = new Board(5);
+
+        assertEquals(2, adj.count[board.index(0, 0)]);
+        assertEquals(3, adj.count[board.index(2, 0)]);
+        assertEquals(4, adj.count[board.index(2, 2)]);
+        assertEquals(0, adj.count[board.index(-1, 0)]);
+        assertEquals(25, adj.points.length);
+    }
+
+    @Test
+    void testNeighborsStayOnBoard() {
+        Adjacency adj = Adjacency.forSize(4);
+        Board board = new Board(4);
+
+        for (int i : adj.points) {
+            for (int k = adj.start(i); k < adj.start(i) + adj.count[i]; k++) {
+                assertNotEquals(Board.BORDER, board.at(adj.neighbors[k]));
+            }
+        }
+        assertEquals(3, adj.xOf[board.index(3, 1)]);
+        assertEquals(1, adj.yOf[board.index(3, 1)]);
+    }
+
+    @Test
+    void testTablesAreShared() {
+        assertSame(Adjacency.forSize(19), Adjacency.forSize(19));
+    }
+}
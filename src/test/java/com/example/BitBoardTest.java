@@ -0,0 +1,81 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe planszy bitowej BitBoard.
+ */
+class BitBoardTest {
+
+    @Test
+    void testRejectsTooLargeBoard() {
+        assertThrows(IllegalArgumentException.class, () -> new BitBoard(20));
+    }
+
+    @Test
+    void testSetAndGetStone() {
+        BitBoard board = new BitBoard(19);
+
+        board.set(18, 18, Stone.WHITE);
+        board.set(0, 0, Stone.BLACK);
+
+        assertEquals(Stone.WHITE, board.get(18, 18));
+        assertEquals(Stone.BLACK, board.get(0, 0));
+        assertEquals(Board.BORDER, board.at(board.index(19, 18)));
+    }
+
+    @Test
+    void testLibertiesDoNotWrapAroundEdges() {
+        BitBoard board = new BitBoard(5);
+        board.set(4, 0, Stone.BLACK);
+
+        assertEquals(2, board.liberties(board.index(4, 0)));
+
+        board.set(0, 1, Stone.WHITE);
+        assertEquals(3, board.liberties(board.index(0, 1)));
+    }
+
+    @Test
+    void testChainLibertiesAndAtari() {
+        BitBoard board = new BitBoard(9);
+        board.set(0, 0, Stone.BLACK);
+        board.set(1, 0, Stone.BLACK);
+        board.set(2, 0, Stone.WHITE);
+        board.set(0, 1, Stone.WHITE);
+
+        int i = board.index(0, 0);
+        assertEquals(2, board.chainSize(i));
+        assertTrue(board.inAtari(i));
+    }
+
+    @Test
+    void testRandomGameMatchesBoard() {
+        RulesEngine rules = new RulesEngine();
+        Random random = new Random(11);
+
+        for (int size : new int[]{5, 9, 19}) {
+            Board board = new Board(size);
+            BitBoard bits = new BitBoard(size);
+            Stone turn = Stone.BLACK;
+
+            for (int step = 0; step < size * size * 3; step++) {
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                MoveRecord expected = rules.play(board, x, y, turn);
+                MoveRecord actual = rules.play(bits, x, y, turn);
+
+                assertEquals(expected == null, actual == null);
+                if (expected != null) {
+                    assertEquals(expected.getCapturedCount(), actual.getCapturedCount());
+                    turn = turn.opposite();
+                }
+                assertEquals(board.toString(), bits.toString());
+                assertEquals(board.getHash(), bits.getHash());
+            }
+        }
+    }
+}
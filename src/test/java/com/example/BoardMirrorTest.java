@@ -0,0 +1,115 @@
+package com.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy przesyłania zmian planszy i odtwarzania jej kopii po stronie klienta.
+ */
+class BoardMirrorTest {
+
+    /** Gracz sieciowy zapisujący otrzymane stany. */
+    private static final class Recorder implements RemotePlayer {
+
+        final Stone stone;
+        final List<GameState> states = new ArrayList<>();
+
+        Recorder(Stone stone) {
+            this.stone = stone;
+        }
+
+        @Override
+        public void sendState(GameState state) {
+            states.add(state);
+        }
+
+        @Override
+        public Stone getStone() {
+            return stone;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        GameState last() {
+            return states.get(states.size() - 1);
+        }
+    }
+
+    private GameSession session;
+    private Recorder black;
+    private Recorder white;
+
+    @BeforeEach
+    void setUp() {
+        session = new GameSession((s, g) -> black = new Recorder(s), (s, g) -> white = new Recorder(s), 9);
+        session.start();
+    }
+
+    @Test
+    void testSendsFullBoardOnlyOnJoin() {
+        assertTrue(black.last().isFull());
+        assertTrue(white.last().isFull());
+
+        session.handleMove(new Move(4, 4, false, false), black);
+        GameState delta = white.last();
+        assertFalse(delta.isFull());
+        assertEquals(1, delta.seq);
+        assertEquals(1, delta.getChangeCount());
+        assertEquals(4 * 9 + 4, delta.getChangePoint(0));
+        assertEquals(Stone.BLACK, delta.getChangeStone(0));
+
+        session.handleMove(new Move(0, 0, false, false), black);
+        GameState notYourTurn = black.last();
+        assertEquals(GameStatus.NOT_YOUR_TURN, notYourTurn.status);
+        assertEquals(1, notYourTurn.seq);
+        assertEquals(0, notYourTurn.getChangeCount());
+    }
+
+    @Test
+    void testMirrorFollowsCapturesAndRemovals() {
+        int[][] moves = {{1, 0}, {0, 0}, {0, 1}, {5, 5}};
+        Recorder[] players = {black, white};
+        for (int k = 0; k < moves.length; k++)
+            session.handleMove(new Move(moves[k][0], moves[k][1], false, false), players[k % 2]);
+        session.handleMove(new Move(-1, -1, true, false), black);
+        session.handleMove(new Move(-1, -1, true, false), white);
+        session.handleMove(new Move(5, 5, false, false), black);
+
+        for (Recorder r : players) {
+            BoardMirror mirror = new BoardMirror();
+            for (GameState s : r.states) assertTrue(mirror.apply(s));
+            BoardSnapshot board = session.getSnapshot();
+            for (int y = 0; y < 9; y++)
+                for (int x = 0; x < 9; x++) assertEquals(board.get(x, y), mirror.get(x, y), x + "," + y);
+            assertEquals(Stone.EMPTY, mirror.get(0, 0));
+            assertEquals(Stone.EMPTY, mirror.get(5, 5));
+        }
+    }
+
+    @Test
+    void testGapRequiresResync() {
+        BoardMirror mirror = new BoardMirror();
+        assertTrue(mirror.apply(white.last()));
+        session.handleMove(new Move(2, 2, false, false), black);
+        session.handleMove(new Move(3, 3, false, false), white);
+        session.handleMove(new Move(4, 4, false, false), black);
+
+        assertFalse(mirror.apply(white.last()));
+        assertFalse(mirror.isSynced());
+
+        session.resync(white);
+        GameState full = white.last();
+        assertTrue(full.isFull());
+        assertEquals(GameStatus.YOUR_TURN, full.status);
+        assertTrue(mirror.apply(full));
+        assertEquals(3, mirror.getSeq());
+        assertEquals(Stone.WHITE, mirror.get(3, 3));
+    }
+}
@@ -2,6 +2,8 @@ package com.example;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -113,4 +115,152 @@ class BoardTest {
 
         assertEquals(expected, board.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBorderSurroundsBoard() {
+        Board board = new Board(3);
+
+        assertEquals(Board.BORDER, board.at(board.index(-1, 0)));
+        assertEquals(Board.BORDER, board.at(board.index(3, 2)));
+        assertEquals(Board.BORDER, board.at(board.index(1, -1)));
+        assertEquals(Board.EMPTY, board.at(board.index(2, 2)));
+        assertEquals(board.index(1, 1) + board.getStride(), board.index(1, 2));
+    }
+
+    @Test
+    void testCopyFromOverwritesBoard() {
+        Board board = new Board(3);
+        Board other = new Board(3);
+        other.set(2, 0, Stone.WHITE);
+
+        board.copyFrom(other);
+
+        assertEquals(other, board);
+        assertEquals(other.hashCode(), board.hashCode());
+        assertThrows(IllegalArgumentException.class, () -> board.copyFrom(new Board(4)));
+    }
+
+    @Test
+    void testAdjacentStonesFormOneChain() {
+        Board board = new Board(5);
+        board.set(1, 1, Stone.BLACK);
+        board.set(3, 1, Stone.BLACK);
+        board.set(2, 1, Stone.BLACK);
+
+        assertEquals(board.chainOf(board.index(1, 1)), board.chainOf(board.index(3, 1)));
+        assertEquals(3, board.chainSize(board.index(1, 1)));
+        assertEquals(8, board.pseudoLiberties(board.index(2, 1)));
+    }
+
+    @Test
+    void testChainInAtari() {
+        Board board = new Board(5);
+        board.set(0, 0, Stone.BLACK);
+        board.set(1, 0, Stone.BLACK);
+        board.set(2, 0, Stone.WHITE);
+        board.set(0, 1, Stone.WHITE);
+
+        int i = board.index(0, 0);
+        assertTrue(board.inAtari(i));
+        assertEquals(board.index(1, 1), board.atariLiberty(i));
+    }
+
+    @Test
+    void testRemovingStoneSplitsChain() {
+        Board board = new Board(5);
+        board.set(0, 2, Stone.WHITE);
+        board.set(1, 2, Stone.WHITE);
+        board.set(2, 2, Stone.WHITE);
+
+        board.set(1, 2, Stone.EMPTY);
+
+        assertNotEquals(board.chainOf(board.index(0, 2)), board.chainOf(board.index(2, 2)));
+        assertEquals(1, board.chainSize(board.index(0, 2)));
+        assertEquals(3, board.pseudoLiberties(board.index(0, 2)));
+    }
+
+    @Test
+    void testChainStateMatchesRecount() {
+        Random random = new Random(7);
+        Board board = new Board(7);
+        Stone[] stones = Stone.values();
+
+        for (int step = 0; step < 2000; step++) {
+            board.set(random.nextInt(7), random.nextInt(7), stones[random.nextInt(stones.length)]);
+        }
+
+        for (int x = 0; x < 7; x++) {
+            for (int y = 0; y < 7; y++) {
+                if (board.get(x, y) == Stone.EMPTY) continue;
+                int i = board.index(x, y);
+                int libs = 0;
+                int size = 0;
+                for (int s = board.nextInChain(i); ; s = board.nextInChain(s)) {
+                    size++;
+                    assertEquals(board.chainOf(i), board.chainOf(s));
+                    for (int n : new int[]{s + 1, s - 1, s + board.getStride(), s - board.getStride()}) {
+                        if (board.at(n) == Board.EMPTY) libs++;
+                        if (board.at(n) == board.at(i)) assertEquals(board.chainOf(i), board.chainOf(n));
+                    }
+                    if (s == i) break;
+                }
+                assertEquals(size, board.chainSize(i));
+                assertEquals(libs, board.pseudoLiberties(i));
+            }
+        }
+    }
+
+    @Test
+    void testHashDependsOnlyOnPosition() {
+        Board b1 = new Board(5);
+        Board b2 = new Board(5);
+
+        assertEquals(0, b1.getHash());
+
+        b1.set(1, 1, Stone.BLACK);
+        b1.set(3, 3, Stone.WHITE);
+        b2.set(3, 3, Stone.WHITE);
+        b2.set(0, 0, Stone.BLACK);
+        b2.set(0, 0, Stone.EMPTY);
+        b2.set(1, 1, Stone.BLACK);
+
+        assertEquals(b1.getHash(), b2.getHash());
+        assertEquals(b1.getHash(), b1.copy().getHash());
+
+        b2.set(3, 3, Stone.BLACK);
+        assertNotEquals(b1.getHash(), b2.getHash());
+    }
+
+    @Test
+    void testSnapshotSharesUnchangedRows() {
+        Board board = new Board(5);
+        board.set(1, 1, Stone.BLACK);
+        BoardSnapshot first = board.snapshot();
+
+        assertSame(first, board.snapshot());
+
+        board.set(3, 3, Stone.WHITE);
+        BoardSnapshot second = board.snapshot();
+
+        assertTrue(second.sharesRow(first, 1));
+        assertFalse(second.sharesRow(first, 3));
+        assertEquals(Stone.BLACK, first.get(1, 1));
+        assertEquals(Stone.EMPTY, first.get(3, 3));
+        assertEquals(Stone.WHITE, second.get(3, 3));
+        assertEquals(board.toString(), second.toString());
+        assertEquals(board.getHash(), second.getHash());
+    }
+
+    @Test
+    void testSnapshotToBoard() {
+        Board board = new Board(5);
+        board.set(0, 0, Stone.BLACK);
+        board.set(1, 0, Stone.WHITE);
+
+        Board restored = board.snapshot().toBoard();
+
+        assertEquals(board, restored);
+        assertEquals(board.getHash(), restored.getHash());
+        assertEquals(1, restored.pseudoLiberties(restored.index(0, 0)));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe wspólnej puli wątków botów.
+ */
+class BotExecutorTest {
+
+    @Test
+    void testSessionsAreServedRoundRobin() throws InterruptedException {
+        BotExecutor executor = new BotExecutor(1, 1000);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+        Object a = new Object();
+        Object b = new Object();
+
+        executor.submit(a, () -> {
+            awaitQuietly(gate);
+            order.add("a");
+            done.countDown();
+        });
+        for (int k = 0; k < 3; k++) {
+            executor.submit(a, () -> { order.add("a"); done.countDown(); });
+        }
+        for (int k = 0; k < 2; k++) {
+            executor.submit(b, () -> { order.add("b"); done.countDown(); });
+        }
+        gate.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "a", "b", "a", "a"), order);
+        executor.shutdown();
+    }
+
+    @Test
+    void testTasksOfOneSessionRunSequentially() throws InterruptedException {
+        BotExecutor executor = new BotExecutor(4, 1000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+        Object session = new Object();
+
+        for (int k = 0; k < 20; k++) {
+            executor.submit(session, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testFailingTaskDoesNotStopWorker() throws InterruptedException {
+        BotExecutor executor = new BotExecutor(1, 1000);
+        CountDownLatch done = new CountDownLatch(1);
+        Object session = new Object();
+
+        executor.submit(session, () -> { throw new IllegalStateException("test"); });
+        executor.submit(session, done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertThrows(IllegalStateException.class, () -> executor.submit(session, () -> { }));
+    }
+
+    @Test
+    void testTaskThrowingErrorDoesNotStopSession() throws InterruptedException {
+        BotExecutor executor = new BotExecutor(1, 1000);
+        CountDownLatch done = new CountDownLatch(1);
+        Object session = new Object();
+
+        executor.submit(session, () -> { throw new StackOverflowError("test"); });
+        executor.submit(session, done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void testLimitsHelpersPerSession() throws InterruptedException {
+        BotExecutor executor = new BotExecutor(2, 1000);
+        assertEquals(1, executor.getHelpersPerSession());
+        Object session = new Object();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch helpersDone = new CountDownLatch(3);
+        for (int k = 0; k < 3; k++) {
+            executor.submitHelper(session, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    // koniec testu
+                }
+                running.decrementAndGet();
+                helpersDone.countDown();
+            });
+        }
+
+        // Drugi wątek puli pozostaje wolny dla zwykłych zadań
+        CountDownLatch other = new CountDownLatch(1);
+        executor.submit(new Object(), other::countDown);
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertTrue(helpersDone.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void testCapsMoveTime() {
+        BotExecutor executor = new BotExecutor(1, 2000);
+
+        assertEquals(500, executor.capMillis(500));
+        assertEquals(2000, executor.capMillis(10_000));
+        assertEquals(2000, executor.capMillis(TimeManager.UNLIMITED));
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe binarnego protokołu sieciowego.
+ */
+class FrameCodecTest {
+
+    @Test
+    void testMoveRoundTrip() {
+        Move move = (Move) FrameCodec.decode(ByteBuffer.wrap(FrameCodec.encode(new Move(18, 0, false, false, true))));
+        assertEquals(18, move.x);
+        assertEquals(0, move.y);
+        assertFalse(move.pass);
+        assertFalse(move.resign);
+        assertTrue(move.doneScoring);
+
+        Move pass = (Move) FrameCodec.decode(ByteBuffer.wrap(FrameCodec.encode(new Move(-1, -1, true, false))));
+        assertTrue(pass.pass);
+        assertEquals(-1, pass.x);
+    }
+
+    @Test
+    void testStateRoundTripPacksBoard() throws Exception {
+        Board board = new Board(19);
+        board.set(0, 0, Stone.BLACK);
+        board.set(18, 18, Stone.WHITE);
+        board.set(3, 15, Stone.WHITE);
+        GameState sent = GameState.full(board.snapshot(), 42, GameStatus.GAME_OVER, false, 80.5f, 12f);
+
+        byte[] frame = FrameCodec.encode(sent);
+        assertEquals(FrameCodec.HEADER + 17 + 91, frame.length);
+
+        GameState got = (GameState) FrameCodec.read(new DataInputStream(new ByteArrayInputStream(frame)));
+        assertTrue(got.isFull());
+        assertEquals(19, got.size);
+        assertEquals(42, got.seq);
+        assertEquals(GameStatus.GAME_OVER, got.status);
+        assertFalse(got.yourTurn);
+        assertEquals(sent.getMessage(), got.getMessage());
+        for (int y = 0; y < 19; y++)
+            for (int x = 0; x < 19; x++) assertEquals(board.get(x, y), got.get(x, y), x + "," + y);
+    }
+
+    @Test
+    void testDeltaRoundTrip() {
+        int[] changes = {(18 * 19 + 18) << 2 | Board.WHITE, (5 * 19 + 4) << 2 | Board.EMPTY};
+        GameState sent = GameState.delta(19, 7, changes, GameStatus.YOUR_TURN, true, 3.5f, 6.5f);
+
+        byte[] frame = FrameCodec.encode(sent);
+        assertEquals(FrameCodec.HEADER + 19 + 4, frame.length);
+
+        GameState got = (GameState) FrameCodec.decode(ByteBuffer.wrap(frame));
+        assertFalse(got.isFull());
+        assertEquals(7, got.seq);
+        assertTrue(got.yourTurn);
+        assertEquals(2, got.getChangeCount());
+        assertEquals(18 * 19 + 18, got.getChangePoint(0));
+        assertEquals(Stone.WHITE, got.getChangeStone(0));
+        assertEquals(5 * 19 + 4, got.getChangePoint(1));
+        assertEquals(Stone.EMPTY, got.getChangeStone(1));
+        assertEquals(sent.getMessage(), got.getMessage());
+    }
+
+    @Test
+    void testResyncRoundTrip() {
+        assertSame(FrameCodec.RESYNC, FrameCodec.decode(ByteBuffer.wrap(FrameCodec.encode(FrameCodec.RESYNC))));
+    }
+
+    @Test
+    void testDecodeWaitsForWholeFrame() {
+        byte[] frame = FrameCodec.encode(new Move(1, 2, false, false));
+        ByteBuffer partial = ByteBuffer.wrap(frame, 0, frame.length - 1);
+        assertNull(FrameCodec.decode(partial));
+        assertEquals(0, partial.position());
+
+        ByteBuffer whole = ByteBuffer.wrap(frame);
+        Move move = (Move) FrameCodec.decode(whole);
+        assertEquals(1, move.x);
+        assertEquals(2, move.y);
+        assertFalse(whole.hasRemaining());
+    }
+
+    @Test
+    void testRejectsInvalidFrames() {
+        assertThrows(IllegalArgumentException.class, () -> FrameCodec.decode(ByteBuffer.allocate(8).putInt(-5).flip()));
+
+        byte[] frame = FrameCodec.encode(new Move(1, 2, false, false));
+        frame[FrameCodec.HEADER] = (byte) (FrameCodec.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> FrameCodec.decode(ByteBuffer.wrap(frame)));
+
+        assertThrows(IllegalArgumentException.class, () -> FrameCodec.encode("text"));
+    }
+
+    @Test
+    void testRejectsReservedPointCode() {
+        byte[] full = FrameCodec.encode(GameState.full(new Board(5).snapshot(), 0, GameStatus.GAME_STARTED, true, 0, 0));
+        full[full.length - 1] = 3 << 2;
+        assertThrows(IllegalArgumentException.class, () -> FrameCodec.decode(ByteBuffer.wrap(full)));
+
+        byte[] delta = FrameCodec.encode(GameState.delta(5, 1, new int[]{7 << 2 | Board.BLACK}, GameStatus.YOUR_TURN, true, 0, 0));
+        delta[delta.length - 2] |= (byte) 0xC0;
+        assertThrows(IllegalArgumentException.class, () -> FrameCodec.decode(ByteBuffer.wrap(delta)));
+    }
+}
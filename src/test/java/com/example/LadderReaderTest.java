@@ -0,0 +1,92 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy czytania drabin.
+ */
+class LadderReaderTest {
+
+    /**
+     * Biały kamień z dwoma oddechami, który czarny może gonić w drabinie
+     * w stronę prawego dolnego rogu planszy 9x9.
+     */
+    private static Board ladderStart() {
+        Board board = new Board(9);
+        board.set(3, 3, Stone.WHITE);
+        board.set(3, 2, Stone.BLACK);
+        board.set(2, 3, Stone.BLACK);
+        board.set(4, 4, Stone.BLACK);
+        return board;
+    }
+
+    @Test
+    void testLadderWorksOnEmptyBoard() {
+        Board board = ladderStart();
+        long hash = board.getHash();
+        LadderReader reader = new LadderReader();
+
+        int move = reader.attack(board, board.index(3, 3));
+
+        assertNotEquals(LadderReader.NO_MOVE, move);
+        assertEquals(hash, board.getHash(), "Board must be restored after reading");
+        assertTrue(reader.getNodes() > 2);
+
+        new RulesEngine().play(board, move, Board.BLACK, new MoveRecord());
+        assertTrue(reader.isCaptured(board, board.index(3, 3)));
+        assertEquals(LadderReader.NO_MOVE, reader.escape(board, board.index(3, 3)));
+    }
+
+    @Test
+    void testLadderBreakersSaveChain() {
+        Board board = ladderStart();
+        LadderReader reader = new LadderReader();
+
+        // Kamień na drodze jednej drabiny – czarny goni w drugą stronę
+        board.set(1, 6, Stone.WHITE);
+        assertEquals(board.index(3, 4), reader.attack(board, board.index(3, 3)));
+
+        // Kamienie na drodze obu drabin
+        board.set(6, 1, Stone.WHITE);
+        assertEquals(LadderReader.NO_MOVE, reader.attack(board, board.index(3, 3)));
+    }
+
+    @Test
+    void testEscapeByCapturingNeighbour() {
+        // Biały (1,1) w atari; czarne (1,0) i (1,2) też są w atari
+        Board board = new Board(9);
+        board.set(1, 1, Stone.WHITE);
+        board.set(0, 1, Stone.BLACK);
+        board.set(1, 0, Stone.BLACK);
+        board.set(1, 2, Stone.BLACK);
+        board.set(2, 0, Stone.WHITE);
+        board.set(2, 2, Stone.WHITE);
+        board.set(1, 3, Stone.WHITE);
+        LadderReader reader = new LadderReader();
+
+        int move = reader.escape(board, board.index(1, 1));
+
+        // Zbicia są rozważane przed przedłużeniem na (2,1)
+        assertTrue(move == board.index(0, 0) || move == board.index(0, 2));
+        assertFalse(reader.isCaptured(board, board.index(1, 1)));
+    }
+
+    @Test
+    void testChainWithManyLibertiesIsNotRead() {
+        Board board = new Board(9);
+        board.set(4, 4, Stone.WHITE);
+        LadderReader reader = new LadderReader();
+
+        assertEquals(LadderReader.NO_MOVE, reader.attack(board, board.index(4, 4)));
+        assertFalse(reader.isCaptured(board, board.index(4, 4)));
+    }
+
+    @Test
+    void testDepthLimitLeavesLadderUndecided() {
+        Board board = ladderStart();
+
+        assertEquals(LadderReader.NO_MOVE, new LadderReader(3, LadderReader.DEFAULT_MAX_NODES).attack(board, board.index(3, 3)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy poczekalni kojarzącej graczy w pary przez gniazda sieciowe.
+ */
+@Timeout(30)
+class LobbyTest {
+
+    private ServerSocket server;
+    private final List<Socket> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Socket s : clients) s.close();
+        server.close();
+    }
+
+    @Test
+    void testPairsTwoPlayersIntoOneGame() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 60_000);
+        Socket first = connect(lobby);
+        assertEquals(1, lobby.getWaiting());
+        Socket second = connect(lobby);
+        assertEquals(0, lobby.getWaiting());
+
+        GameState black = firstState(first);
+        GameState white = firstState(second);
+        assertTrue(black.yourTurn);
+        assertFalse(white.yourTurn);
+        assertEquals(1, lobby.getGamesStarted());
+        lobby.close();
+    }
+
+    @Test
+    void testAssignsBotAfterWaiting() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 50);
+        Socket alone = connect(lobby);
+
+        GameState state = firstState(alone);
+        assertTrue(state.yourTurn);
+        assertEquals(0, lobby.getWaiting());
+        lobby.close();
+    }
+
+    @Test
+    void testDropsPlayerWhoDisconnectsWhileWaiting() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 60_000);
+        Socket first = connect(lobby);
+        first.close();
+        while (lobby.getWaiting() > 0) Thread.sleep(10);
+
+        connect(lobby);
+        assertEquals(1, lobby.getWaiting());
+        assertEquals(0, lobby.getGamesStarted());
+        lobby.close();
+    }
+
+    @Test
+    void testOpponentWinsWhenPlayerDisconnects() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 60_000);
+        Socket first = connect(lobby);
+        Socket second = connect(lobby);
+        DataInputStream in = new DataInputStream(second.getInputStream());
+        assertEquals(GameStatus.GAME_STARTED, ((GameState) FrameCodec.read(in)).status);
+
+        first.close();
+        GameState state = (GameState) FrameCodec.read(in);
+        assertEquals(GameStatus.OPPONENT_DISCONNECTED, state.status);
+        assertFalse(state.yourTurn);
+        lobby.close();
+    }
+
+    @Test
+    void testClosedLobbyRejectsPlayers() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 60_000);
+        lobby.close();
+        Socket client = new Socket(server.getInetAddress(), server.getLocalPort());
+        clients.add(client);
+        try (Socket accepted = server.accept()) {
+            assertThrows(IllegalStateException.class, () -> lobby.join(accepted));
+        }
+    }
+
+    @Test
+    void testRejectsNegativeWait() {
+        assertThrows(IllegalArgumentException.class, () -> new Lobby(Bot::new, -1));
+    }
+
+    /** Łączy klienta i przekazuje połączenie po stronie serwera do poczekalni. */
+    private Socket connect(Lobby lobby) throws IOException {
+        Socket client = new Socket(server.getInetAddress(), server.getLocalPort());
+        clients.add(client);
+        lobby.join(server.accept());
+        return client;
+    }
+
+    /** Odbiera pierwszy stan gry. */
+    private static GameState firstState(Socket client) throws Exception {
+        return (GameState) FrameCodec.read(new DataInputStream(client.getInputStream()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe zbioru LongHashSet.
+ */
+class LongHashSetTest {
+
+    @Test
+    void testAddAndContains() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(42L));
+        assertFalse(set.add(42L));
+        assertTrue(set.contains(42L));
+        assertFalse(set.contains(43L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testZeroIsStoredSeparately() {
+        LongHashSet set = new LongHashSet();
+
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(0L));
+        assertTrue(set.contains(0L));
+        assertFalse(set.add(0L));
+    }
+
+    @Test
+    void testGrowKeepsElements() {
+        LongHashSet set = new LongHashSet(4);
+
+        for (long v = 1; v <= 1000; v++) {
+            set.add(v * 0x1234567L);
+        }
+
+        assertEquals(1000, set.size());
+        for (long v = 1; v <= 1000; v++) {
+            assertTrue(set.contains(v * 0x1234567L));
+        }
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        LongHashSet set = new LongHashSet();
+        set.add(5L);
+
+        LongHashSet copy = set.copy();
+        copy.add(6L);
+
+        assertTrue(copy.contains(5L));
+        assertFalse(set.contains(6L));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe przeszukiwania Monte Carlo.
+ */
+class MctsSearchTest {
+
+    @Test
+    void testRespectsPlayoutBudget() {
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(1));
+
+        int move = search.search(new Board(5), Stone.BLACK, null, 200, 0);
+
+        assertEquals(200, search.getLastPlayouts());
+        assertNotEquals(MctsNode.PASS, move);
+        assertTrue(search.getPlayoutsPerSecond() > 0);
+    }
+
+    @Test
+    void testParallelSearchSharesPlayoutBudget() {
+        MctsSearch search = new MctsSearch(0.5f, 4, new SplittableRandom(4));
+
+        int move = search.search(new Board(5), Stone.BLACK, null, 400, 0);
+
+        assertEquals(4, search.getThreads());
+        assertEquals(400, search.getLastPlayouts());
+        assertNotEquals(MctsNode.PASS, move);
+    }
+
+    @Test
+    void testParallelSearchCapturesLargeGroupInAtari() {
+        Board board = new Board(5);
+        for (int x = 0; x < 5; x++) {
+            board.set(x, 1, Stone.WHITE);
+            board.set(x, 2, Stone.BLACK);
+        }
+        for (int x = 0; x < 4; x++) {
+            board.set(x, 0, Stone.BLACK);
+        }
+        board.set(2, 3, Stone.WHITE);
+        MctsSearch search = new MctsSearch(0.5f, 4, new SplittableRandom(5));
+
+        assertEquals(board.index(4, 0), search.search(board, Stone.BLACK, null, 4000, 0));
+    }
+
+    @Test
+    void testCapturesLargeGroupInAtari() {
+        Board board = new Board(5);
+        for (int x = 0; x < 5; x++) {
+            board.set(x, 1, Stone.WHITE);
+            board.set(x, 2, Stone.BLACK);
+        }
+        for (int x = 0; x < 4; x++) {
+            board.set(x, 0, Stone.BLACK);
+        }
+        board.set(2, 3, Stone.WHITE);
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(2));
+
+        int move = search.search(board, Stone.BLACK, null, 2000, 0);
+
+        assertEquals(board.index(4, 0), move);
+    }
+
+    @Test
+    void testDoesNotFillOwnEye() {
+        Board board = new Board(3);
+        board.set(1, 0, Stone.BLACK);
+        board.set(0, 1, Stone.BLACK);
+        board.set(1, 1, Stone.BLACK);
+        board.set(2, 1, Stone.BLACK);
+        board.set(1, 2, Stone.BLACK);
+        board.set(0, 2, Stone.BLACK);
+        board.set(2, 2, Stone.BLACK);
+        board.set(2, 0, Stone.BLACK);
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(3));
+
+        assertEquals(MctsNode.PASS, search.search(board, Stone.BLACK, null, 50, 0));
+        assertTrue(search.wasLastForced());
+        assertEquals(0, search.getLastPlayouts());
+    }
+
+    @Test
+    void testUnclearPositionIsUnstable() {
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(9));
+
+        search.search(new Board(5), Stone.BLACK, null, 30, 0);
+
+        assertFalse(search.wasLastForced());
+        assertFalse(search.isLastStable());
+    }
+
+    @Test
+    void testReusesSubtreeAfterMoveAndReply() {
+        Board board = new Board(5);
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(6));
+        RulesEngine rules = new RulesEngine();
+
+        int own = search.search(board, Stone.BLACK, null, 2000, 0);
+        rules.play(board, own, Board.BLACK, new MoveRecord());
+        int reply = board.index(0, 0) == own ? board.index(4, 4) : board.index(0, 0);
+        rules.play(board, reply, Board.WHITE, new MoveRecord());
+        search.search(board, Stone.BLACK, null, 100, 0);
+
+        assertTrue(search.getLastReused() > 0);
+        assertEquals(100, search.getLastPlayouts());
+    }
+
+    @Test
+    void testPonderingBuildsTreeForNextSearch() throws InterruptedException {
+        Board board = new Board(5);
+        board.set(2, 2, Stone.BLACK);
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(7));
+
+        search.ponder(board, Stone.WHITE, 500, 0);
+        for (int k = 0; k < 500 && search.isPondering(); k++) Thread.sleep(10);
+        assertFalse(search.isPondering());
+
+        new RulesEngine().play(board, board.index(1, 1), Board.WHITE, new MoveRecord());
+        search.search(board, Stone.BLACK, null, 50, 0);
+
+        assertTrue(search.getLastReused() > 0);
+    }
+
+    @Test
+    void testSearchStopsPondering() {
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(8));
+
+        search.ponder(new Board(5), Stone.WHITE, 0, 0);
+        search.search(new Board(5), Stone.BLACK, null, 10, 0);
+
+        assertFalse(search.isPondering());
+        assertEquals(10, search.getLastPlayouts());
+    }
+
+    @Test
+    void testSearchDoesNotWaitForHelpersQueuedInBusyExecutor() throws InterruptedException {
+        BotExecutor executor = new BotExecutor(1, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(new Object(), () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+                // koniec testu
+            }
+        });
+        MctsSearch search = new MctsSearch(0.5f, 4, new SplittableRandom(11));
+        search.setExecutor(executor, "session");
+
+        search.search(new Board(5), Stone.BLACK, null, 100, 0);
+        assertEquals(100, search.getLastPlayouts());
+
+        search.ponder(new Board(5), Stone.WHITE, 0, 0);
+        assertTrue(search.isPondering());
+        search.stopPondering();
+        assertFalse(search.isPondering());
+
+        release.countDown();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy nieblokującego transportu połączeń klientów.
+ */
+@Timeout(30)
+class NioTransportTest {
+
+    private ServerSocketChannel server;
+    private NioTransport transport;
+    private final List<Socket> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        transport = new NioTransport(2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Socket s : clients) s.close();
+        transport.close();
+        server.close();
+    }
+
+    @Test
+    void testPlaysAgainstBotThroughEventLoop() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 0);
+        Socket client = connect(lobby);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+
+        BoardMirror mirror = new BoardMirror();
+        GameState start = (GameState) FrameCodec.read(in);
+        assertTrue(start.yourTurn);
+        assertTrue(start.isFull());
+        assertTrue(mirror.apply(start));
+
+        // Ramka wysłana bajt po bajcie musi zostać złożona z wielu odczytów
+        OutputStream out = client.getOutputStream();
+        for (byte b : FrameCodec.encode(new Move(3, 3, false, false))) {
+            out.write(b);
+            out.flush();
+        }
+
+        GameState state;
+        do {
+            state = (GameState) FrameCodec.read(in);
+            assertFalse(state.isFull());
+            assertTrue(mirror.apply(state));
+        } while (!state.yourTurn);
+        assertEquals(Stone.BLACK, mirror.get(3, 3));
+        assertEquals(2, mirror.getSeq());
+        lobby.close();
+    }
+
+    @Test
+    void testPairsTwoConnections() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 60_000);
+        Socket first = connect(lobby);
+        Socket second = connect(lobby);
+
+        GameState black = (GameState) FrameCodec.read(new DataInputStream(first.getInputStream()));
+        GameState white = (GameState) FrameCodec.read(new DataInputStream(second.getInputStream()));
+        assertTrue(black.yourTurn);
+        assertFalse(white.yourTurn);
+        assertEquals(2, transport.getConnections());
+        lobby.close();
+    }
+
+    @Test
+    void testClosesConnectionOnDisconnect() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 60_000);
+        Socket client = connect(lobby);
+        assertEquals(1, transport.getConnections());
+
+        client.close();
+        while (transport.getConnections() > 0) Thread.sleep(10);
+        lobby.close();
+    }
+
+    @Test
+    void testClosesConnectionOnInvalidFrame() throws Exception {
+        Lobby lobby = new Lobby(Bot::new, 60_000);
+        Socket client = connect(lobby);
+
+        client.getOutputStream().write(new byte[]{(byte) 0xFF, 0, 0, 0});
+        assertEquals(-1, client.getInputStream().read());
+        lobby.close();
+    }
+
+    /** Łączy klienta i przekazuje połączenie po stronie serwera do transportu i poczekalni. */
+    private Socket connect(Lobby lobby) throws IOException {
+        Socket client = new Socket();
+        client.connect(server.getLocalAddress());
+        clients.add(client);
+        NioConnection connection = transport.register(server.accept());
+        lobby.join(connection);
+        return client;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy księgi otwarć i zapisu partii w formacie SGF.
+ */
+class OpeningBookTest {
+
+    private static Move at(int x, int y) {
+        return new Move(x, y, false, false);
+    }
+
+    @Test
+    void testBookAnswersRecordedMove() {
+        OpeningBook book = new OpeningBook(10, 2);
+        GameRecord game = new GameRecord(9, List.of(at(2, 2), at(6, 6), at(2, 6)), Stone.BLACK);
+        book.add(game);
+
+        Board board = new Board(9);
+        assertEquals(OpeningBook.NO_MOVE, book.lookup(board, Stone.BLACK), "One game is below the threshold");
+
+        book.add(game);
+        board.set(2, 2, Stone.BLACK);
+        assertEquals(board.index(6, 6), book.lookup(board, Stone.WHITE));
+        assertEquals(OpeningBook.NO_MOVE, book.lookup(board, Stone.BLACK), "Side to move is part of the key");
+    }
+
+    @Test
+    void testSymmetricPositionsShareStatistics() {
+        OpeningBook book = new OpeningBook(10, 2);
+        book.add(new GameRecord(9, List.of(at(2, 2), at(6, 6)), Stone.WHITE));
+        book.add(new GameRecord(9, List.of(at(2, 2), at(6, 6)), Stone.WHITE));
+
+        // Ta sama pozycja odbita względem osi pionowej
+        Board board = new Board(9);
+        board.set(6, 2, Stone.BLACK);
+        assertEquals(board.index(2, 6), book.lookup(board, Stone.WHITE));
+    }
+
+    @Test
+    void testLookupSeesMovesPlayedAfterEarlierLookup() {
+        OpeningBook book = new OpeningBook(10, 1);
+        book.add(new GameRecord(9, List.of(at(2, 2), at(6, 6)), Stone.WHITE));
+
+        // Pierwsze zapytanie nie może zostawić na planszy nieaktualnych skrótów
+        Board board = new Board(9);
+        assertEquals(board.index(2, 2), book.lookup(board, Stone.BLACK));
+        board.set(6, 2, Stone.BLACK);
+        assertEquals(board.index(2, 6), book.lookup(board, Stone.WHITE));
+    }
+
+    @Test
+    void testMostPlayedMoveWins() {
+        OpeningBook book = new OpeningBook(10, 1);
+        book.add(new GameRecord(9, List.of(at(4, 4), at(2, 2)), Stone.BLACK));
+        book.add(new GameRecord(9, List.of(at(4, 4), at(2, 3)), Stone.BLACK));
+        book.add(new GameRecord(9, List.of(at(4, 4), at(2, 3)), Stone.WHITE));
+
+        Board board = new Board(9);
+        board.set(4, 4, Stone.BLACK);
+        assertEquals(board.index(2, 3), book.lookup(board, Stone.WHITE));
+    }
+
+    @Test
+    void testSgfRoundTrip() {
+        GameRecord game = new GameRecord(9, List.of(at(0, 1), new Move(-1, -1, true, false), at(8, 7)), Stone.WHITE);
+
+        GameRecord parsed = GameRecord.parseSgf(game.toSgf());
+
+        assertEquals(9, parsed.size);
+        assertEquals(Stone.WHITE, parsed.winner);
+        assertEquals(3, parsed.getMoves().size());
+        assertEquals(1, parsed.getMoves().get(0).y);
+        assertTrue(parsed.getMoves().get(1).pass);
+        assertEquals(8, parsed.getMoves().get(2).x);
+    }
+
+    @Test
+    void testSgfMainLineOnly() {
+        GameRecord game = GameRecord.parseSgf("(;SZ[9]RE[B+R]C[comment with ) and \\] inside];B[cc](;W[gg];B[cg])(;W[gc]))");
+
+        assertEquals(Stone.BLACK, game.winner);
+        assertEquals(3, game.getMoves().size());
+        assertEquals(6, game.getMoves().get(1).x);
+        assertEquals(6, game.getMoves().get(1).y);
+    }
+
+    @Test
+    void testSgfRejectsSetupStones() {
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.parseSgf("(;SZ[9]AB[cc];W[gg])"));
+    }
+
+    @Test
+    void testLoadDirectory(@TempDir Path dir) throws IOException {
+        String sgf = new GameRecord(9, List.of(at(4, 4), at(2, 2)), Stone.BLACK).toSgf();
+        Files.writeString(dir.resolve("a.sgf"), sgf);
+        Files.writeString(dir.resolve("b.sgf"), sgf);
+        Files.writeString(dir.resolve("notes.txt"), "not a game");
+
+        OpeningBook book = OpeningBook.load(dir);
+
+        assertEquals(2, book.size());
+        assertNotEquals(OpeningBook.NO_MOVE, book.lookup(new Board(9), Stone.BLACK));
+    }
+}
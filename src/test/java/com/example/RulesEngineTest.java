@@ -3,6 +3,10 @@ package com.example;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -21,9 +25,9 @@ class RulesEngineTest {
         board = new Board(9);
 
         session = mock(GameSession.class);
-        when(session.getPreviousBoard()).thenReturn(null);
+        when(session.isRepeatedPosition(anyLong())).thenReturn(false);
         doNothing().when(session).addPrisoner(any());
-        doNothing().when(session).setPreviousBoard(any());
+        doNothing().when(session).recordPosition(anyLong());
     }
 
     @Test
@@ -85,4 +89,183 @@ class RulesEngineTest {
         assertFalse(result);
         assertEquals(Stone.EMPTY, board.get(1, 1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCaptureChain() {
+
+        board.set(0, 0, Stone.WHITE);
+        board.set(1, 0, Stone.WHITE);
+        board.set(2, 0, Stone.BLACK);
+        board.set(0, 1, Stone.BLACK);
+
+        Move move = new Move(1, 1, false, false, false);
+        boolean result = rules.applyMove(board, move, Stone.BLACK, session);
+
+        assertTrue(result);
+        assertEquals(Stone.EMPTY, board.get(0, 0));
+        assertEquals(Stone.EMPTY, board.get(1, 0));
+        verify(session, times(2)).addPrisoner(Stone.BLACK);
+    }
+
+    @Test
+    void testCaptureInsteadOfSuicide() {
+
+        board.set(1, 0, Stone.WHITE);
+        board.set(0, 1, Stone.WHITE);
+        board.set(2, 0, Stone.BLACK);
+        board.set(1, 1, Stone.BLACK);
+
+        Move move = new Move(0, 0, false, false, false);
+        boolean result = rules.applyMove(board, move, Stone.BLACK, session);
+
+        assertTrue(result);
+        assertEquals(Stone.EMPTY, board.get(1, 0));
+        assertEquals(Stone.WHITE, board.get(0, 1));
+    }
+
+    @Test
+    void testRepeatedPositionIsRejected() {
+
+        board.set(1, 0, Stone.BLACK);
+        board.set(0, 1, Stone.BLACK);
+        board.set(2, 1, Stone.BLACK);
+        board.set(2, 0, Stone.WHITE);
+        board.set(3, 1, Stone.WHITE);
+        board.set(2, 2, Stone.WHITE);
+        Board before = board.copy();
+        long repeated = before.getHash()
+                ^ board.zobristKey(board.index(1, 1), Board.WHITE)
+                ^ board.zobristKey(board.index(2, 1), Board.BLACK);
+        when(session.isRepeatedPosition(repeated)).thenReturn(true);
+
+        Move move = new Move(1, 1, false, false, false);
+        boolean result = rules.applyMove(board, move, Stone.WHITE, session);
+
+        assertFalse(result);
+        assertEquals(before, board);
+        assertEquals(before.getHash(), board.getHash());
+        verify(session, never()).recordPosition(anyLong());
+    }
+
+    @Test
+    void testPlayAndUndoRestoreBoard() {
+        board.set(1, 0, Stone.BLACK);
+        board.set(0, 1, Stone.BLACK);
+        board.set(1, 2, Stone.BLACK);
+        board.set(1, 1, Stone.WHITE);
+        Board before = board.copy();
+
+        MoveRecord record = rules.play(board, 2, 1, Stone.BLACK);
+
+        assertNotNull(record);
+        assertEquals(1, record.getCapturedCount());
+        assertEquals(board.index(1, 1), record.getCaptured(0));
+
+        rules.undo(board, record);
+
+        assertEquals(before, board);
+        assertEquals(before.getHash(), board.getHash());
+        assertTrue(board.inAtari(board.index(1, 1)));
+    }
+
+    @Test
+    void testPlayRejectsSuicide() {
+        board.set(1, 0, Stone.WHITE);
+        board.set(0, 1, Stone.WHITE);
+
+        assertNull(rules.play(board, 0, 0, Stone.BLACK));
+        assertNull(rules.play(board, 9, 0, Stone.BLACK));
+        assertEquals(Stone.EMPTY, board.get(0, 0));
+    }
+
+    @Test
+    void testRandomGameUndoesToEmptyBoard() {
+        Random random = new Random(3);
+        Deque<MoveRecord> history = new ArrayDeque<>();
+        Deque<Board> snapshots = new ArrayDeque<>();
+        Stone turn = Stone.BLACK;
+
+        for (int step = 0; step < 400; step++) {
+            Board before = board.copy();
+            MoveRecord record = rules.play(board, random.nextInt(9), random.nextInt(9), turn);
+            if (record == null) continue;
+            history.push(record);
+            snapshots.push(before);
+            turn = turn.opposite();
+        }
+
+        while (!history.isEmpty()) {
+            rules.undo(board, history.pop());
+            Board expected = snapshots.pop();
+            assertEquals(expected, board);
+            assertEquals(expected.getHash(), board.getHash());
+        }
+        assertEquals(0, board.getHash());
+    }
+
+    @Test
+    void testLegalMovesMatchPlay() {
+        Random random = new Random(5);
+        Stone turn = Stone.BLACK;
+        for (int step = 0; step < 60; step++) {
+            rules.play(board, random.nextInt(9), random.nextInt(9), turn);
+            turn = turn.opposite();
+        }
+
+        for (Stone stone : new Stone[]{Stone.BLACK, Stone.WHITE}) {
+            int[] legal = rules.legalMoves(board, stone, null);
+            int count = 0;
+            for (int y = 0; y < 9; y++) {
+                for (int x = 0; x < 9; x++) {
+                    long expectedHash = 0;
+                    MoveRecord record = rules.play(board, x, y, stone);
+                    if (record != null) {
+                        expectedHash = board.getHash();
+                        rules.undo(board, record);
+                        assertEquals(board.index(x, y), legal[count++]);
+                        assertEquals(expectedHash, rules.hashAfter(board, board.index(x, y), Board.code(stone)));
+                    }
+                }
+            }
+            assertEquals(legal.length, count);
+        }
+    }
+
+    @Test
+    void testLegalMovesRespectSuperko() {
+        board.set(1, 0, Stone.BLACK);
+        board.set(0, 1, Stone.BLACK);
+        board.set(2, 1, Stone.BLACK);
+        board.set(2, 0, Stone.WHITE);
+        board.set(3, 1, Stone.WHITE);
+        board.set(2, 2, Stone.WHITE);
+        board.set(1, 2, Stone.WHITE);
+        int ko = board.index(1, 1);
+        long repeated = rules.hashAfter(board, ko, Board.WHITE);
+        when(session.isRepeatedPosition(repeated)).thenReturn(true);
+
+        assertFalse(rules.isLegal(board, ko, Board.WHITE, session));
+        assertTrue(rules.isLegal(board, ko, Board.WHITE, null));
+        assertTrue(rules.isCapture(board, ko, Board.WHITE));
+    }
+
+    @Test
+    void testGameViewHistoryRestrictsLegalMoves() {
+        board.set(1, 0, Stone.BLACK);
+        board.set(0, 1, Stone.BLACK);
+        board.set(2, 1, Stone.BLACK);
+        board.set(2, 0, Stone.WHITE);
+        board.set(3, 1, Stone.WHITE);
+        board.set(2, 2, Stone.WHITE);
+        board.set(1, 2, Stone.WHITE);
+        int ko = board.index(1, 1);
+        LongHashSet history = new LongHashSet();
+        history.add(rules.hashAfter(board, ko, Board.WHITE));
+        GameView view = new GameView(board.snapshot(), GameStatus.YOUR_TURN, 0, 0, true, Stone.WHITE, 7, 0, 0,
+                ko, false, false, history);
+
+        for (int i : rules.legalMoves(board, Stone.WHITE, view)) assertNotEquals(ko, i);
+        assertTrue(view.isRepeatedPosition(rules.hashAfter(board, ko, Board.WHITE)));
+        assertEquals(1, view.getHistorySize());
+    }
+}
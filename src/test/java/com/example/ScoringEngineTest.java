@@ -38,4 +38,22 @@ class ScoringEngineTest {
         assertTrue(result.blackScore > 0);
         assertEquals(0, result.whiteScore);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBitBoardScoresLikeBoard() {
+        BitBoard bits = new BitBoard(5);
+        for (int y = 0; y < 5; y++) {
+            board.set(2, y, Stone.BLACK);
+            bits.set(2, y, Stone.BLACK);
+        }
+        board.set(4, 4, Stone.WHITE);
+        bits.set(4, 4, Stone.WHITE);
+
+        ScoringResult expected = engine.score(board, 1, 2, 6.5f);
+        ScoringResult actual = engine.score(bits, 1, 2, 6.5f);
+
+        assertEquals(expected.blackScore, actual.blackScore);
+        assertEquals(expected.whiteScore, actual.whiteScore);
+        assertEquals(11, actual.blackScore);
+    }
+}
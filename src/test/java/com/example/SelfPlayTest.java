@@ -0,0 +1,31 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy rozgrywki bez gniazd sieciowych między graczami w procesie serwera.
+ */
+class SelfPlayTest {
+
+    @Test
+    void testAllGamesFinishWithAWinner() throws InterruptedException {
+        SelfPlay selfPlay = new SelfPlay(Bot::new, Bot::new, 5, 40);
+
+        SelfPlay.Report report = selfPlay.run(6, 3);
+
+        assertEquals(6, report.games);
+        assertEquals(0, report.stalled);
+        assertEquals(6, report.blackWins + report.whiteWins);
+        assertTrue(report.moves > 0);
+        assertTrue(report.latencyMicros(50) <= report.latencyMicros(100));
+        double[] ci = report.blackWinInterval();
+        assertTrue(ci[0] <= report.blackWinRate() && report.blackWinRate() <= ci[1]);
+    }
+
+    @Test
+    void testUnknownPlayerIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SelfPlay.player("human"));
+    }
+}
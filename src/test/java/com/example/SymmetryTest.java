@@ -0,0 +1,104 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe symetrii planszy i skrótów kanonicznych.
+ */
+class SymmetryTest {
+
+    @Test
+    void testTransformsAreDistinctPermutationsWithInverses() {
+        Symmetry sym = Symmetry.forSize(9);
+        Board board = new Board(9);
+        int corner = board.index(0, 1);
+        boolean[] seen = new boolean[board.getStride() * board.getStride()];
+
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            int image = sym.apply(s, corner);
+            assertFalse(seen[image], "symmetry " + s);
+            seen[image] = true;
+            for (int i : Adjacency.forSize(9).points) {
+                assertEquals(i, sym.apply(sym.inverse(s), sym.apply(s, i)));
+            }
+        }
+        assertEquals(MctsNode.PASS, sym.apply(3, MctsNode.PASS));
+    }
+
+    @Test
+    void testSymmetricPositionsShareCanonicalHash() {
+        Symmetry sym = Symmetry.forSize(9);
+        Board original = new Board(9);
+        original.set(2, 3, Stone.BLACK);
+        original.set(6, 2, Stone.WHITE);
+        original.set(4, 4, Stone.BLACK);
+        long canonical = original.trackSymmetries().canonicalHash();
+
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            Board image = new Board(9);
+            for (int i : Adjacency.forSize(9).points) {
+                byte c = original.at(i);
+                if (c != Board.EMPTY) image.placeStone(sym.apply(s, i), c);
+            }
+            CanonicalHash h = image.trackSymmetries();
+
+            assertEquals(canonical, h.canonicalHash());
+            assertEquals(image.getHash(), h.hash(Symmetry.IDENTITY));
+        }
+    }
+
+    @Test
+    void testIncrementalHashesMatchRecomputation() {
+        Board board = new Board(7);
+        CanonicalHash tracked = board.trackSymmetries();
+        RulesEngine rules = new RulesEngine();
+        Random random = new Random(11);
+        byte color = Board.BLACK;
+
+        for (int m = 0; m < 150; m++) {
+            int[] moves = rules.legalMoves(board, Board.stone(color), null);
+            if (moves.length == 0) break;
+            rules.play(board, moves[random.nextInt(moves.length)], color, new MoveRecord());
+            color = color == Board.BLACK ? Board.WHITE : Board.BLACK;
+        }
+        CanonicalHash fresh = board.copy().trackSymmetries();
+
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            assertEquals(fresh.hash(s), tracked.hash(s));
+        }
+        assertEquals(board.getHash(), tracked.hash(Symmetry.IDENTITY));
+    }
+
+    @Test
+    void testMovesMapBetweenFrames() {
+        Board board = new Board(9);
+        board.set(7, 1, Stone.BLACK);
+        CanonicalHash h = board.trackSymmetries();
+        int move = board.index(2, 6);
+
+        int canonical = h.toCanonical(move);
+
+        assertEquals(move, h.fromCanonical(canonical));
+        Board mirrored = new Board(9);
+        mirrored.set(1, 7, Stone.BLACK);
+        CanonicalHash m = mirrored.trackSymmetries();
+        assertEquals(h.canonicalHash(), m.canonicalHash());
+        assertEquals(mirrored.index(6, 2), m.fromCanonical(canonical));
+    }
+
+    @Test
+    void testCopyFromInvalidatesHashes() {
+        Board board = new Board(5);
+        CanonicalHash h = board.trackSymmetries();
+        Board other = new Board(5);
+        other.set(0, 0, Stone.WHITE);
+
+        board.copyFrom(other);
+
+        assertEquals(other.getHash(), h.hash(Symmetry.IDENTITY));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe przyrostowego trackera terytorium.
+ */
+class TerritoryTrackerTest {
+
+    @Test
+    void testEmptyBoardHasNoTerritory() {
+        TerritoryTracker tracker = new Board(9).trackTerritory();
+
+        assertEquals(0, tracker.getBlackTerritory());
+        assertEquals(0, tracker.getWhiteTerritory());
+    }
+
+    @Test
+    void testCornerTerritory() {
+        Board board = new Board(5);
+        TerritoryTracker tracker = board.trackTerritory();
+
+        board.set(0, 1, Stone.BLACK);
+        board.set(1, 0, Stone.BLACK);
+        board.set(4, 4, Stone.WHITE);
+
+        assertEquals(1, tracker.getBlackTerritory());
+        assertEquals(0, tracker.getWhiteTerritory());
+
+        board.set(0, 1, Stone.EMPTY);
+        assertEquals(0, tracker.getBlackTerritory());
+    }
+
+    @Test
+    void testMatchesScoringEngineDuringPlayAndUndo() {
+        RulesEngine rules = new RulesEngine();
+        ScoringEngine engine = new ScoringEngine();
+        Random random = new Random(17);
+        Board board = new Board(9);
+        TerritoryTracker tracker = board.trackTerritory();
+        Deque<MoveRecord> history = new ArrayDeque<>();
+        Stone turn = Stone.BLACK;
+
+        for (int step = 0; step < 600; step++) {
+            if (!history.isEmpty() && random.nextInt(5) == 0) {
+                rules.undo(board, history.pop());
+            } else {
+                MoveRecord record = rules.play(board, random.nextInt(9), random.nextInt(9), turn);
+                if (record == null) continue;
+                history.push(record);
+                turn = turn.opposite();
+            }
+            if (random.nextInt(3) == 0) {
+                ScoringResult expected = engine.score(board, 0, 0, 0);
+                ScoringResult actual = tracker.score(0, 0, 0);
+                assertEquals(expected.blackScore, actual.blackScore);
+                assertEquals(expected.whiteScore, actual.whiteScore);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe zarządcy czasu namysłu.
+ */
+class TimeManagerTest {
+
+    @Test
+    void testMoveLimitOnly() {
+        TimeManager clock = new TimeManager(500);
+
+        assertEquals(500, clock.allocate(361));
+        clock.spent(10_000);
+        assertEquals(500, clock.allocate(361));
+        assertEquals(500, clock.extension(500));
+        assertEquals(Long.MAX_VALUE, clock.getRemainingMillis());
+    }
+
+    @Test
+    void testGameBudgetIsSpreadOverRemainingMoves() {
+        TimeManager clock = new TimeManager(TimeManager.UNLIMITED, 100_000);
+
+        assertEquals(100_000 / 180, clock.allocate(361));
+        assertEquals(100_000 / 10, clock.allocate(4));
+    }
+
+    @Test
+    void testMoveLimitCapsGameShare() {
+        TimeManager clock = new TimeManager(200, 100_000);
+
+        assertEquals(200, clock.allocate(20));
+    }
+
+    @Test
+    void testSpentTimeReducesAllocation() {
+        TimeManager clock = new TimeManager(TimeManager.UNLIMITED, 10_000);
+        long before = clock.allocate(100);
+
+        clock.spent(5_000);
+
+        assertEquals(5_000, clock.getRemainingMillis());
+        assertTrue(clock.allocate(100) < before);
+        clock.spent(60_000);
+        assertEquals(0, clock.getRemainingMillis());
+        assertTrue(clock.allocate(100) > 0);
+        assertEquals(0, clock.extension(clock.allocate(100)));
+    }
+
+    @Test
+    void testUnlimitedHasNoExtension() {
+        TimeManager clock = new TimeManager(TimeManager.UNLIMITED);
+
+        assertEquals(TimeManager.UNLIMITED, clock.allocate(81));
+        assertEquals(0, clock.extension(TimeManager.UNLIMITED));
+    }
+
+    @Test
+    void testRejectsNegativeBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeManager(-1, 0));
+    }
+}
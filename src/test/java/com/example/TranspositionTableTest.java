@@ -0,0 +1,98 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy jednostkowe tablicy transpozycji.
+ */
+class TranspositionTableTest {
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(16);
+
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(12345L));
+        table.store(12345L, 40, 25);
+        long data = table.probe(12345L);
+
+        assertEquals(40, TranspositionTable.visits(data));
+        assertEquals(25, TranspositionTable.wins(data));
+        table.store(12345L, 10, 2);
+        assertEquals(10, TranspositionTable.visits(table.probe(12345L)));
+    }
+
+    @Test
+    void testReplacesLeastVisitedEntryOfBucket() {
+        TranspositionTable table = new TranspositionTable(1);
+        for (int k = 1; k <= TranspositionTable.BUCKET_ENTRIES; k++) {
+            table.store(k, 10 * k, k);
+        }
+
+        table.store(99L, 5, 1);
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(99L));
+
+        table.store(99L, 15, 1);
+        assertEquals(15, TranspositionTable.visits(table.probe(99L)));
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(1L));
+        assertEquals(20, TranspositionTable.visits(table.probe(2L)));
+    }
+
+    @Test
+    void testSideToMoveChangesKey() {
+        long hash = new Board(9).zobristKey(new Board(9).index(4, 4), Board.BLACK);
+
+        assertNotEquals(TranspositionTable.key(hash, Board.BLACK, 9), TranspositionTable.key(hash, Board.WHITE, 9));
+    }
+
+    @Test
+    void testBoardSizeChangesKey() {
+        Board small = new Board(9);
+        Board large = new Board(19);
+        assertEquals(small.getHash(), large.getHash());
+
+        assertNotEquals(TranspositionTable.key(small.getHash(), Board.BLACK, 9),
+                TranspositionTable.key(large.getHash(), Board.BLACK, 19));
+        assertNotEquals(TranspositionTable.key(small.getHash(), Board.WHITE, 9),
+                TranspositionTable.key(large.getHash(), Board.WHITE, 19));
+    }
+
+    @Test
+    void testFileBackedTableSurvivesReopen(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("tt.bin");
+        TranspositionTable table = TranspositionTable.open(file, 64);
+        table.store(777L, 300, 120);
+        table.flush();
+
+        TranspositionTable reopened = TranspositionTable.open(file, 64);
+        assertEquals(300, TranspositionTable.visits(reopened.probe(777L)));
+
+        TranspositionTable resized = TranspositionTable.open(file, 128);
+        assertEquals(TranspositionTable.NOT_FOUND, resized.probe(777L));
+    }
+
+    @Test
+    void testRejectsInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(3));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void testSearchStoresRootStatistics() {
+        TranspositionTable table = new TranspositionTable(1024);
+        MctsSearch search = new MctsSearch(0.5f, new SplittableRandom(10));
+        search.setTranspositionTable(table);
+        Board board = new Board(5);
+
+        search.search(board, Stone.BLACK, null, 300, 0);
+
+        long data = table.probe(TranspositionTable.key(board.getHash(), Board.BLACK, board.getSize()));
+        assertEquals(300, TranspositionTable.visits(data));
+    }
+}